@@ -0,0 +1,219 @@
+package controleur;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+import modele.AnalyseMetier;
+import modele.outil.DispositionOptimiseur;
+import modele.outil.RapportDisposition;
+import vue.BlocClasse;
+import vue.DiagramPresenter;
+import vue.LiaisonVue;
+
+/**
+ * Chargement d'un projet hors de l'EDT : découverte des fichiers, analyse,
+ * résolution des liaisons, construction des blocs puis disposition.
+ *
+ * Tout est calculé sur un modèle neuf, sans toucher au diagramme affiché ;
+ * seul le remplacement final des blocs et des liaisons passe par l'EDT
+ * (voir {@link Controleur#terminerChargement}). L'avancement est publié
+ * vers la barre d'état. Un chargement annulé s'arrête à la prochaine
+ * étape ou au prochain fichier et son résultat est ignoré. Une exception
+ * levée pendant le calcul est transmise au contrôleur.
+ *
+ * Pour un rechargement du même projet, les positions des blocs affichés
+ * peuvent être conservées : seules les classes nouvelles sont alors placées
+ * ({@link DispositionOptimiseur#completerPositions}).
+ */
+class ChargementProjet extends SwingWorker<Boolean, ChargementProjet.Etape> implements AnalyseMetier.Suivi
+{
+    /** Étapes du chargement, dans l'ordre. */
+    enum Phase
+    {
+        DECOUVERTE  ("Découverte des fichiers"),
+        LECTURE     ("Analyse des fichiers"   ),
+        RESOLUTION  ("Résolution des liaisons"),
+        PRESENTATION("Construction des blocs" ),
+        DISPOSITION ("Disposition"            );
+
+        private final String libelle;
+
+        Phase(String libelle) { this.libelle = libelle; }
+
+        String getLibelle() { return this.libelle; }
+    }
+
+    /** Avancement publié vers l'EDT ; total à 0 si inconnu. */
+    static class Etape
+    {
+        final Phase phase;
+        final int   fait ;
+        final int   total;
+
+        Etape(Phase phase, int fait, int total)
+        {
+            this.phase = phase;
+            this.fait  = fait ;
+            this.total = total;
+        }
+
+        @Override
+        public String toString()
+        {
+            if (this.total > 0) return this.phase.getLibelle() + " : " + this.fait + " / " + this.total;
+            if (this.fait  > 0) return this.phase.getLibelle() + " : " + this.fait;
+            return this.phase.getLibelle() + "...";
+        }
+    }
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private final Controleur                   controleur      ;
+    private final String                       chemin          ;
+    private final AnalyseMetier                metier          ;
+    private final boolean                      afficherExternes;
+    private final boolean                      afficherAttributs;
+    private final boolean                      afficherMethodes;
+    private final DispositionOptimiseur.Moteur moteur          ;
+    private final long                         budgetMs        ;
+    private final Map<String, Point>           fixes           ; // positions conservées, ou null
+
+    // Résultat, lu par terminerChargement une fois le calcul fini
+    private List<BlocClasse>   blocs   ;
+    private List<LiaisonVue>   liaisons;
+    private RapportDisposition rapport ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+
+    /**
+     * Les options d'affichage sont lues à la création (sur l'EDT) : le calcul
+     * ne consulte plus la vue.
+     *
+     * @param fixes positions des blocs à conserver, par nom, ou null pour
+     *              une disposition complète
+     */
+    ChargementProjet(Controleur controleur, String chemin, AnalyseMetier metier,
+                     boolean afficherExternes, boolean afficherAttributs, boolean afficherMethodes,
+                     DispositionOptimiseur.Moteur moteur, long budgetMs, Map<String, Point> fixes)
+    {
+        this.controleur        = controleur       ;
+        this.chemin            = chemin           ;
+        this.metier            = metier           ;
+        this.afficherExternes  = afficherExternes ;
+        this.afficherAttributs = afficherAttributs;
+        this.afficherMethodes  = afficherMethodes ;
+        this.moteur            = moteur           ;
+        this.budgetMs          = budgetMs         ;
+        this.fixes             = fixes            ;
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+    String             getChemin  () { return this.chemin  ; }
+    AnalyseMetier      getMetier  () { return this.metier  ; }
+    List<BlocClasse>   getBlocs   () { return this.blocs   ; }
+    List<LiaisonVue>   getLiaisons() { return this.liaisons; }
+    RapportDisposition getRapport () { return this.rapport ; }
+
+    /*-------------------------------------- */
+    /* Suivi de l'analyse                    */
+    /*-------------------------------------- */
+    @Override public void    fichiersTrouves(int nb           ) { this.publish(new Etape(Phase.DECOUVERTE, nb, 0)); }
+    @Override public void    fichiersLus    (int nb, int total) { this.publish(new Etape(Phase.LECTURE, nb, total)); }
+    @Override public void    resolution     (                 ) { this.publish(new Etape(Phase.RESOLUTION, 0, 0)); }
+    @Override public boolean estAnnule      (                 ) { return this.isCancelled(); }
+
+    /*-------------------------------------- */
+    /* Calcul (hors EDT)                     */
+    /*-------------------------------------- */
+    @Override
+    protected Boolean doInBackground()
+    {
+        if (!this.metier.analyserDossier(this.chemin, this)) return false;
+
+        this.verifierAbandon();
+        this.publish(new Etape(Phase.PRESENTATION, this.metier.getClasses().size(), 0));
+        this.blocs    = DiagramPresenter.construireBlocs(this.metier.getClasses(), this.afficherExternes,
+                                                         this.afficherAttributs, this.afficherMethodes, 50, 50);
+        this.liaisons = DiagramPresenter.construireLiaisons(this.metier.getAssociations(), this.metier.getHeritages(),
+                                                            this.metier.getImplementations(), this.metier.getClasses());
+
+        this.verifierAbandon();
+        this.publish(new Etape(Phase.DISPOSITION, 0, 0));
+
+        Map<String, Dimension> tailles = new HashMap<>();
+        for (BlocClasse b : this.blocs) tailles.put(b.getNom(), new Dimension(b.getLargeur(), b.getHauteur()));
+
+        // Positions conservées : seulement celles des blocs encore présents
+        Map<String, Point> conservees = new HashMap<>();
+        if (this.fixes != null)
+        {
+            for (BlocClasse b : this.blocs)
+            {
+                if (this.fixes.containsKey(b.getNom())) conservees.put(b.getNom(), this.fixes.get(b.getNom()));
+            }
+        }
+
+        // Les blocs ne sont pas encore affichés : ils peuvent être déplacés ici
+        this.rapport = new RapportDisposition();
+        Map<String, Point> positions = conservees.isEmpty()
+                                     ? DispositionOptimiseur.calculerPositions(this.metier.getClasses(), this.liaisons,
+                                                                               tailles, this.moteur, this.budgetMs,
+                                                                               this.rapport)
+                                     : DispositionOptimiseur.completerPositions(this.metier.getClasses(), this.liaisons,
+                                                                                tailles, conservees, this.rapport);
+        for (BlocClasse b : this.blocs)
+        {
+            Point p = positions.getOrDefault(b.getNom(), conservees.get(b.getNom()));
+            if (p == null) continue;
+
+            b.setX(p.x);
+            b.setY(p.y);
+            b.setPlace(true);
+        }
+        return true;
+    }
+
+    private void verifierAbandon()
+    {
+        if (this.isCancelled()) throw new CancellationException();
+    }
+
+    /*-------------------------------------- */
+    /* Retour sur l'EDT                      */
+    /*-------------------------------------- */
+    @Override
+    protected void process(List<Etape> etapes)
+    {
+        // Seule la dernière étape reçue compte pour l'affichage
+        if (!this.isCancelled()) this.controleur.afficherAvancement(this, etapes.get(etapes.size() - 1));
+    }
+
+    @Override
+    protected void done()
+    {
+        if (this.isCancelled()) return;
+
+        try
+        {
+            this.controleur.terminerChargement(this, this.get(), null);
+        }
+        catch (ExecutionException e)
+        {
+            this.controleur.terminerChargement(this, false, e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            this.controleur.terminerChargement(this, false, e);
+        }
+    }
+}
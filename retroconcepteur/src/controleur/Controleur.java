@@ -1,18 +1,29 @@
 package controleur;
 
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import javax.swing.SwingUtilities;
 import modele.Sauvegarde;
+import modele.SurveillantProjet;
 import modele.entites.AssociationObjet;
 import modele.entites.ClasseObjet;
 import modele.entites.HeritageObjet;
 import modele.entites.InterfaceObjet;
+import modele.outil.DispositionForces;
+import modele.outil.DispositionOptimiseur;
+import modele.outil.RapportDisposition;
 import vue.BlocClasse;
+import vue.DiagramPresenter;
 import vue.ExportHelper;
 import vue.FenetrePrincipale;
 import vue.LiaisonVue;
+import vue.PanneauDiagramme;
 
 
 /**
@@ -30,9 +41,19 @@ import vue.LiaisonVue;
  */
 public class Controleur
 {
-    private modele.AnalyseMetier  metierComplet     ;
-    private FenetrePrincipale     vuePrincipale     ;
-    private String                cheminProjetActuel;
+    private modele.AnalyseMetier         metierComplet            ;
+    private FenetrePrincipale            vuePrincipale            ;
+    private String                       cheminProjetActuel       ;
+    private SurveillantProjet            surveillant              ;
+    private boolean                      surveillanceActive       ;
+    private RapportDisposition           dernierRapportDisposition;
+    private DispositionOptimiseur.Moteur moteurDisposition        ;
+    private long                         budgetDispositionMs      ;
+    private ChargementProjet             chargement               ;
+    private MiseAJourProjet              miseAJour                ;
+    private OptimisationDisposition      optimisation             ;
+    private Map<File, Boolean>           enAttente                ; // fichier -> supprimé, dans l'ordre des événements
+    private int                          versionModele            ; // incrémentée à chaque modification du modèle sur l'EDT
 
     /**
      * Constructeur du contrôleur.
@@ -42,6 +63,12 @@ public class Controleur
     public Controleur()
     {
         this.metierComplet = new modele.AnalyseMetier();
+        this.metierComplet.setCacheActif(true); // réouverture rapide des projets déjà analysés
+        this.metierComplet.setSeuilCompact(modele.AnalyseMetier.SEUIL_COMPACT); // mémoire des très gros projets
+        this.surveillanceActive = true;
+        this.moteurDisposition   = DispositionOptimiseur.Moteur.COUCHES;
+        this.budgetDispositionMs = DispositionForces.BUDGET_DEFAUT_MS;
+        this.enAttente           = new LinkedHashMap<>();
         this.vuePrincipale = new FenetrePrincipale(this);
     }
 
@@ -58,23 +85,266 @@ public class Controleur
      * les associations, les héritages et les implémentations d'interfaces, puis
      * calcule
      * les positions optimales avant d'afficher le diagramme.
+     *
+     * Le travail se fait en arrière-plan ({@link ChargementProjet}) : la
+     * méthode rend la main aussitôt, l'avancement s'affiche dans la barre
+     * d'état et le diagramme n'est remplacé qu'à la fin. Un chargement encore
+     * en cours est annulé.
      * 
      * @param cheminProjet Chemin absolu vers le dossier contenant les fichiers Java
      *                     à analyser
      */
     public void analyserEtAfficherDiagramme(String cheminProjet) 
     {
-        // Si l'analyse échoue, on pourrait vouloir vider la vue
-        if (!this.metierComplet.analyserDossier(cheminProjet)) 
+        this.charger(cheminProjet, null);
+    }
+
+    /**
+     * @param fixes positions des blocs à conserver, ou null pour une
+     *              disposition complète
+     */
+    private void charger(String cheminProjet, Map<String, Point> fixes)
+    {
+        if (this.chargement != null) this.chargement.cancel(false);
+        this.arreterSurveillance();
+        this.annulerMiseAJour();
+        this.annulerOptimisation();
+
+        // Modèle neuf : le diagramme affiché reste utilisable pendant le calcul
+        PanneauDiagramme panneau = this.vuePrincipale.getPanneauDiagramme();
+
+        this.chargement = new ChargementProjet(this, cheminProjet, this.nouveauModele(), panneau.isAfficherClassesExternes(),
+                                               panneau.isAfficherAttributs(), panneau.isAfficherMethodes(),
+                                               this.moteurDisposition, this.budgetDispositionMs, fixes);
+        this.vuePrincipale.getBarreEtat().afficherEtape("Chargement de " + new File(cheminProjet).getName(), 0, 0);
+        this.chargement.execute();
+    }
+
+    /** Modèle vide avec les mêmes réglages que le modèle courant. */
+    private modele.AnalyseMetier nouveauModele()
+    {
+        modele.AnalyseMetier metier = new modele.AnalyseMetier();
+        metier.setCacheActif   (this.metierComplet.isCacheActif   ());
+        metier.setModeParallele(this.metierComplet.isModeParallele());
+        metier.setExplorateur  (this.metierComplet.getExplorateur ());
+        metier.setModeCompact  (this.metierComplet.isModeCompact  ());
+        metier.setSeuilCompact (this.metierComplet.getSeuilCompact());
+        return metier;
+    }
+
+    /**
+     * Affiche l'avancement d'un chargement (sur l'EDT). Les étapes d'un
+     * chargement remplacé entre-temps sont ignorées.
+     */
+    void afficherAvancement(ChargementProjet source, ChargementProjet.Etape etape)
+    {
+        if (source != this.chargement) return;
+
+        this.vuePrincipale.getBarreEtat().afficherEtape(etape.toString(), etape.fait, etape.total);
+    }
+
+    /**
+     * Fin d'un chargement (sur l'EDT) : remplace le modèle, les blocs et les
+     * liaisons affichés, puis relance la surveillance du projet.
+     *
+     * En cas d'échec, le diagramme est vidé et le projet courant oublié :
+     * les actions suivantes (filtre, suppression, sauvegarde, surveillance)
+     * ne portent plus sur l'ancien projet.
+     *
+     * @param reussi faux si le dossier n'a pas pu être analysé
+     * @param erreur cause de l'échec, ou null
+     */
+    void terminerChargement(ChargementProjet source, boolean reussi, Throwable erreur)
+    {
+        if (source != this.chargement) return;
+        this.chargement = null;
+
+        String           nom     = new File(source.getChemin()).getName();
+        PanneauDiagramme panneau = this.vuePrincipale.getPanneauDiagramme();
+
+        if (!reussi)
         {
+            this.metierComplet             = this.nouveauModele();
+            this.cheminProjetActuel        = null;
+            this.dernierRapportDisposition = null;
+
             // Envoi de listes vides pour "nettoyer" visuellement
-            this.vuePrincipale.getPanneauDiagramme().setBlocsClasses(new ArrayList<>());
-            this.vuePrincipale.getPanneauDiagramme().setLiaisonsVue(new ArrayList<>());
+            panneau.setBlocsClasses(new ArrayList<>());
+            panneau.setLiaisonsVue(new ArrayList<>());
+
+            String message = "Impossible d'analyser le dossier " + nom;
+            if (erreur != null)
+            {
+                message += " : " + erreur;
+                erreur.printStackTrace();
+            }
+            this.vuePrincipale.getBarreEtat().afficherMessage(message);
+            return;
+        }
+
+        this.metierComplet             = source.getMetier ();
+        this.cheminProjetActuel        = source.getChemin ();
+        this.dernierRapportDisposition = source.getRapport();
+
+        // Libellés et largeurs de l'ancien projet : oubliés sur l'EDT, quand
+        // plus aucun bloc de l'ancienne scène n'est dessiné
+        BlocClasse.viderCaches();
+
+        panneau.setBlocsClasses(source.getBlocs   ());
+        panneau.setLiaisonsVue (source.getLiaisons());
+
+        this.vuePrincipale.getBarreEtat().afficherMessage(String.format("%s : %d classe(s), %d liaison(s)", nom,
+                                                          this.metierComplet.getClasses().size(),
+                                                          source.getLiaisons().size()));
+        this.demarrerSurveillance();
+    }
+
+    /**
+     * Active/désactive la mise à jour automatique du diagramme lorsque les
+     * fichiers du projet courant sont modifiés sur le disque.
+     */
+    public void setSurveillanceActive(boolean active)
+    {
+        this.surveillanceActive = active;
+
+        if (active) this.demarrerSurveillance();
+        else        this.arreterSurveillance ();
+    }
+
+    public boolean isSurveillanceActive() { return this.surveillanceActive; }
+
+    private void demarrerSurveillance()
+    {
+        this.arreterSurveillance();
+        if (!this.surveillanceActive || this.cheminProjetActuel == null) return;
+
+        String chemin = this.cheminProjetActuel;
+
+        // Les lots arrivent sur le thread de surveillance : on repasse sur l'EDT
+        this.surveillant = new SurveillantProjet(new File(chemin), this.metierComplet.getExplorateur(),
+                                                 (modifies, supprimes) ->
+            SwingUtilities.invokeLater(() -> this.appliquerModificationsProjet(chemin, modifies, supprimes)));
+
+        try
+        {
+            this.surveillant.demarrer();
+        }
+        catch (IOException e)
+        {
+            // Surveillance indisponible : le projet reste utilisable sans mise à jour automatique
+            this.surveillant = null;
+        }
+    }
+
+    private void arreterSurveillance()
+    {
+        if (this.surveillant == null) return;
+
+        this.surveillant.arreter();
+        this.surveillant = null;
+    }
+
+    /**
+     * Répercute un lot de modifications du projet sur le diagramme. Le calcul
+     * se fait hors de l'EDT ({@link MiseAJourProjet}), un lot à la fois : les
+     * lots arrivés pendant un calcul sont regroupés et traités ensuite.
+     */
+    private void appliquerModificationsProjet(String chemin, List<File> modifies, List<File> supprimes)
+    {
+        // Lot obsolète : le projet a changé ou la surveillance a été coupée entre-temps
+        if (this.surveillant == null || !chemin.equals(this.cheminProjetActuel)) return;
+
+        // Événements perdus par le système : on repart d'une analyse complète,
+        // sans perdre la disposition (seules les classes nouvelles sont placées)
+        if (modifies == null)
+        {
+            Map<String, Point> fixes = new HashMap<>();
+            for (BlocClasse b : this.vuePrincipale.getPanneauDiagramme().getBlocsClasses())
+            {
+                fixes.put(b.getNom(), new Point(b.getX(), b.getY()));
+            }
+            this.charger(chemin, fixes);
             return;
         }
 
-        this.cheminProjetActuel = cheminProjet;
-        reafficherAvecFiltreExternes(); // Reconstruit et set les nouveaux blocs
+        // Le dernier événement d'un fichier l'emporte
+        for (File f : supprimes) { this.enAttente.remove(f); this.enAttente.put(f, true ); }
+        for (File f : modifies ) { this.enAttente.remove(f); this.enAttente.put(f, false); }
+
+        this.lancerMiseAJour();
+    }
+
+    /** Lance le calcul des lots en attente, si aucun n'est en cours. */
+    private void lancerMiseAJour()
+    {
+        if (this.miseAJour != null || this.enAttente.isEmpty()) return;
+
+        List<File> modifies  = new ArrayList<>();
+        List<File> supprimes = new ArrayList<>();
+        for (Map.Entry<File, Boolean> e : this.enAttente.entrySet()) (e.getValue() ? supprimes : modifies).add(e.getKey());
+        this.enAttente.clear();
+
+        PanneauDiagramme panneau = this.vuePrincipale.getPanneauDiagramme();
+
+        this.miseAJour = new MiseAJourProjet(this, this.metierComplet, modifies, supprimes, this.versionModele,
+                                             panneau.isAfficherClassesExternes(), panneau.isAfficherAttributs(),
+                                             panneau.isAfficherMethodes(), panneau.getBlocsClasses());
+        this.miseAJour.execute();
+    }
+
+    /** Abandonne la mise à jour en cours et les lots en attente (changement de projet). */
+    private void annulerMiseAJour()
+    {
+        if (this.miseAJour != null) this.miseAJour.cancel(false);
+
+        this.miseAJour = null;
+        this.enAttente.clear();
+    }
+
+    /**
+     * Fin d'une mise à jour (sur l'EDT) : remplace le modèle, les blocs des
+     * classes impactées et les liaisons, place les classes apparues puis
+     * lance les lots arrivés entre-temps. Si le modèle a été modifié pendant
+     * le calcul (suppression, filtre des externes), le résultat est ignoré et
+     * le lot rejoué sur le modèle à jour.
+     *
+     * @param erreur cause de l'échec, ou null
+     */
+    void terminerMiseAJour(MiseAJourProjet source, Throwable erreur)
+    {
+        if (source != this.miseAJour) return;
+        this.miseAJour = null;
+
+        PanneauDiagramme panneau = this.vuePrincipale.getPanneauDiagramme();
+
+        if (erreur != null)
+        {
+            erreur.printStackTrace();
+            this.vuePrincipale.getBarreEtat().afficherMessage("Mise à jour du diagramme impossible : " + erreur);
+        }
+        else if (source.getVersion() != this.versionModele)
+        {
+            for (File f : source.getSupprimes()) this.enAttente.putIfAbsent(f, true );
+            for (File f : source.getModifies ()) this.enAttente.putIfAbsent(f, false);
+        }
+        else
+        {
+            this.metierComplet = source.getModele();
+            this.versionModele++;
+
+            // Attributs / méthodes masqués pendant le calcul
+            for (BlocClasse b : source.getBlocs()) b.setMembresVisibles(panneau.isAfficherAttributs(), panneau.isAfficherMethodes());
+
+            panneau.mettreAJourBlocs   (source.getBlocs   (), source.getImpactees());
+            panneau.mettreAJourLiaisons(source.getLiaisons(), source.getImpactees());
+
+            if (!source.getPositions().isEmpty())
+            {
+                this.appliquerPositions(source.getPositions());
+                this.dernierRapportDisposition = source.getRapport();
+            }
+        }
+        this.lancerMiseAJour();
     }
 
     /**
@@ -85,9 +355,19 @@ public class Controleur
         if (vuePrincipale != null && vuePrincipale.getPanneauDiagramme() != null)
             vuePrincipale.getPanneauDiagramme().setAfficherClassesExternes(afficher);
 
+        this.versionModele++;
         reafficherAvecFiltreExternes();
     }
 
+    /**
+     * Active/désactive le dessin des blocs depuis des images pré-rendues.
+     */
+    public void setCacheRendu(boolean actif)
+    {
+        if (vuePrincipale != null && vuePrincipale.getPanneauDiagramme() != null)
+            vuePrincipale.getPanneauDiagramme().setCacheRendu(actif);
+    }
+
     /**
      * Reconstruit les blocs affichés selon le filtre d'affichage des classes
      * externes.
@@ -163,6 +443,7 @@ public class Controleur
         if (nomClasse == null || nomClasse.isEmpty()) return null;
 
         metierComplet.supprimerClasse(nomClasse);
+        this.versionModele++;
 
         reafficherAvecFiltreExternes();
 
@@ -174,23 +455,91 @@ public class Controleur
      * 
      * Déclenche l'algorithme d'optimisation de la disposition pour améliorer
      * la lisibilité du diagramme en réduisant les croisements de liaisons.
+     *
+     * Le calcul se fait en arrière-plan ({@link OptimisationDisposition}) :
+     * la méthode rend la main aussitôt et les blocs sont déplacés à la fin.
+     * Une optimisation encore en cours est annulée.
+     *
+     * @param aLaFin lancé sur l'EDT une fois les blocs déplacés, ou null
      */
-    public void optimiserDisposition() 
+    public void optimiserDisposition(Runnable aLaFin) 
     {
-        if (this.vuePrincipale != null) 
-            this.vuePrincipale.getPanneauDiagramme().optimiserDisposition();
+        if (this.vuePrincipale == null) return;
+
+        PanneauDiagramme panneau = this.vuePrincipale.getPanneauDiagramme();
+        if (panneau.getBlocsClasses().isEmpty())
+        {
+            if (aLaFin != null) aLaFin.run();
+            return;
+        }
+
+        this.annulerOptimisation();
+        this.optimisation = new OptimisationDisposition(this, this.metierComplet.getClasses(), panneau.getLiaisonsVue(),
+                                                        panneau.getBlocsClasses(), this.moteurDisposition,
+                                                        this.budgetDispositionMs, this.versionModele, aLaFin);
+        this.vuePrincipale.getBarreEtat().afficherEtape("Disposition...", 0, 0);
+        this.optimisation.execute();
+    }
+
+    private void annulerOptimisation()
+    {
+        if (this.optimisation != null) this.optimisation.cancel(false);
+        this.optimisation = null;
+    }
+
+    /**
+     * Fin d'une optimisation (sur l'EDT) : déplace les blocs. Si le modèle a
+     * été modifié pendant le calcul (suppression, filtre des externes, mise à
+     * jour du projet surveillé), le résultat est ignoré.
+     *
+     * @param erreur cause de l'échec, ou null
+     */
+    void terminerOptimisation(OptimisationDisposition source, Throwable erreur)
+    {
+        if (source != this.optimisation) return;
+        this.optimisation = null;
+
+        if (erreur != null)
+        {
+            erreur.printStackTrace();
+            this.vuePrincipale.getBarreEtat().afficherMessage("Optimisation de la disposition impossible : " + erreur);
+            return;
+        }
+
+        if (source.getVersion() != this.versionModele)
+        {
+            this.vuePrincipale.getBarreEtat().afficherMessage("Disposition abandonnée : le diagramme a changé pendant le calcul");
+            return;
+        }
+
+        this.dernierRapportDisposition = source.getRapport();
+        this.appliquerPositions(source.getPositions());
+        this.vuePrincipale.getBarreEtat().afficherMessage("Positions optimisées");
+
+        if (source.getALaFin() != null) source.getALaFin().run();
     }
 
     public String getCheminProjetActuel() { return this.cheminProjetActuel; }
 
+    /** Moteur utilisé par la prochaine optimisation de la disposition. */
+    public void setMoteurDisposition(DispositionOptimiseur.Moteur moteur) { this.moteurDisposition = moteur; }
+    public DispositionOptimiseur.Moteur getMoteurDisposition() { return this.moteurDisposition; }
+
+    /** Durée maximale de la simulation de la disposition par forces, en millisecondes. */
+    public void setBudgetDispositionMs(long budgetMs) { this.budgetDispositionMs = budgetMs; }
+    public long getBudgetDispositionMs() { return this.budgetDispositionMs; }
+
+    /** Mesures de la dernière optimisation de la disposition (null avant la première). */
+    public RapportDisposition getDernierRapportDisposition() { return this.dernierRapportDisposition; }
+
     public void toggleAttributs() 
     {
         if (vuePrincipale != null && vuePrincipale.getPanneauDiagramme() != null) 
         {
             boolean cur = vuePrincipale.getPanneauDiagramme().isAfficherAttributs();
             vuePrincipale.getPanneauDiagramme().setAfficherAttributs(!cur);
-            // Appel direct à la reconstruction
-            reafficherAvecFiltreExternes();
+            // Les blocs existants sont redimensionnés, sans reconstruction ni déplacement
+            vuePrincipale.getPanneauDiagramme().appliquerVisibiliteMembres();
         }
     }   
 
@@ -200,34 +549,67 @@ public class Controleur
         {
             boolean cur = vuePrincipale.getPanneauDiagramme().isAfficherMethodes();
             vuePrincipale.getPanneauDiagramme().setAfficherMethodes(!cur);
-            // Appel direct à la reconstruction
-            reafficherAvecFiltreExternes();
+            // Les blocs existants sont redimensionnés, sans reconstruction ni déplacement
+            vuePrincipale.getPanneauDiagramme().appliquerVisibiliteMembres();
+        }
+    }
+
+    /**
+     * Complète la disposition : les blocs déjà placés (déplacés à la main ou
+     * issus d'une disposition) restent où ils sont, les autres sont posés
+     * dans l'espace libre près de leurs voisins.
+     */
+    public void completerDisposition()
+    {
+        Map<String, Point> fixes = new HashMap<>();
+        for (BlocClasse bloc : vuePrincipale.getPanneauDiagramme().getBlocsClasses())
+        {
+            if (bloc.estPlace()) fixes.put(bloc.getNom(), new Point(bloc.getX(), bloc.getY()));
         }
+        this.placerIncrementalement(fixes);
     }
 
-    public void demanderOptimisationDisposition() 
+    private void placerIncrementalement(Map<String, Point> fixes)
     {
-        // 1. Récupérer les données
-        List<ClasseObjet> classes  = metierComplet.getClasses();
-        List<LiaisonVue > liaisons = vuePrincipale.getPanneauDiagramme().getLiaisonsVue();
+        List<BlocClasse>   blocs   = vuePrincipale.getPanneauDiagramme().getBlocsClasses();
+        RapportDisposition rapport = new RapportDisposition();
 
-        // 2. Calculer via le modèle centralisé
-        Map<String, Point> nouvellesPositions = modele.outil.DispositionOptimiseur.calculerPositions(classes, liaisons);
+        this.appliquerPositions(DispositionOptimiseur.completerPositions(
+                metierComplet.getClasses(), vuePrincipale.getPanneauDiagramme().getLiaisonsVue(),
+                taillesBlocs(blocs), fixes, rapport));
+        this.dernierRapportDisposition = rapport;
+    }
 
-        // 3. Mettre à jour les blocs dans la vue
+    /**
+     * Déplace les blocs aux positions calculées et les marque comme placés,
+     * puis rafraîchit l'affichage (et les index spatiaux du panneau).
+     */
+    private void appliquerPositions(Map<String, Point> positions)
+    {
         for (BlocClasse bloc : vuePrincipale.getPanneauDiagramme().getBlocsClasses()) 
         {
-            Point p = nouvellesPositions.get(bloc.getNom());
+            Point p = positions.get(bloc.getNom());
 
             if (p != null) 
             {
                 bloc.setX(p.x);
                 bloc.setY(p.y);
+                bloc.setPlace(true);
             }
         }
-        
-        // 4. Rafraîchir l'affichage
-        vuePrincipale.getPanneauDiagramme().repaint();
+        vuePrincipale.getPanneauDiagramme().actualiserPositions();
+    }
+
+    /**
+     * Taille de chaque bloc par nom de classe, pour la disposition automatique.
+     */
+    private static Map<String, Dimension> taillesBlocs(List<BlocClasse> blocs)
+    {
+        Map<String, Dimension> tailles = new HashMap<>();
+
+        for (BlocClasse bloc : blocs) 
+            tailles.put(bloc.getNom(), new Dimension(bloc.getLargeur(), bloc.getHauteur()));
+        return tailles;
     }
 
     public static void main(String[] args) 
@@ -252,12 +634,23 @@ public class Controleur
             if (args.length < 2) 
             {
                 new vue.ConsoleVue().afficherUsage();
-                System.out.println("Usage: java -cp class controleur.Controleur console <chemin_du_repertoire>");
+                System.out.println("Usage: java -cp class controleur.Controleur console <chemin_du_repertoire> [--disposition[=forces]] [--compact]");
                 return;
             }
 
             String chemin = args[1];
+
+            // Options : --disposition[=forces] (qualité de la disposition), --compact (liaisons en GrapheCompact)
+            String  disposition = null;
+            boolean compact     = false;
+            for (int i = 2; i < args.length; i++)
+            {
+                if (args[i].startsWith("--disposition")) disposition = args[i];
+                if (args[i].equals    ("--compact"    )) compact     = true;
+            }
+
             modele.AnalyseMetier metier = new modele.AnalyseMetier();
+            metier.setModeCompact(compact);
             boolean ok = metier.analyserDossier(chemin);
             vue.ConsoleVue vue = new vue.ConsoleVue();
 
@@ -271,10 +664,27 @@ public class Controleur
             vue.afficherAssociations   (metier.getAssociations   ());
             vue.afficherHeritages      (metier.getHeritages      ());
             vue.afficherImplementations(metier.getImplementations());
+
+            // Option : qualité et coût de la disposition automatique
+            if (disposition != null) 
+            {
+                DispositionOptimiseur.Moteur moteur = "--disposition=forces".equals(disposition)
+                                                    ? DispositionOptimiseur.Moteur.FORCES
+                                                    : DispositionOptimiseur.Moteur.COUCHES;
+
+                List<LiaisonVue>   liaisons = DiagramPresenter.construireLiaisons(metier.getAssociations(), metier.getHeritages(),
+                                                                                  metier.getImplementations(), metier.getClasses());
+                List<BlocClasse>   blocs    = DiagramPresenter.construireBlocs(metier.getClasses(), true, true, true, 0, 0);
+                RapportDisposition rapport  = new RapportDisposition();
+
+                DispositionOptimiseur.calculerPositions(metier.getClasses(), liaisons, taillesBlocs(blocs), moteur,
+                                                        DispositionForces.BUDGET_DEFAUT_MS, rapport);
+                vue.afficherRapportDisposition(rapport);
+            }
             return;
         }
 
         new vue.ConsoleVue().afficherUsage();
-        System.out.println("Modes supportés: (aucun)=GUI | gui | console <chemin_du_repertoire>");
+        System.out.println("Modes supportés: (aucun)=GUI | gui | console <chemin_du_repertoire> [--disposition[=forces]] [--compact]");
     }
 }
\ No newline at end of file
@@ -0,0 +1,237 @@
+package controleur;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+import modele.AnalyseMetier;
+import modele.entites.AttributObjet;
+import modele.entites.ClasseObjet;
+import modele.outil.DispositionOptimiseur;
+import modele.outil.RapportDisposition;
+import vue.BlocClasse;
+import vue.DiagramPresenter;
+import vue.LiaisonVue;
+import vue.PresentationMapper;
+
+/**
+ * Mise à jour du diagramme après un lot de modifications du projet surveillé,
+ * hors de l'EDT : relecture des fichiers modifiés, reconstruction du modèle,
+ * blocs des classes impactées, liaisons et place des classes apparues.
+ *
+ * Le calcul se fait sur une copie du modèle ({@link AnalyseMetier#copier()})
+ * et sur un relevé des blocs affichés, pris à la création sur l'EDT : le
+ * diagramme reste utilisable pendant le calcul. Seul le remplacement des
+ * blocs, des liaisons et des positions passe par l'EDT (voir
+ * {@link Controleur#terminerMiseAJour}).
+ */
+class MiseAJourProjet extends SwingWorker<Boolean, Void>
+{
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private final Controleur             controleur       ;
+    private final AnalyseMetier          modele           ; // copie, remplace le modèle courant à la fin
+    private final List<File>             modifies         ;
+    private final List<File>             supprimes        ;
+    private final int                    version          ; // version du modèle courant à la création
+    private final boolean                afficherExternes ;
+    private final boolean                afficherAttributs;
+    private final boolean                afficherMethodes ;
+
+    // Relevé sur l'EDT : classes, positions et tailles des blocs affichés
+    private final Set<String>            avant            ;
+    private final Map<String, Point>     positionsBlocs   ;
+    private final Map<String, Dimension> taillesBlocs     ;
+
+    // Résultat, lu par terminerMiseAJour une fois le calcul fini
+    private Set<String>        impactees;
+    private List<BlocClasse>   blocs    ;
+    private List<LiaisonVue>   liaisons ;
+    private Map<String, Point> positions; // classes apparues seulement
+    private RapportDisposition rapport  ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+
+    /**
+     * À créer sur l'EDT : copie le modèle et relève les blocs affichés.
+     */
+    MiseAJourProjet(Controleur controleur, AnalyseMetier metier, List<File> modifies, List<File> supprimes,
+                    int version, boolean afficherExternes, boolean afficherAttributs, boolean afficherMethodes,
+                    List<BlocClasse> blocsAffiches)
+    {
+        this.controleur        = controleur       ;
+        this.modele            = metier.copier()  ;
+        this.modifies          = modifies         ;
+        this.supprimes         = supprimes        ;
+        this.version           = version          ;
+        this.afficherExternes  = afficherExternes ;
+        this.afficherAttributs = afficherAttributs;
+        this.afficherMethodes  = afficherMethodes ;
+
+        this.avant          = new HashSet<>();
+        this.positionsBlocs = new HashMap<>();
+        this.taillesBlocs   = new HashMap<>();
+
+        for (ClasseObjet c : metier.getClasses()) this.avant.add(c.getNom());
+        for (BlocClasse  b : blocsAffiches)
+        {
+            this.positionsBlocs.put(b.getNom(), new Point(b.getX(), b.getY()));
+            this.taillesBlocs  .put(b.getNom(), new Dimension(b.getLargeur(), b.getHauteur()));
+        }
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+    AnalyseMetier      getModele   () { return this.modele   ; }
+    List<File>         getModifies () { return this.modifies ; }
+    List<File>         getSupprimes() { return this.supprimes; }
+    int                getVersion  () { return this.version  ; }
+    Set<String>        getImpactees() { return this.impactees; }
+    List<BlocClasse>   getBlocs    () { return this.blocs    ; }
+    List<LiaisonVue>   getLiaisons () { return this.liaisons ; }
+    Map<String, Point> getPositions() { return this.positions; }
+    RapportDisposition getRapport  () { return this.rapport  ; }
+
+    /*-------------------------------------- */
+    /* Calcul (hors EDT)                     */
+    /*-------------------------------------- */
+
+    /**
+     * Seuls les fichiers modifiés sont réanalysés et seuls les blocs des
+     * classes impactées sont reconstruits ; les classes apparues sont placées
+     * près de leurs voisines, sans bouger les autres.
+     */
+    @Override
+    protected Boolean doInBackground()
+    {
+        this.impactees = this.modele.appliquerModifications(this.modifies, this.supprimes);
+
+        List<ClasseObjet> classes = this.modele.getClasses();
+
+        Set<String> apres = new HashSet<String>();
+        for (ClasseObjet c : classes) apres.add(c.getNom());
+
+        // Classes apparues ou disparues (y compris les classes externes)
+        Set<String> changees = new HashSet<String>(this.avant);
+        changees.addAll(apres);
+        for (String nom : this.avant) if (apres.contains(nom)) changees.remove(nom);
+        this.impactees.addAll(changees);
+
+        // L'affichage des attributs dépend des classes du projet : un attribut
+        // d'un type apparu ou disparu change de présentation
+        for (ClasseObjet c : classes)
+        {
+            if (MiseAJourProjet.referenceUneClasse(c, changees)) this.impactees.add(c.getNom());
+        }
+
+        Set<String> noms = PresentationMapper.nomsClasses(classes);
+        this.blocs = new ArrayList<>();
+        for (ClasseObjet c : classes)
+        {
+            if (!this.impactees.contains(c.getNom())) continue;
+            if (!this.afficherExternes && "externe".equals(c.getSpecifique())) continue;
+
+            // Classe et classes internes sont reconstruites ensemble
+            for (ClasseObjet interne : c.getClassesInternes()) this.impactees.add(interne.getNom());
+
+            this.blocs.addAll(DiagramPresenter.construireBlocsClasse(c, noms, this.afficherAttributs,
+                                                                     this.afficherMethodes, 50, 50));
+        }
+
+        this.liaisons = DiagramPresenter.construireLiaisons(this.modele.getAssociations(), this.modele.getHeritages(),
+                                                            this.modele.getImplementations(), classes);
+
+        // Classes apparues : placées près de leurs voisines, les autres blocs restent fixes
+        Set<String> apparues = new HashSet<String>(changees);
+        apparues.retainAll(apres);
+
+        Map<String, Point> fixes = new HashMap<>(this.positionsBlocs);
+        fixes.keySet().removeAll(changees);
+
+        this.positions = new HashMap<>();
+        if (!apparues.isEmpty() && !fixes.isEmpty())
+        {
+            Map<String, Dimension> tailles = new HashMap<>(this.taillesBlocs);
+            for (BlocClasse b : this.blocs) tailles.put(b.getNom(), new Dimension(b.getLargeur(), b.getHauteur()));
+
+            this.rapport = new RapportDisposition();
+            Map<String, Point> calculees = DispositionOptimiseur.completerPositions(classes, this.liaisons, tailles,
+                                                                                   fixes, this.rapport);
+            for (String nom : apparues)
+            {
+                if (calculees.containsKey(nom)) this.positions.put(nom, calculees.get(nom));
+            }
+        }
+        return true;
+    }
+
+    private static boolean referenceUneClasse(ClasseObjet c, Set<String> noms)
+    {
+        if (noms.isEmpty()) return false;
+
+        for (AttributObjet a : c.getAttributs())
+        {
+            if (a.getType() != null && MiseAJourProjet.contientIdentifiant(a.getType(), noms)) return true;
+        }
+
+        for (ClasseObjet interne : c.getClassesInternes())
+        {
+            if (MiseAJourProjet.referenceUneClasse(interne, noms)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vrai si un des identifiants du type (Map, String, List et Foo dans
+     * {@code Map<String, List<Foo>>}) figure parmi les noms.
+     */
+    private static boolean contientIdentifiant(String type, Set<String> noms)
+    {
+        int n = type.length();
+
+        for (int i = 0; i < n; )
+        {
+            if (!Character.isJavaIdentifierStart(type.charAt(i))) { i++; continue; }
+
+            int debut = i;
+            while (i < n && Character.isJavaIdentifierPart(type.charAt(i))) i++;
+
+            if (noms.contains(type.substring(debut, i))) return true;
+        }
+        return false;
+    }
+
+    /*-------------------------------------- */
+    /* Retour sur l'EDT                      */
+    /*-------------------------------------- */
+    @Override
+    protected void done()
+    {
+        if (this.isCancelled()) return;
+
+        try
+        {
+            this.get();
+            this.controleur.terminerMiseAJour(this, null);
+        }
+        catch (ExecutionException e)
+        {
+            this.controleur.terminerMiseAJour(this, e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            this.controleur.terminerMiseAJour(this, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package controleur;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+import modele.entites.ClasseObjet;
+import modele.outil.DispositionOptimiseur;
+import modele.outil.RapportDisposition;
+import vue.BlocClasse;
+import vue.LiaisonVue;
+
+/**
+ * Optimisation de la disposition du diagramme affiché, hors de l'EDT : la
+ * simulation par forces peut durer tout son budget de temps.
+ *
+ * Le calcul se fait sur un relevé des classes, des liaisons et des tailles
+ * des blocs, pris à la création sur l'EDT : le diagramme reste utilisable
+ * pendant le calcul. Seul le déplacement des blocs passe par l'EDT (voir
+ * {@link Controleur#terminerOptimisation}).
+ */
+class OptimisationDisposition extends SwingWorker<Boolean, Void>
+{
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private final Controleur                   controleur;
+    private final List<ClasseObjet>            classes   ;
+    private final List<LiaisonVue>             liaisons  ;
+    private final Map<String, Dimension>       tailles   ;
+    private final DispositionOptimiseur.Moteur moteur    ;
+    private final long                         budgetMs  ;
+    private final int                          version   ; // version du modèle courant à la création
+    private final Runnable                     aLaFin    ; // lancé sur l'EDT une fois les blocs déplacés, ou null
+
+    // Résultat, lu par terminerOptimisation une fois le calcul fini
+    private Map<String, Point> positions;
+    private RapportDisposition rapport  ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+
+    /**
+     * À créer sur l'EDT : relève les classes, les liaisons et les blocs affichés.
+     */
+    OptimisationDisposition(Controleur controleur, List<ClasseObjet> classes, List<LiaisonVue> liaisons,
+                            List<BlocClasse> blocsAffiches, DispositionOptimiseur.Moteur moteur, long budgetMs,
+                            int version, Runnable aLaFin)
+    {
+        this.controleur = controleur                ;
+        this.classes    = new ArrayList<>(classes)  ;
+        this.liaisons   = new ArrayList<>(liaisons) ;
+        this.tailles    = new HashMap<>()           ;
+        this.moteur     = moteur                    ;
+        this.budgetMs   = budgetMs                  ;
+        this.version    = version                   ;
+        this.aLaFin     = aLaFin                    ;
+
+        for (BlocClasse b : blocsAffiches) this.tailles.put(b.getNom(), new Dimension(b.getLargeur(), b.getHauteur()));
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+    int                getVersion  () { return this.version  ; }
+    Runnable           getALaFin   () { return this.aLaFin   ; }
+    Map<String, Point> getPositions() { return this.positions; }
+    RapportDisposition getRapport  () { return this.rapport  ; }
+
+    /*-------------------------------------- */
+    /* Calcul (hors EDT)                     */
+    /*-------------------------------------- */
+    @Override
+    protected Boolean doInBackground()
+    {
+        this.rapport   = new RapportDisposition();
+        this.positions = DispositionOptimiseur.calculerPositions(this.classes, this.liaisons, this.tailles,
+                                                                 this.moteur, this.budgetMs, this.rapport);
+        return true;
+    }
+
+    /*-------------------------------------- */
+    /* Retour sur l'EDT                      */
+    /*-------------------------------------- */
+    @Override
+    protected void done()
+    {
+        if (this.isCancelled()) return;
+
+        try
+        {
+            this.get();
+            this.controleur.terminerOptimisation(this, null);
+        }
+        catch (ExecutionException e)
+        {
+            this.controleur.terminerOptimisation(this, e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            this.controleur.terminerOptimisation(this, e);
+        }
+    }
+}
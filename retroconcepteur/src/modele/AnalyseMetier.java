@@ -4,7 +4,13 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import modele.entites.AssociationObjet;
 import modele.entites.ClasseObjet;
@@ -12,23 +18,61 @@ import modele.entites.HeritageObjet;
 import modele.entites.InterfaceObjet;
 import modele.entites.LiaisonObjet;
 import modele.entites.MethodeObjet;
+import modele.outil.ExplorateurSources;
 
 /**
  * Contrôleur métier déplacé dans le package `modele`.
  */
 public class AnalyseMetier 
 {
+    /**
+     * Suit l'avancement d'une analyse complète et peut l'interrompre.
+     * Appelé depuis le thread de l'analyse.
+     */
+    public interface Suivi
+    {
+        /** Un fichier source de plus a été trouvé ({@code nb} au total jusqu'ici). */
+        void fichiersTrouves(int nb);
+
+        /** {@code nb} fichiers sur {@code total} sont analysés. */
+        void fichiersLus(int nb, int total);
+
+        /** Tous les fichiers sont lus : résolution des liaisons entre classes. */
+        void resolution();
+
+        /** L'analyse est abandonnée dès que possible si vrai. */
+        boolean estAnnule();
+    }
+
     /*-------------------------------------- */
     /* Attributs */
     /*-------------------------------------- */
-    private List   <ClasseObjet        > classes        ;
-    private HashMap<String, ClasseObjet> mapClasses     ;
-    private List   <AssociationObjet   > associations   ;
-    private List   <HeritageObjet      > heritages      ;
-    private List   <InterfaceObjet     > implementations;
+    // Classes et liaisons, indexées par classe (voir GrapheClasses)
+    private GrapheClasses graphe;
+
+    // Mode compact : liaisons rangées dans un GrapheCompact, sans objet par liaison
+    private boolean       modeCompact ;
+    private int           seuilCompact; // nombre de classes à partir duquel le mode s'active seul, 0 : jamais
+    private GrapheCompact compact     ;
+
+    /** Seuil conseillé pour {@link #setSeuilCompact(int)}. */
+    public static final int SEUIL_COMPACT = 5_000;
 
     private AnalyseurUML analyseur;
 
+    // En dessous de ce nombre de fichiers, le coût des threads dépasse le gain
+    private static final int SEUIL_PARALLELE = 16;
+
+    private boolean modeParallele;
+    private boolean cacheActif   ;
+    private CacheAnalyse cache   ;
+
+    private ExplorateurSources explorateur;
+
+    // Résultats par chemin absolu, conservés pour les mises à jour partielles
+    private LinkedHashMap<String, ResultatFichier> resultatsParFichier;
+    private HashSet<String>                        classesSupprimees  ;
+
     /*-------------------------------------- */
     /* Constructeur */
     /*-------------------------------------- */
@@ -36,13 +80,14 @@ public class AnalyseMetier
     // Constructeur par défaut
     public AnalyseMetier() 
     {
-        this.classes         = new ArrayList<ClasseObjet     >();
-        this.associations    = new ArrayList<AssociationObjet>();
-        this.heritages       = new ArrayList<HeritageObjet   >();
-        this.implementations = new ArrayList<InterfaceObjet  >();
-
-        this.mapClasses = new HashMap<String, ClasseObjet>();
-        this.analyseur  = new AnalyseurUML();
+        this.graphe        = new GrapheClasses();
+        this.analyseur     = new AnalyseurUML();
+        this.modeParallele = true;
+        this.cacheActif    = false;
+        this.explorateur   = new ExplorateurSources();
+
+        this.resultatsParFichier = new LinkedHashMap<String, ResultatFichier>();
+        this.classesSupprimees   = new HashSet<String>();
     }
 
     // Constructeur intégral capable d'être utilisé par un contrôleur externe
@@ -56,10 +101,51 @@ public class AnalyseMetier
     /*-------------------------------------- */
     /* Accesseurs */
     /*-------------------------------------- */
-    public List<ClasseObjet>      getClasses        () { return this.classes        ; }
-    public List<AssociationObjet> getAssociations   () { return this.associations   ; }
-    public List<HeritageObjet>    getHeritages      () { return this.heritages      ; }
-    public List<InterfaceObjet>   getImplementations() { return this.implementations; }
+    /** Vues en lecture seule sur le graphe des classes. */
+    public List<ClasseObjet>      getClasses        () { return this.graphe.getClasses        (); }
+    public List<AssociationObjet> getAssociations   () { return this.compact != null ? this.compact.getAssociations   () : this.graphe.getAssociations   (); }
+    public List<HeritageObjet>    getHeritages      () { return this.compact != null ? this.compact.getHeritages      () : this.graphe.getHeritages      (); }
+    public List<InterfaceObjet>   getImplementations() { return this.compact != null ? this.compact.getImplementations() : this.graphe.getImplementations(); }
+
+    /** Graphe des classes : voisins, sous-types... en O(degré). Sans liaison en mode compact. */
+    public GrapheClasses          getGraphe         () { return this.graphe                    ; }
+
+    /** Liaisons en lignes creuses compressées, ou null hors mode compact. */
+    public GrapheCompact          getGrapheCompact  () { return this.compact                   ; }
+    public boolean                isModeCompact     () { return this.modeCompact               ; }
+    public int                    getSeuilCompact   () { return this.seuilCompact              ; }
+    public boolean                isModeParallele   () { return this.modeParallele  ; }
+    public boolean                isCacheActif      () { return this.cacheActif     ; }
+
+    /** Explorateur utilisé pour trouver les sources (filtres d'inclusion / exclusion). */
+    public ExplorateurSources     getExplorateur    () { return this.explorateur    ; }
+
+    /*-------------------------------------- */
+    /* Modificateurs */
+    /*-------------------------------------- */
+    public void setModeParallele(boolean modeParallele) { this.modeParallele = modeParallele; }
+
+    /**
+     * Active le cache disque des analyses par fichier (dossier caché
+     * {@code .retroconcepteur} du projet analysé).
+     */
+    public void setCacheActif   (boolean cacheActif   ) { this.cacheActif    = cacheActif   ; }
+
+    public void setExplorateur(ExplorateurSources explorateur) { this.explorateur = explorateur; }
+
+    /**
+     * Range les liaisons dans un {@link GrapheCompact} à chaque analyse :
+     * pour les très gros projets, au prix de liaisons reconstruites à chaque
+     * lecture (leurs modifications ne sont pas conservées). Prend effet à la
+     * prochaine analyse.
+     */
+    public void setModeCompact(boolean modeCompact) { this.modeCompact = modeCompact; }
+
+    /**
+     * Passe en mode compact quand le projet compte au moins ce nombre de
+     * classes (0 : jamais). Prend effet à la prochaine analyse.
+     */
+    public void setSeuilCompact(int nbClasses) { this.seuilCompact = nbClasses; }
 
     /*-------------------------------------- */
     /* Méthodes */
@@ -69,6 +155,18 @@ public class AnalyseMetier
      * Analyse complète du dossier.
      */
     public boolean analyserDossier(String cheminDossier) 
+    {
+        return this.analyserDossier(cheminDossier, null);
+    }
+
+    /**
+     * Analyse complète du dossier, avec suivi de l'avancement.
+     *
+     * @param suivi prévenu à chaque étape, peut être null
+     * @throws CancellationException si le suivi demande l'abandon ; le modèle
+     *         est alors incomplet et ne doit plus servir
+     */
+    public boolean analyserDossier(String cheminDossier, Suivi suivi) 
     {
         File cible = new File(cheminDossier);
         if (!cible.isDirectory()) 
@@ -76,23 +174,119 @@ public class AnalyseMetier
             return false;
         }
 
-        this.classes        .clear();
-        this.mapClasses     .clear();
-        this.associations   .clear();
-        this.heritages      .clear();
-        this.implementations.clear();
-        this.analyseur.resetRelations();
+        this.resultatsParFichier.clear();
+        this.classesSupprimees  .clear();
+
+        this.cache = null;
+        if (this.cacheActif) 
+        {
+            this.cache = new CacheAnalyse(cible);
+            this.cache.charger();
+        }
+
+        // Chaque fichier produit son propre résultat, fusionné ensuite dans l'ordre
+        // de découverte : la sortie est identique en mode séquentiel et parallèle.
+        List<File>            fichiersJava = new ArrayList<File>();
+        List<ResultatFichier> resultats    = this.analyserFichiers(cible, fichiersJava, suivi);
+
+        for (int i = 0; i < fichiersJava.size(); i++) 
+        {
+            ResultatFichier r = resultats.get(i);
+            if (r != null) this.resultatsParFichier.put(fichiersJava.get(i).getAbsolutePath(), r);
+        }
 
-        List<File> fichiersJava = analyseur.ClassesDuDossier(cheminDossier);
+        // Les résultats sont déjà sérialisés : les étapes suivantes peuvent les modifier
+        if (this.cache != null) this.cache.enregistrer();
 
-        for (File f : fichiersJava) 
+        if (suivi != null) suivi.resolution();
+        this.reconstruireModele();
+
+        return true;
+    }
+
+    /**
+     * Met à jour le modèle après la modification de quelques fichiers du projet
+     * déjà analysé : seuls ces fichiers sont relus, les autres résultats sont
+     * repris tels quels avant de recalculer les liaisons.
+     *
+     * @param modifies  fichiers créés ou modifiés
+     * @param supprimes fichiers supprimés
+     * @return les noms des classes (et classes internes) déclarées par ces
+     *         fichiers, avant et après la modification
+     */
+    public Set<String> appliquerModifications(List<File> modifies, List<File> supprimes) 
+    {
+        Set<String> touchees = new HashSet<String>();
+
+        for (File f : supprimes) 
         {
-            ClasseObjet c = analyseur.analyserFichierUnique(f.getAbsolutePath());
-            if (c != null) 
+            AnalyseMetier.collecterNoms(this.resultatsParFichier.remove(f.getAbsolutePath()), touchees);
+            if (this.cache != null) this.cache.oublier(f);
+        }
+
+        for (File f : modifies) 
+        {
+            String chemin = f.getAbsolutePath();
+            AnalyseMetier.collecterNoms(this.resultatsParFichier.get(chemin), touchees);
+
+            ResultatFichier r = this.analyserFichier(f);
+            if (r == null) 
             {
-                this.classes.add(c);
-                this.mapClasses.put(c.getNom(), c);
+                this.resultatsParFichier.remove(chemin);
+                continue;
             }
+
+            this.resultatsParFichier.put(chemin, r);
+            AnalyseMetier.collecterNoms(r, touchees);
+        }
+
+        if (this.cache != null) this.cache.enregistrer();
+
+        this.reconstruireModele();
+
+        return touchees;
+    }
+
+    /**
+     * Copie du modèle destinée à {@link #appliquerModifications} hors de
+     * l'EDT : mêmes réglages, même cache, mêmes résultats par fichier et
+     * mêmes suppressions, mais un graphe vide jusqu'à l'appel suivant
+     * d'{@code appliquerModifications}. Les résultats des fichiers non
+     * modifiés sont partagés : la reconstruction ne fait que les lire, le
+     * modèle d'origine reste donc utilisable pendant la mise à jour de la
+     * copie.
+     */
+    public AnalyseMetier copier()
+    {
+        AnalyseMetier copie = new AnalyseMetier();
+
+        copie.modeParallele = this.modeParallele;
+        copie.modeCompact   = this.modeCompact  ;
+        copie.seuilCompact  = this.seuilCompact ;
+        copie.cacheActif    = this.cacheActif   ;
+        copie.cache         = this.cache        ;
+        copie.explorateur   = this.explorateur  ;
+
+        copie.resultatsParFichier.putAll(this.resultatsParFichier);
+        copie.classesSupprimees  .addAll(this.classesSupprimees  );
+        return copie;
+    }
+
+    /**
+     * Reconstruit classes et liaisons à partir des résultats par fichier.
+     */
+    private void reconstruireModele() 
+    {
+        this.graphe.vider();
+        this.compact = null;
+        this.analyseur.resetRelations();
+
+        for (ResultatFichier r : this.resultatsParFichier.values()) 
+        {
+            this.analyseur.integrerResultat(r);
+
+            ClasseObjet c = r.getClasse();
+            if (c != null) this.graphe.ajouterClasse(c);
         }
 
         // Ajouter les constructeurs par défaut si manquants
@@ -100,23 +294,132 @@ public class AnalyseMetier
 
         ajouterClassesExternes();
 
-        this.associations.addAll(
-                analyseur.detecterAssociations(this.classes, this.mapClasses));
+        Map<String, ClasseObjet> parNom = this.graphe.getClassesParNom();
+
+        for (AssociationObjet a : analyseur.detecterAssociations(this.graphe.getClasses(), parNom))
+            this.graphe.ajouterAssociation(a);
 
-        this.heritages.addAll(analyseur.resoudreHeritage(this.mapClasses));
+        for (HeritageObjet h : analyseur.resoudreHeritage(parNom)) this.graphe.ajouterHeritage(h);
 
-        this.implementations.addAll(
-                analyseur.resoudreImplementation(this.mapClasses));
+        for (InterfaceObjet i : analyseur.resoudreImplementation(parNom)) this.graphe.ajouterImplementation(i);
+
+        // Les suppressions faites par l'utilisateur survivent aux mises à jour
+        for (String nom : this.classesSupprimees) this.retirerClasse(nom);
 
         List<LiaisonObjet> toutes = new ArrayList<LiaisonObjet>();
 
-        toutes.addAll(this.associations);
-        toutes.addAll(this.heritages);
-        toutes.addAll(this.implementations);
+        toutes.addAll(this.graphe.getAssociations   ());
+        toutes.addAll(this.graphe.getHeritages      ());
+        toutes.addAll(this.graphe.getImplementations());
 
         analyseur.renumeroterLiaisonsFinales(toutes);
 
-        return true;
+        // Les objets liaison ne servent plus qu'à remplir les tableaux
+        boolean grosProjet = this.seuilCompact > 0 && this.graphe.getClasses().size() >= this.seuilCompact;
+        if (this.modeCompact || grosProjet) 
+        {
+            this.compact = new GrapheCompact(this.graphe);
+            this.graphe.viderLiaisons();
+        }
+    }
+
+    private static void collecterNoms(ResultatFichier r, Set<String> noms) 
+    {
+        if (r != null && r.getClasse() != null) AnalyseMetier.collecterNoms(r.getClasse(), noms);
+    }
+
+    private static void collecterNoms(ClasseObjet c, Set<String> noms) 
+    {
+        noms.add(c.getNom());
+        for (ClasseObjet interne : c.getClassesInternes()) AnalyseMetier.collecterNoms(interne, noms);
+    }
+
+    /**
+     * Parcourt le projet et analyse chaque fichier dès sa découverte.
+     * Au-delà de SEUIL_PARALLELE fichiers (et si le mode est actif), les
+     * analyses sont confiées au pool fork/join commun pendant que le
+     * parcours continue.
+     *
+     * @param fichiers reçoit les fichiers trouvés, dans l'ordre du parcours
+     * @param suivi    consulté après chaque fichier trouvé ou analysé, peut être null
+     * @return les résultats, dans le même ordre que les fichiers
+     */
+    private List<ResultatFichier> analyserFichiers(File cible, List<File> fichiers, Suivi suivi) 
+    {
+        List<ForkJoinTask<ResultatFichier>> taches = new ArrayList<ForkJoinTask<ResultatFichier>>();
+
+        this.explorateur.parcourir(cible.toPath(), f -> 
+        {
+            AnalyseMetier.verifierAbandon(suivi, taches);
+
+            fichiers.add(f);
+            if (suivi != null) suivi.fichiersTrouves(fichiers.size());
+            if (!this.modeParallele) return;
+
+            // Le seuil atteint, les fichiers déjà trouvés partent aussi
+            if (fichiers.size() == AnalyseMetier.SEUIL_PARALLELE) 
+            {
+                for (File enAttente : fichiers) taches.add(ForkJoinPool.commonPool().submit(() -> this.analyserFichier(enAttente)));
+            }
+            else if (fichiers.size() > AnalyseMetier.SEUIL_PARALLELE) 
+            {
+                taches.add(ForkJoinPool.commonPool().submit(() -> this.analyserFichier(f)));
+            }
+        });
+
+        List<ResultatFichier> resultats = new ArrayList<ResultatFichier>();
+
+        if (taches.isEmpty()) 
+        {
+            for (File f : fichiers) 
+            {
+                AnalyseMetier.verifierAbandon(suivi, taches);
+                resultats.add(this.analyserFichier(f));
+                if (suivi != null) suivi.fichiersLus(resultats.size(), fichiers.size());
+            }
+        }
+        else 
+        {
+            for (ForkJoinTask<ResultatFichier> t : taches) 
+            {
+                AnalyseMetier.verifierAbandon(suivi, taches);
+                resultats.add(t.join());
+                if (suivi != null) suivi.fichiersLus(resultats.size(), fichiers.size());
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Interrompt l'analyse si le suivi le demande : les analyses encore en
+     * attente dans le pool sont annulées.
+     */
+    private static void verifierAbandon(Suivi suivi, List<ForkJoinTask<ResultatFichier>> taches) 
+    {
+        if (suivi == null || !suivi.estAnnule()) return;
+
+        for (ForkJoinTask<ResultatFichier> t : taches) t.cancel(false);
+        throw new CancellationException();
+    }
+
+    /**
+     * Analyse un fichier, ou reprend son résultat depuis le cache s'il n'a pas changé.
+     */
+    private ResultatFichier analyserFichier(File f) 
+    {
+        if (this.cache == null) return this.analyseur.analyserFichier(f);
+
+        ResultatFichier resultat = this.cache.obtenir(f);
+        if (resultat != null) return resultat;
+
+        // Signature relevée avant la lecture : une sauvegarde pendant l'analyse n'est pas mise en cache.
+        // L'empreinte est calculée par le lexeur sur les octets qu'il lit.
+        CacheAnalyse.Signature avant = this.cache.signer(f);
+
+        resultat = this.analyseur.analyserFichier(f, avant.getSomme());
+        if (resultat != null) this.cache.memoriser(f, avant, resultat);
+
+        return resultat;
     }
 
     private void ajouterClassesExternes() 
@@ -129,7 +432,7 @@ public class AnalyseMetier
             {
                 continue;
             }
-            if (!this.mapClasses.containsKey(parent)) 
+            if (!this.graphe.contient(parent)) 
             {
                 manquantes.add(parent);
             }
@@ -144,7 +447,7 @@ public class AnalyseMetier
                     continue;
                 }
 
-                if (!this.mapClasses.containsKey(iface)) 
+                if (!this.graphe.contient(iface)) 
                 {
                     manquantes.add(iface);
                 }
@@ -159,8 +462,7 @@ public class AnalyseMetier
         for (String nom : manquantes) 
         {
             ClasseObjet placeholder = new ClasseObjet(new ArrayList<>(), new ArrayList<>(), nom, "externe");
-            this.classes.add(placeholder);
-            this.mapClasses.put(nom, placeholder);
+            this.graphe.ajouterClasse(placeholder);
         }
     }
 
@@ -171,31 +473,18 @@ public class AnalyseMetier
             return;
         }
 
-        ClasseObjet aSupprimer = null;
-
-        for (ClasseObjet c : this.classes) 
-        {
-            if (nomClasse.equals(c.getNom())) 
-            {
-                aSupprimer = c;
-                break;
-            }
-        }
-
-        if (aSupprimer != null) 
-        {
-            this.classes.remove(aSupprimer);
-        }
-
-        this.mapClasses.remove(nomClasse);
-
-        this.associations.removeIf(
-                a -> a.getClasseFille().getNom().equals(nomClasse)
-                        || a.getClasseMere().getNom().equals(nomClasse));
+        this.classesSupprimees.add(nomClasse);
+        this.retirerClasse(nomClasse);
+    }
 
-        this.heritages.removeIf(
-                h -> h.getClasseFille().getNom().equals(nomClasse)
-                        || h.getClasseMere().getNom().equals(nomClasse));
+    /**
+     * Retire la classe et toutes ses liaisons (associations, héritages et
+     * implémentations), en O(degré) grâce au graphe.
+     */
+    private void retirerClasse(String nomClasse) 
+    {
+        if (this.compact != null) this.compact.retirerClasse(this.graphe.getId(nomClasse));
+        this.graphe.retirerClasse(nomClasse);
     }
 
     /**
@@ -204,7 +493,7 @@ public class AnalyseMetier
      */
     private void ajouterConstructeursParDefaut() 
 {
-        for (ClasseObjet classe : this.classes) 
+        for (ClasseObjet classe : this.graphe.getClasses()) 
         {
             // Les interfaces n'ont pas de constructeurs
             if (classe.getSpecifique() != null && classe.getSpecifique().equals("interface")) 
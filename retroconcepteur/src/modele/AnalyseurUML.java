@@ -1,13 +1,14 @@
 package modele;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Stack;
+import java.util.zip.Checksum;
 
 import modele.entites.AssociationObjet;
 import modele.entites.AttributObjet;
@@ -16,6 +17,8 @@ import modele.entites.HeritageObjet;
 import modele.entites.InterfaceObjet;
 import modele.entites.LiaisonObjet;
 import modele.entites.MultipliciteObjet;
+import modele.outil.LexeurJava;
+import modele.outil.LexeurJava.TypeJeton;
 import modele.outil.ParsingUtil;
 
 /**
@@ -26,6 +29,9 @@ public class AnalyseurUML
     private HashMap<String,String> lstIntentionHeritage;
     private HashMap<String,ArrayList<String>> lstInterfaces;
 
+    // Un lexeur (et son tampon) par thread, réutilisé d'un fichier à l'autre
+    private static final ThreadLocal<LexeurJava> LEXEURS = ThreadLocal.withInitial(LexeurJava::new);
+
     public AnalyseurUML() 
     {
         this.lstIntentionHeritage = new HashMap<>();
@@ -41,175 +47,542 @@ public class AnalyseurUML
         this.lstInterfaces.clear();
     }
 
+    /**
+     * Analyse un fichier et intègre ses intentions d'héritage / d'implémentation
+     * dans l'analyseur (mode séquentiel historique).
+     */
     public ClasseObjet analyserFichierUnique(String chemin) 
     {
-        File file = new File(chemin);
-        Stack<ClasseObjet> pileClasses = new Stack<>();
-        ClasseObjet classeRacine = null;
-        int niveauAccolades = 0;
+        ResultatFichier resultat = this.analyserFichier(new File(chemin));
+        if (resultat == null) return null;
+
+        this.integrerResultat(resultat);
+        return resultat.getClasse();
+    }
+
+    /**
+     * Fusionne le résultat d'un fichier dans les intentions de l'analyseur.
+     * Les résultats doivent être intégrés dans l'ordre des fichiers pour que
+     * la sortie soit identique d'une exécution à l'autre.
+     */
+    public void integrerResultat(ResultatFichier resultat) 
+    {
+        for (Map.Entry<String, String> e : resultat.getIntentionsHeritage().entrySet()) 
+            this.lstIntentionHeritage.put(e.getKey(), e.getValue());
 
-        try (Scanner sc = new Scanner(file)) 
+        for (Map.Entry<String, ArrayList<String>> e : resultat.getInterfaces().entrySet()) 
+            this.lstInterfaces.put(e.getKey(), e.getValue());
+    }
+
+    /**
+     * Analyse un fichier sans modifier l'état de l'analyseur.
+     * Cette méthode peut donc être appelée en parallèle sur plusieurs fichiers.
+     *
+     * Le fichier est parcouru une seule fois par le {@link LexeurJava} du thread
+     * courant : les corps de méthodes ne produisent aucune allocation, seules les
+     * déclarations de membres sont matérialisées en texte.
+     *
+     * @return le résultat du fichier, ou null si le fichier est illisible
+     */
+    public ResultatFichier analyserFichier(File file) 
+    {
+        return this.analyserFichier(file, null);
+    }
+
+    /**
+     * Analyse un fichier en alimentant la somme de contrôle avec son contenu,
+     * lu une seule fois (voir {@link LexeurJava#charger(File, Checksum)}).
+     */
+    public ResultatFichier analyserFichier(File file, Checksum somme) 
+    {
+        LexeurJava lexeur = AnalyseurUML.LEXEURS.get();
+
+        try 
         {
-            while (sc.hasNextLine()) 
-            {
-                // ÉTAPE 1 : Nettoyage centralisé (Commentaires + Strings neutralisés)
-                String ligneBrute = ParsingUtil.nettoyer(sc.nextLine());
+            lexeur.charger(file, somme);
+        } 
+        catch (IOException e) { return null; }
+
+        return new AnalyseJetons(lexeur).analyser();
+    }
 
-                // Filtrage des lignes sans intérêt structurel
-                if (ligneBrute.isEmpty() || ligneBrute.startsWith("package") || 
-                    ligneBrute.startsWith("import") || ligneBrute.startsWith("/*") || 
-                    ligneBrute.startsWith("*") || ligneBrute.endsWith("*/")) 
+    /**
+     * Construit les classes d'un fichier à partir du flux de jetons.
+     *
+     * Les jetons sont regroupés en instructions au niveau du corps de classe
+     * (jusqu'à ';' ou '{'). Tout ce qui est plus profond (corps de méthodes,
+     * initialiseurs) ne sert qu'au comptage des accolades.
+     */
+    private static class AnalyseJetons 
+    {
+        private static final int AUCUN      = 0;
+        private static final int EXTENDS    = 1;
+        private static final int IMPLEMENTS = 2;
+        private static final int AUTRE      = 3;
+
+        private LexeurJava         lexeur         ;
+        private ResultatFichier    resultat       ;
+        private Stack<ClasseObjet> pileClasses    ;
+        private ClasseObjet        classeRacine   ;
+        private int                niveauAccolades;
+        private TypeJeton          precedent      ;
+
+        // Instruction en cours au niveau du corps de classe
+        private StringBuilder instruction      ;
+        private int           niveauParentheses;
+        private boolean       aEgal            ;
+        private boolean       estStatique      ;
+        private boolean       estFinal         ;
+        private boolean       estAbstrait      ;
+        private boolean       aTypeOuNom       ;
+
+        // En-tête de déclaration (class, interface, enum, record)
+        private String            motCle         ;
+        private String            nomEntite      ;
+        private int               niveauChevrons ;
+        private int               modeEntete     ;
+        private StringBuilder     nomCourant     ;
+        private String            heritage       ;
+        private ArrayList<String> interfaces     ;
+        private StringBuilder     composants     ;
+        private boolean           composantsLus  ;
+
+        // Section des constantes d'une enum
+        private boolean constantesEnum    ;
+        private String  constanteCourante ;
+
+        AnalyseJetons(LexeurJava lexeur) 
+        {
+            this.lexeur      = lexeur;
+            this.resultat    = new ResultatFichier();
+            this.pileClasses = new Stack<>();
+            this.instruction = new StringBuilder();
+            this.nomCourant  = new StringBuilder();
+            this.composants  = new StringBuilder();
+            this.precedent   = TypeJeton.FIN;
+            this.reinitialiser();
+        }
+
+        ResultatFichier analyser() 
+        {
+            TypeJeton t;
+
+            while ((t = this.lexeur.suivant()) != TypeJeton.FIN) 
+            {
+                // Corps de méthode, initialiseur... : seules les accolades comptent
+                if (this.niveauAccolades > this.pileClasses.size()) 
                 {
+                    if      (t == TypeJeton.ACCOLADE_OUVRANTE) this.niveauAccolades++;
+                    else if (t == TypeJeton.ACCOLADE_FERMANTE) this.niveauAccolades--;
                     continue;
                 }
 
-                // ÉTAPE 2 : Détection des déclarations (uniquement hors Strings)
-                String stereotype = ParsingUtil.identifierStereotype(ligneBrute);
-                boolean estDeclaration = (ligneBrute.contains("class ") || ligneBrute.contains("interface ") || 
-                                        ligneBrute.contains("record ") || ligneBrute.contains("enum "));
+                if      (this.constantesEnum) this.traiterConstanteEnum(t);
+                else if (this.motCle != null) this.traiterEntete(t);
+                else                          this.traiterInstruction(t);
 
-                if (estDeclaration) 
-                {
-                    String nomEntite = extraireNomEntite(ligneBrute);
-                    if (nomEntite.isEmpty()) continue;
+                this.precedent = t;
+            }
 
-                    ClasseObjet nouvelleClasse = new ClasseObjet(new ArrayList<>(), new ArrayList<>(), nomEntite, stereotype);
+            this.resultat.setClasse(this.classeRacine);
+            return this.resultat;
+        }
+
+        /*-------------------------------------- */
+        /* Instructions du corps de classe       */
+        /*-------------------------------------- */
+
+        private void traiterInstruction(TypeJeton t) 
+        {
+            switch (t) 
+            {
+                case AROBASE:
+                    if (this.sauterAnnotation()) this.motCle = "interface"; // @interface
+                    return;
 
-                    // Gestion de la hiérarchie (classes internes)
-                    if (classeRacine == null) classeRacine = nouvelleClasse;
-                    else if (!pileClasses.isEmpty()) pileClasses.peek().ajouterClasseInterne(nouvelleClasse);
-                    
-                    pileClasses.push(nouvelleClasse);
+                case IDENT:
+                    this.traiterIdent();
+                    return;
 
-                    // Cas spécifique Record
-                    if ("record".equals(stereotype)) 
+                case ACCOLADE_OUVRANTE:
+                    // Initialiseur de tableau, classe anonyme, lambda : l'instruction continue
+                    if (this.niveauParentheses > 0 || this.aEgal) 
                     {
-                        int startP = ligneBrute.indexOf('(');
-                        int endP = ligneBrute.lastIndexOf(')');
-
-                        if (startP != -1 && endP > startP) 
-                        {
-                            String composants = ligneBrute.substring(startP + 1, endP);
-                            for (String comp : composants.split(",")) 
-                            {
-                                String c = comp.trim(); 
-                                if (!c.isEmpty()) 
-                                {
-                                    int lastSpace = c.lastIndexOf(' ');
-                                    if (lastSpace != -1) 
-                                    {
-                                        String type = c.substring(0, lastSpace).trim();
-                                        String nom  = c.substring(lastSpace + 1).trim();
-                                        nouvelleClasse.getAttributs().add(new AttributObjet(nom, "instance", type, "private", false, true));
-                                    }
-                                }
-                            }
-                        }
+                        this.ajouterJeton();
+                        this.niveauAccolades++;
+                        return;
                     }
 
-                    // Héritage et Interfaces
-                    int idxExtends = ligneBrute.indexOf("extends ");
-                    if (idxExtends != -1) 
+                    // Corps de méthode, de constructeur ou bloc d'initialisation
+                    this.traiterMembre();
+                    this.reinitialiser();
+                    this.niveauAccolades++;
+                    return;
+
+                case ACCOLADE_FERMANTE:
+                    this.fermerClasse();
+                    return;
+
+                case POINT_VIRGULE:
+                    this.ajouterJeton();
+                    if (this.niveauParentheses == 0) 
                     {
-                        this.lstIntentionHeritage.put(nomEntite, ParsingUtil.lireNom
-                        (ligneBrute.substring(idxExtends + 8)));
+                        this.traiterMembre();
+                        this.reinitialiser();
                     }
+                    return;
 
-                    int idxImplements = ligneBrute.indexOf(" implements ");
-                    if (idxImplements != -1) 
-                    { 
-                        extraireInterfacesSansSplit(nomEntite, ligneBrute, idxImplements);
-                    }
+                case PARENTHESE_OUVRANTE: this.niveauParentheses++; break;
+                case PARENTHESE_FERMANTE: this.niveauParentheses--; break;
+                case EGAL               : if (this.niveauParentheses == 0) this.aEgal = true; break;
 
-                    // On incrémente si l'accolade est sur la ligne de déclaration
-                    if (ligneBrute.contains("{")) niveauAccolades++; continue;
+                default: break;
+            }
+
+            this.ajouterJeton();
+        }
+
+        private void traiterIdent() 
+        {
+            if (this.precedent != TypeJeton.POINT && 
+               (this.lexeur.estMot("class") || this.lexeur.estMot("interface") || this.lexeur.estMot("enum"))) 
+            {
+                this.motCle = this.lexeur.texte();
+                return;
+            }
+
+            this.ajouterJeton();
+
+            if      (this.lexeur.estMot("static"  )) this.estStatique = true;
+            else if (this.lexeur.estMot("final"   )) this.estFinal    = true;
+            else if (this.lexeur.estMot("abstract")) this.estAbstrait = true;
+            else if (this.lexeur.estMot("record") && !this.aTypeOuNom) 
+            {
+                // "record" n'est un mot-clé que s'il est suivi du nom du record
+                if (this.lexeur.suivant() == TypeJeton.IDENT) this.motCle = "record";
+                this.lexeur.rejouer();
+            }
+            else if (!AnalyseJetons.estModificateur(this.lexeur)) this.aTypeOuNom = true;
+        }
+
+        /**
+         * Applique les règles de reconnaissance des attributs et méthodes à
+         * l'instruction complète.
+         */
+        private void traiterMembre() 
+        {
+            if (this.pileClasses.isEmpty() || this.instruction.length() == 0) return;
+
+            ClasseObjet classeCourante = this.pileClasses.peek();
+            String      ligne          = this.instruction.toString();
+
+            if (ligne.endsWith(";") && !ligne.contains("(")) 
+            {
+                ParsingUtil.extraireAttribut(ligne, this.estStatique, this.estFinal, classeCourante.getAttributs());
+            } 
+            else if (ligne.contains("(") && !ligne.contains("=")) 
+            {
+                if (!ligne.contains("public") && "interface".equals(classeCourante.getSpecifique())) ligne = "public " + ligne;
+                ParsingUtil.extraireMethode(ligne, this.estStatique, classeCourante.getNom(), classeCourante.getMethodes());
+            }
+        }
+
+        private void fermerClasse() 
+        {
+            this.reinitialiser();
+
+            // Accolade orpheline en dehors de toute classe
+            if (this.pileClasses.isEmpty()) return;
+
+            this.pileClasses.pop();
+            this.niveauAccolades--;
+            this.constantesEnum = false;
+        }
+
+        /*-------------------------------------- */
+        /* En-tête de déclaration                */
+        /*-------------------------------------- */
+
+        private void traiterEntete(TypeJeton t) 
+        {
+            if (t == TypeJeton.ACCOLADE_OUVRANTE) 
+            {
+                this.terminerNom();
+
+                if (this.nomEntite == null || this.nomEntite.isEmpty()) 
+                {
+                    this.reinitialiser();
+                    this.niveauAccolades++;
+                    return;
                 }
+                this.creerClasse();
+                return;
+            }
+
+            if (this.nomEntite == null) 
+            {
+                if (t == TypeJeton.IDENT) this.nomEntite = this.lexeur.texte();
+                return;
+            }
 
-                // ÉTAPE 3 : Analyse des membres (Attributs/Méthodes)
-                if (!pileClasses.isEmpty() && niveauAccolades == pileClasses.size()) 
+            // Composants d'un record : (Type nom, Type nom)
+            if (this.niveauParentheses > 0) 
+            {
+                if      (t == TypeJeton.PARENTHESE_OUVRANTE) this.niveauParentheses++;
+                else if (t == TypeJeton.PARENTHESE_FERMANTE) this.niveauParentheses--;
+
+                if (this.niveauParentheses == 0) 
                 {
-                    ClasseObjet classeCourante = pileClasses.peek();
-                    boolean estStatique = ligneBrute.contains("static");
-                    boolean estFinal    = ligneBrute.contains("final" );
+                    this.composantsLus = true;
+                    return;
+                }
 
-                    // Constantes Enum
-                    if ("enum".equals(classeCourante.getSpecifique())) 
-                    {
-                        if (!ligneBrute.contains("(") && !ligneBrute.contains("class") && 
-                           (ligneBrute.endsWith(",") || ligneBrute.endsWith(";"))) 
-                        {
-                            String constante = ligneBrute.replace(",", "").replace(";", "").trim();
-                            if (!constante.isEmpty() && !constante.contains(" ")) 
-                            {
-                                classeCourante.getAttributs().add(new AttributObjet(constante, "static", classeCourante.getNom(), "public", true, true));
-                                continue;
-                            }
-                        }
-                    }
+                if (this.composants.length() > 0 && this.lexeur.aEspaceAvant()) this.composants.append(' ');
+                this.lexeur.ajouterA(this.composants);
+                return;
+            }
 
-                    // Attributs et Méthodes classiques
-                    if (ligneBrute.endsWith(";") && !ligneBrute.contains("(")) 
-                    {
-                        ParsingUtil.extraireAttribut(ligneBrute, estStatique, estFinal, classeCourante.getAttributs());
-                    } 
-                    else if (ligneBrute.contains("(") && !ligneBrute.contains("=")) 
+            switch (t) 
+            {
+                case AROBASE:
+                    this.sauterAnnotation();
+                    return;
+
+                case CHEVRON_OUVRANT:
+                    this.terminerNom();
+                    this.niveauChevrons++;
+                    return;
+
+                case CHEVRON_FERMANT:
+                    this.niveauChevrons--;
+                    return;
+
+                default: break;
+            }
+
+            // Paramètres de types génériques : ignorés
+            if (this.niveauChevrons > 0) return;
+
+            if (t == TypeJeton.PARENTHESE_OUVRANTE && "record".equals(this.motCle) && !this.composantsLus) 
+            {
+                this.niveauParentheses = 1;
+                return;
+            }
+
+            if (t == TypeJeton.IDENT) 
+            {
+                if      (this.lexeur.estMot("extends"   )) { this.terminerNom(); this.modeEntete = EXTENDS   ; return; }
+                else if (this.lexeur.estMot("implements")) { this.terminerNom(); this.modeEntete = IMPLEMENTS; 
+                                                             this.interfaces = new ArrayList<>()            ; return; }
+                else if (this.lexeur.estMot("permits"   )) { this.terminerNom(); this.modeEntete = AUTRE     ; return; }
+
+                if (this.modeEntete == EXTENDS || this.modeEntete == IMPLEMENTS) this.lexeur.ajouterA(this.nomCourant);
+                return;
+            }
+
+            if (t == TypeJeton.POINT && this.nomCourant.length() > 0) 
+            {
+                this.nomCourant.append('.');
+                return;
+            }
+
+            this.terminerNom();
+        }
+
+        /**
+         * Termine le nom qualifié en cours de lecture après extends / implements.
+         * Seul le premier type après extends est retenu comme intention d'héritage.
+         */
+        private void terminerNom() 
+        {
+            if (this.nomCourant.length() == 0) return;
+
+            String nom = this.nomCourant.toString();
+            this.nomCourant.setLength(0);
+
+            if      (this.modeEntete == EXTENDS && this.heritage == null) this.heritage = nom;
+            else if (this.modeEntete == IMPLEMENTS                      ) this.interfaces.add(nom);
+        }
+
+        private void creerClasse() 
+        {
+            String stereotype;
+
+            switch (this.motCle) 
+            {
+                case "interface": stereotype = "interface"; break;
+                case "record"   : stereotype = "record"   ; break;
+                case "enum"     : stereotype = "enum"     ; break;
+
+                default: stereotype = this.estAbstrait ? "abstract class" : "";
+            }
+
+            ClasseObjet nouvelleClasse = new ClasseObjet(new ArrayList<>(), new ArrayList<>(), this.nomEntite, stereotype);
+
+            // Gestion de la hiérarchie (classes internes)
+            if (this.classeRacine == null) this.classeRacine = nouvelleClasse;
+            else if (!this.pileClasses.isEmpty()) this.pileClasses.peek().ajouterClasseInterne(nouvelleClasse);
+
+            this.pileClasses.push(nouvelleClasse);
+            this.niveauAccolades++;
+
+            // Cas spécifique Record
+            if ("record".equals(stereotype)) 
+            {
+                for (String comp : ParsingUtil.decoupage(this.composants.toString())) 
+                {
+                    String c = comp.trim();
+                    int lastSpace = c.lastIndexOf(' ');
+
+                    if (lastSpace != -1) 
                     {
-                        String l = ligneBrute;
-                        if (!l.contains("public") && "interface".equals(classeCourante.getSpecifique())) l = "public " + l;
-                        ParsingUtil.extraireMethode(l, estStatique, classeCourante.getNom(), classeCourante.getMethodes());
+                        String type = c.substring(0, lastSpace).trim();
+                        String nom  = c.substring(lastSpace + 1).trim();
+                        nouvelleClasse.getAttributs().add(new AttributObjet(nom, "instance", type, "private", false, true));
                     }
                 }
+            }
 
-                // ÉTAPE 4 : Gestion précise de la profondeur
-                if (ligneBrute.contains("{")) niveauAccolades++;
-                if (ligneBrute.contains("}")) 
-                {
-                    if (niveauAccolades == pileClasses.size() && !pileClasses.isEmpty()) pileClasses.pop();
+            // Héritage et Interfaces
+            if (this.heritage   != null) this.resultat.getIntentionsHeritage().put(this.nomEntite, this.heritage  );
+            if (this.interfaces != null) this.resultat.getInterfaces        ().put(this.nomEntite, this.interfaces);
+
+            this.reinitialiser();
+            this.constantesEnum = "enum".equals(stereotype);
+        }
+
+        /*-------------------------------------- */
+        /* Constantes d'enum                     */
+        /*-------------------------------------- */
+
+        private void traiterConstanteEnum(TypeJeton t) 
+        {
+            switch (t) 
+            {
+                case AROBASE:
+                    this.sauterAnnotation();
+                    break;
+
+                case IDENT:
+                    if (this.niveauParentheses == 0 && this.constanteCourante == null) 
+                        this.constanteCourante = this.lexeur.texte();
+                    break;
+
+                case PARENTHESE_OUVRANTE: this.niveauParentheses++; break;
+                case PARENTHESE_FERMANTE: this.niveauParentheses--; break;
+
+                // Corps propre à une constante
+                case ACCOLADE_OUVRANTE: this.niveauAccolades++; break;
+
+                case VIRGULE:
+                    if (this.niveauParentheses == 0) this.ajouterConstante();
+                    break;
+
+                case POINT_VIRGULE:
+                    if (this.niveauParentheses == 0) 
                     {
-                        niveauAccolades--;
+                        this.ajouterConstante();
+                        this.reinitialiser();
+                        this.constantesEnum = false;
                     }
-                }
+                    break;
+
+                case ACCOLADE_FERMANTE:
+                    this.ajouterConstante();
+                    this.fermerClasse();
+                    break;
+
+                default: break;
             }
-        } catch (FileNotFoundException e) { return null; }
+        }
 
-        return classeRacine;
-    }
+        private void ajouterConstante() 
+        {
+            if (this.constanteCourante == null) return;
 
-    /**
-     * Correction : Harmonisation du nom de la méthode utilisée par analyserFichierUnique
-     */
-    private String extraireNomEntite(String ligne) 
-    {
-        String[] motsCles = {"class", "interface", "record", "enum"};
-        for (String mc : motsCles) 
+            ClasseObjet classeCourante = this.pileClasses.peek();
+            classeCourante.getAttributs().add(new AttributObjet(this.constanteCourante, "static", 
+                                              classeCourante.getNom(), "public", true, true));
+            this.constanteCourante = null;
+        }
+
+        /*-------------------------------------- */
+        /* Outils                                */
+        /*-------------------------------------- */
+
+        /**
+         * Consomme une annotation (après '@') et ses éventuels arguments.
+         *
+         * @return true s'il s'agit de la déclaration d'un type annotation (@interface)
+         */
+        private boolean sauterAnnotation() 
         {
-            int idx = ligne.indexOf(mc + " ");
-            if (idx != -1) 
+            TypeJeton t = this.lexeur.suivant();
+
+            if (t != TypeJeton.IDENT) { this.lexeur.rejouer(); return false; }
+            if (this.lexeur.estMot("interface")) return true;
+
+            t = this.lexeur.suivant();
+            while (t == TypeJeton.POINT) 
             {
-                return ParsingUtil.lireNom(ligne.substring(idx + mc.length() + 1).trim());
+                t = this.lexeur.suivant();
+                if (t == TypeJeton.IDENT) t = this.lexeur.suivant();
             }
+
+            if (t != TypeJeton.PARENTHESE_OUVRANTE) 
+            {
+                this.lexeur.rejouer();
+                return false;
+            }
+
+            int profondeur = 1;
+            while (profondeur > 0 && (t = this.lexeur.suivant()) != TypeJeton.FIN) 
+            {
+                if      (t == TypeJeton.PARENTHESE_OUVRANTE) profondeur++;
+                else if (t == TypeJeton.PARENTHESE_FERMANTE) profondeur--;
+            }
+            return false;
         }
-        return "";
-    }
 
-    private void extraireInterfacesSansSplit(String nomEntite, String ligne, int idxImplements) 
-    {
-        int start = idxImplements + 12;
-        int end   = ligne.indexOf('{', start);
-        if (end == -1) end = ligne.length();
+        private void ajouterJeton() 
+        {
+            if (this.instruction.length() > 0 && this.lexeur.aEspaceAvant()) this.instruction.append(' ');
+            this.lexeur.ajouterA(this.instruction);
+        }
+
+        private static boolean estModificateur(LexeurJava lexeur) 
+        {
+            return lexeur.estMot("public"  ) || lexeur.estMot("protected"   ) || lexeur.estMot("private"  ) ||
+                   lexeur.estMot("sealed"  ) || lexeur.estMot("strictfp"    ) || lexeur.estMot("transient") ||
+                   lexeur.estMot("volatile") || lexeur.estMot("synchronized") || lexeur.estMot("native"   ) ||
+                   lexeur.estMot("default" );
+        }
 
-        String segment = ligne.substring(start, end);
-        ArrayList<String> interfaces = new ArrayList<>();
-        for (String s : ParsingUtil.decoupage(segment)) 
+        private void reinitialiser() 
         {
-            String inter = s.trim();
-            if (inter.contains("<")) inter = inter.substring(0, inter.indexOf('<')).trim();
-            if (!inter.isEmpty()) interfaces.add(inter);
+            this.instruction.setLength(0);
+            this.niveauParentheses = 0;
+            this.aEgal             = false;
+            this.estStatique       = false;
+            this.estFinal          = false;
+            this.estAbstrait       = false;
+            this.aTypeOuNom        = false;
+
+            this.motCle            = null;
+            this.nomEntite         = null;
+            this.niveauChevrons    = 0;
+            this.modeEntete        = AUCUN;
+            this.nomCourant.setLength(0);
+            this.heritage          = null;
+            this.interfaces        = null;
+            this.composants.setLength(0);
+            this.composantsLus     = false;
+
+            this.constanteCourante = null;
         }
-        this.lstInterfaces.put(nomEntite, interfaces);
     }
 
-    public List<AssociationObjet> detecterAssociations(List<ClasseObjet> classes, HashMap<String, ClasseObjet> mapClasses) 
+    public List<AssociationObjet> detecterAssociations(List<ClasseObjet> classes, Map<String, ClasseObjet> mapClasses) 
     {
         List<AssociationObjet> temporaire = new ArrayList<>();
         
@@ -234,23 +607,43 @@ public class AnalyseurUML
             }
         }
         
-        // Fusion bidirectionnelle (reste inchangé mais fiabilisé)
-        List<AssociationObjet> resultat = new ArrayList<>();
-        while (!temporaire.isEmpty()) 
+        // Fusion bidirectionnelle : chaque association est rapprochée de la
+        // première inverse restante, trouvée par la file de son couple (mère, fille)
+        HashMap<String, ArrayDeque<Integer>> parCouple = new HashMap<>();
+        for (int i = 0; i < temporaire.size(); i++) 
         {
-            AssociationObjet a1  = temporaire.remove(0);
+            AssociationObjet a = temporaire.get(i);
+            parCouple.computeIfAbsent(AnalyseurUML.cleCouple(a.getClasseMere(), a.getClasseFille()),
+                                      k -> new ArrayDeque<>()).add(i);
+        }
+
+        boolean[]              fusionnee = new boolean[temporaire.size()];
+        List<AssociationObjet> resultat  = new ArrayList<>();
+
+        for (int i = 0; i < temporaire.size(); i++) 
+        {
+            if (fusionnee[i]) continue;
+
+            AssociationObjet a1  = temporaire.get(i);
             AssociationObjet inv = null;
-            for (AssociationObjet a2 : temporaire) 
+
+            ArrayDeque<Integer> inverses = parCouple.get(AnalyseurUML.cleCouple(a1.getClasseFille(), a1.getClasseMere()));
+            if (inverses != null) 
             {
-                if (a1.getClasseMere().getNom().equals(a2.getClasseFille().getNom()) && 
-                    a1.getClasseFille().getNom().equals(a2.getClasseMere().getNom())) 
+                // Les indices déjà traités ou fusionnés sont retirés au passage
+                while (!inverses.isEmpty() && (inverses.peekFirst() <= i || fusionnee[inverses.peekFirst()])) 
+                    inverses.pollFirst();
+
+                if (!inverses.isEmpty()) 
                 {
-                    inv = a2; break;
+                    int j = inverses.pollFirst();
+                    fusionnee[j] = true;
+                    inv = temporaire.get(j);
                 }
             }
+
             if (inv != null) 
             {
-                temporaire.remove(inv);
                 AssociationObjet bi = new AssociationObjet(a1.getClasseMere(), a1.getClasseFille(),
                                       a1.getMultDest(), inv.getMultDest(), "", false);
                 bi.setRoleDest(a1.getRoleDest()); bi.setRoleOrig(inv.getRoleDest());
@@ -261,7 +654,12 @@ public class AnalyseurUML
         return resultat;
     }
 
-    public List<HeritageObjet> resoudreHeritage(HashMap<String, ClasseObjet> mapClasses) 
+    private static String cleCouple(ClasseObjet mere, ClasseObjet fille) 
+    {
+        return mere.getNom() + '\u0000' + fille.getNom();
+    }
+
+    public List<HeritageObjet> resoudreHeritage(Map<String, ClasseObjet> mapClasses) 
     {
         List<HeritageObjet> res = new ArrayList<>();
         for (Map.Entry<String, String> e : this.lstIntentionHeritage.entrySet()) 
@@ -274,7 +672,7 @@ public class AnalyseurUML
         return res;
     }
 
-    public List<InterfaceObjet> resoudreImplementation(HashMap<String, ClasseObjet> mapClasses) 
+    public List<InterfaceObjet> resoudreImplementation(Map<String, ClasseObjet> mapClasses) 
     {
         List<InterfaceObjet> res = new ArrayList<>();
         for (Map.Entry<String, ArrayList<String>> e : this.lstInterfaces.entrySet()) 
@@ -287,17 +685,6 @@ public class AnalyseurUML
         return res;
     }
 
-    public List<File> ClassesDuDossier(String chemin) 
-    {
-        File d = new File(chemin);
-        List<File> res = new ArrayList<>();
-        File[] files = d.listFiles();
-        if (files != null) for (File f : files) if (f.isFile() && f.getName().endsWith(".java")) res.add(f);
-        {
-            return res;
-        }
-    }
-
     public void renumeroterLiaisonsFinales(List<LiaisonObjet> toutes) 
     {
         LiaisonObjet.reinitialiserCompteur();
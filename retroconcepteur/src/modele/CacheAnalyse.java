@@ -0,0 +1,438 @@
+package modele;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import modele.entites.AttributObjet;
+import modele.entites.ClasseObjet;
+import modele.entites.MethodeObjet;
+
+/**
+ * Cache disque des analyses par fichier d'un projet.
+ *
+ * Le cache est stocké dans un dossier caché du projet
+ * ({@code .retroconcepteur/analyse.cache}) sous forme binaire. Chaque entrée
+ * associe un fichier (chemin relatif, taille, date de modification, empreinte
+ * CRC32C du contenu) au {@link ResultatFichier} sérialisé.
+ *
+ * Un fichier dont la taille et la date n'ont pas changé est repris tel quel ;
+ * si seule la date a changé, l'empreinte du contenu est recalculée et
+ * comparée avant de relancer l'analyse.
+ *
+ * La taille et la date d'un fichier sont relevées avant son analyse et
+ * vérifiées après : un fichier enregistré pendant l'analyse n'est pas mis en
+ * cache. L'empreinte est calculée sur les octets lus par l'analyseur, sans
+ * relire le fichier.
+ *
+ * {@link #obtenir(File)}, {@link #signer(File)} et
+ * {@link #memoriser(File, Signature, ResultatFichier)} peuvent être appelées
+ * depuis plusieurs threads.
+ */
+public class CacheAnalyse
+{
+    /*-------------------------------------- */
+    /* Constantes                            */
+    /*-------------------------------------- */
+    public  static final String DOSSIER_CACHE = ".retroconcepteur";
+    private static final String FICHIER_CACHE = "analyse.cache";
+
+    private static final int MAGIQUE = 0x524D4C43; // "RMLC"
+
+    // À incrémenter dès que l'analyseur produit des résultats différents
+    private static final int VERSION = 1;
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private File dossierProjet;
+    private File fichierCache ;
+
+    private HashMap          <String, Entree> anciennes;
+    private ConcurrentHashMap<String, Entree> courantes;
+
+    private static final ThreadLocal<byte[]> TAMPONS = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    /**
+     * Entrée du cache : signature du fichier et résultat sérialisé.
+     */
+    private static class Entree
+    {
+        private long   taille    ;
+        private long   date      ;
+        private long   empreinte ;
+        private byte[] donnees   ;
+
+        Entree(long taille, long date, long empreinte, byte[] donnees)
+        {
+            this.taille    = taille   ;
+            this.date      = date     ;
+            this.empreinte = empreinte;
+            this.donnees   = donnees  ;
+        }
+    }
+
+    /**
+     * Taille et date d'un fichier relevées avant son analyse, et empreinte
+     * CRC32C du contenu alimentée pendant la lecture par l'analyseur.
+     */
+    public static final class Signature
+    {
+        private final long   taille;
+        private final long   date  ;
+        private final CRC32C somme ;
+
+        private Signature(long taille, long date)
+        {
+            this.taille = taille      ;
+            this.date   = date        ;
+            this.somme  = new CRC32C();
+        }
+
+        /** Somme à alimenter avec le contenu lu pendant l'analyse. */
+        public Checksum getSomme() { return this.somme; }
+    }
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public CacheAnalyse(File dossierProjet)
+    {
+        this.dossierProjet = dossierProjet;
+        this.fichierCache  = new File(new File(dossierProjet, CacheAnalyse.DOSSIER_CACHE), CacheAnalyse.FICHIER_CACHE);
+        this.anciennes     = new HashMap<>();
+        this.courantes     = new ConcurrentHashMap<>();
+    }
+
+    /*-------------------------------------- */
+    /* Méthodes                              */
+    /*-------------------------------------- */
+
+    /**
+     * Charge le cache existant. Un cache absent, corrompu ou d'une autre
+     * version est simplement ignoré.
+     */
+    public void charger()
+    {
+        this.anciennes.clear();
+        this.courantes.clear();
+
+        if (!this.fichierCache.isFile()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.fichierCache))))
+        {
+            if (in.readInt() != CacheAnalyse.MAGIQUE || in.readInt() != CacheAnalyse.VERSION) return;
+
+            int nb = in.readInt();
+            for (int i = 0; i < nb; i++)
+            {
+                String chemin    = in.readUTF ();
+                long   taille    = in.readLong();
+                long   date      = in.readLong();
+                long   empreinte = in.readLong();
+                byte[] donnees   = new byte[in.readInt()];
+                in.readFully(donnees);
+
+                this.anciennes.put(chemin, new Entree(taille, date, empreinte, donnees));
+            }
+        }
+        catch (IOException e)
+        {
+            this.anciennes.clear();
+        }
+    }
+
+    /**
+     * Renvoie le résultat mis en cache pour ce fichier s'il n'a pas changé.
+     *
+     * @return un résultat neuf (objets indépendants du cache), ou null
+     */
+    public ResultatFichier obtenir(File fichier)
+    {
+        String chemin = this.cheminRelatif(fichier);
+        Entree entree = this.anciennes.get(chemin);
+
+        if (entree == null || entree.taille != fichier.length()) return null;
+
+        try
+        {
+            if (entree.date != fichier.lastModified())
+            {
+                // Fichier touché : on ne réutilise que si le contenu est identique
+                if (CacheAnalyse.empreinte(fichier) != entree.empreinte) return null;
+                entree = new Entree(entree.taille, fichier.lastModified(), entree.empreinte, entree.donnees);
+            }
+
+            ResultatFichier resultat = CacheAnalyse.lireResultat(entree.donnees);
+            this.courantes.put(chemin, entree);
+            return resultat;
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Relève la signature d'un fichier, avant de l'analyser. Le contenu n'est
+     * pas relu ici : l'empreinte est calculée par l'analyseur sur les octets
+     * qu'il lit, via {@link Signature#getSomme()}.
+     */
+    public Signature signer(File fichier)
+    {
+        return new Signature(fichier.length(), fichier.lastModified());
+    }
+
+    /**
+     * Mémorise le résultat d'une analyse, si la taille et la date du fichier
+     * n'ont pas changé depuis {@link #signer(File)} : sinon il a été modifié
+     * pendant la lecture et le résultat pourrait ne pas correspondre à
+     * l'empreinte. Le résultat est sérialisé immédiatement : il peut ensuite
+     * être modifié sans affecter le cache.
+     *
+     * @param avant signature relevée avant l'analyse, dont la somme a été
+     *              alimentée avec le contenu lu
+     */
+    public void memoriser(File fichier, Signature avant, ResultatFichier resultat)
+    {
+        if (avant == null || fichier.length() != avant.taille || fichier.lastModified() != avant.date) return;
+
+        try
+        {
+            this.courantes.put(this.cheminRelatif(fichier),
+                               new Entree(avant.taille, avant.date, avant.somme.getValue(),
+                                          CacheAnalyse.ecrireResultat(resultat)));
+        }
+        catch (IOException e)
+        {
+            // Entrée non mise en cache : le fichier sera simplement réanalysé
+        }
+    }
+
+    /**
+     * Retire l'entrée d'un fichier supprimé du projet.
+     */
+    public void oublier(File fichier)
+    {
+        this.courantes.remove(this.cheminRelatif(fichier));
+    }
+
+    /**
+     * Écrit sur disque les entrées des fichiers vus lors de cette analyse.
+     * Les fichiers supprimés du projet disparaissent ainsi du cache.
+     */
+    public void enregistrer()
+    {
+        File dossier = this.fichierCache.getParentFile();
+        if (!dossier.isDirectory() && !dossier.mkdirs()) return;
+
+        File temporaire = new File(dossier, CacheAnalyse.FICHIER_CACHE + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaire))))
+        {
+            out.writeInt(CacheAnalyse.MAGIQUE);
+            out.writeInt(CacheAnalyse.VERSION);
+            out.writeInt(this.courantes.size());
+
+            for (Map.Entry<String, Entree> e : this.courantes.entrySet())
+            {
+                Entree entree = e.getValue();
+                out.writeUTF (e.getKey());
+                out.writeLong(entree.taille);
+                out.writeLong(entree.date);
+                out.writeLong(entree.empreinte);
+                out.writeInt (entree.donnees.length);
+                out.write    (entree.donnees);
+            }
+        }
+        catch (IOException e)
+        {
+            temporaire.delete();
+            return;
+        }
+
+        try
+        {
+            Files.move(temporaire.toPath(), this.fichierCache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            temporaire.delete();
+        }
+    }
+
+    private String cheminRelatif(File fichier)
+    {
+        return this.dossierProjet.getAbsoluteFile().toPath().relativize(fichier.getAbsoluteFile().toPath()).toString();
+    }
+
+    /*-------------------------------------- */
+    /* Empreinte du contenu                  */
+    /*-------------------------------------- */
+    private static long empreinte(File fichier) throws IOException
+    {
+        CRC32C crc    = new CRC32C();
+        byte[] tampon = CacheAnalyse.TAMPONS.get();
+
+        try (InputStream in = new FileInputStream(fichier))
+        {
+            int lu;
+            while ((lu = in.read(tampon)) != -1) crc.update(tampon, 0, lu);
+        }
+        return crc.getValue();
+    }
+
+    /*-------------------------------------- */
+    /* Sérialisation                         */
+    /*-------------------------------------- */
+    private static byte[] ecrireResultat(ResultatFichier resultat) throws IOException
+    {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream(256);
+        DataOutputStream      out    = new DataOutputStream(octets);
+
+        out.writeBoolean(resultat.getClasse() != null);
+        if (resultat.getClasse() != null) CacheAnalyse.ecrireClasse(out, resultat.getClasse());
+
+        out.writeInt(resultat.getIntentionsHeritage().size());
+        for (Map.Entry<String, String> e : resultat.getIntentionsHeritage().entrySet())
+        {
+            out.writeUTF(e.getKey());
+            CacheAnalyse.ecrireChaine(out, e.getValue());
+        }
+
+        out.writeInt(resultat.getInterfaces().size());
+        for (Map.Entry<String, ArrayList<String>> e : resultat.getInterfaces().entrySet())
+        {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue().size());
+            for (String i : e.getValue()) out.writeUTF(i);
+        }
+
+        out.flush();
+        return octets.toByteArray();
+    }
+
+    private static ResultatFichier lireResultat(byte[] donnees) throws IOException
+    {
+        DataInputStream in       = new DataInputStream(new ByteArrayInputStream(donnees));
+        ResultatFichier resultat = new ResultatFichier();
+
+        if (in.readBoolean()) resultat.setClasse(CacheAnalyse.lireClasse(in));
+
+        int nbHeritages = in.readInt();
+        for (int i = 0; i < nbHeritages; i++)
+            resultat.getIntentionsHeritage().put(in.readUTF(), CacheAnalyse.lireChaine(in));
+
+        int nbInterfaces = in.readInt();
+        for (int i = 0; i < nbInterfaces; i++)
+        {
+            String            nom        = in.readUTF();
+            int               nb         = in.readInt();
+            ArrayList<String> interfaces = new ArrayList<>(nb);
+
+            for (int j = 0; j < nb; j++) interfaces.add(in.readUTF());
+            resultat.getInterfaces().put(nom, interfaces);
+        }
+        return resultat;
+    }
+
+    private static void ecrireClasse(DataOutputStream out, ClasseObjet classe) throws IOException
+    {
+        out.writeUTF(classe.getNom());
+        CacheAnalyse.ecrireChaine(out, classe.getSpecifique());
+
+        out.writeInt(classe.getAttributs().size());
+        for (AttributObjet att : classe.getAttributs())
+        {
+            out.writeUTF    (att.getNom       ());
+            out.writeUTF    (att.getPortee    ());
+            out.writeUTF    (att.getType      ());
+            out.writeUTF    (att.getVisibilite());
+            out.writeBoolean(att.estStatique  ());
+            out.writeBoolean(att.estFinale    ());
+        }
+
+        out.writeInt(classe.getMethodes().size());
+        for (MethodeObjet met : classe.getMethodes())
+        {
+            out.writeUTF    (met.getNom       ());
+            out.writeUTF    (met.getVisibilite());
+            CacheAnalyse.ecrireChaine(out, met.getRetourType());
+            out.writeBoolean(met.estStatique  ());
+
+            out.writeInt(met.getParametres().size());
+            for (Map.Entry<String, String> p : met.getParametres().entrySet())
+            {
+                out.writeUTF(p.getKey  ());
+                out.writeUTF(p.getValue());
+            }
+        }
+
+        out.writeInt(classe.getClassesInternes().size());
+        for (ClasseObjet interne : classe.getClassesInternes()) CacheAnalyse.ecrireClasse(out, interne);
+    }
+
+    private static ClasseObjet lireClasse(DataInputStream in) throws IOException
+    {
+        String nom        = in.readUTF();
+        String specifique = CacheAnalyse.lireChaine(in);
+
+        int nbAttributs = in.readInt();
+        ArrayList<AttributObjet> attributs = new ArrayList<>(nbAttributs);
+        for (int i = 0; i < nbAttributs; i++)
+        {
+            attributs.add(new AttributObjet(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                                            in.readBoolean(), in.readBoolean()));
+        }
+
+        int nbMethodes = in.readInt();
+        ArrayList<MethodeObjet> methodes = new ArrayList<>(nbMethodes);
+        for (int i = 0; i < nbMethodes; i++)
+        {
+            String  nomMethode = in.readUTF();
+            String  visibilite = in.readUTF();
+            String  retour     = CacheAnalyse.lireChaine(in);
+            boolean statique   = in.readBoolean();
+
+            int nbParametres = in.readInt();
+            HashMap<String, String> parametres = new HashMap<>();
+            for (int j = 0; j < nbParametres; j++) parametres.put(in.readUTF(), in.readUTF());
+
+            methodes.add(new MethodeObjet(nomMethode, parametres, retour, visibilite, statique));
+        }
+
+        ClasseObjet classe = new ClasseObjet(attributs, methodes, nom, specifique);
+
+        int nbInternes = in.readInt();
+        for (int i = 0; i < nbInternes; i++) classe.ajouterClasseInterne(CacheAnalyse.lireClasse(in));
+
+        return classe;
+    }
+
+    private static void ecrireChaine(DataOutputStream out, String s) throws IOException
+    {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String lireChaine(DataInputStream in) throws IOException
+    {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
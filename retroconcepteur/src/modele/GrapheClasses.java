@@ -0,0 +1,380 @@
+package modele;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import modele.entites.AssociationObjet;
+import modele.entites.ClasseObjet;
+import modele.entites.HeritageObjet;
+import modele.entites.InterfaceObjet;
+
+/**
+ * Graphe des classes du modèle : chaque classe reçoit un identifiant entier
+ * (son rang d'ajout, jamais réutilisé avant {@link #vider()}) et garde ses
+ * liaisons entrantes et sortantes, par type.
+ *
+ * Sens des arêtes : une association va de sa classe fille (origine) vers sa
+ * classe mère (destination), un héritage de l'enfant vers le parent et une
+ * implémentation de la classe vers chacune de ses interfaces. Une
+ * implémentation est un seul {@link InterfaceObjet} par classe, présent
+ * chez chaque interface implémentée.
+ *
+ * Voisins, sous-types et suppression d'une classe coûtent le degré de la
+ * classe, pas le nombre total de liaisons. Les listes complètes restent
+ * disponibles, dans l'ordre d'ajout, comme vues en lecture seule : une
+ * suppression y laisse un trou, rebouché à la lecture suivante.
+ */
+public class GrapheClasses
+{
+    /**
+     * Liaisons d'une classe, par type et par sens.
+     */
+    private static final class Sommet
+    {
+        private final ClasseObjet classe;
+
+        private final ArrayList<AssociationObjet>  associationsSortantes = new ArrayList<>(0);
+        private final ArrayList<AssociationObjet>  associationsEntrantes = new ArrayList<>(0);
+        private final ArrayList<HeritageObjet>     parents               = new ArrayList<>(0);
+        private final ArrayList<HeritageObjet>     enfants               = new ArrayList<>(0);
+        private final ArrayList<InterfaceObjet>    implementations       = new ArrayList<>(0);
+        private final ArrayList<InterfaceObjet>    implementeurs         = new ArrayList<>(0);
+
+        private Sommet(ClasseObjet classe) { this.classe = classe; }
+    }
+
+    /**
+     * Liste en lecture seule, dans l'ordre d'ajout, dont le retrait d'un
+     * élément coûte O(1) : il laisse un trou, les trous sont rebouchés en
+     * un passage à la lecture suivante.
+     */
+    private static final class ListeTrouee<T> extends AbstractList<T>
+    {
+        private final ArrayList<T>                elements  = new ArrayList<>();
+        private IdentityHashMap<T, Integer>       positions = new IdentityHashMap<>();
+        private int                               nbTrous   ;
+
+        private void ajouter(T e)
+        {
+            this.positions.put(e, this.elements.size());
+            this.elements.add(e);
+        }
+
+        private void retirer(T e)
+        {
+            Integer i = this.positions.remove(e);
+            if (i == null) return;
+
+            this.elements.set(i, null);
+            this.nbTrous++;
+        }
+
+        private void reboucher()
+        {
+            if (this.nbTrous == 0) return;
+
+            int j = 0;
+            for (int i = 0; i < this.elements.size(); i++)
+            {
+                T e = this.elements.get(i);
+                if (e == null) continue;
+
+                this.elements.set(j, e);
+                this.positions.put(e, j++);
+            }
+            this.elements.subList(j, this.elements.size()).clear();
+            this.nbTrous = 0;
+        }
+
+        /** Vide la liste et rend la place occupée. */
+        private void vider()
+        {
+            this.elements.clear();
+            this.elements.trimToSize();
+            this.positions = new IdentityHashMap<>();
+            this.nbTrous   = 0;
+        }
+
+        @Override public T   get (int i) { this.reboucher(); return this.elements.get(i); }
+        @Override public int size()      { return this.elements.size() - this.nbTrous; }
+    }
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private final List<Sommet>                  sommets        ; // par identifiant, null une fois retiré
+    private final HashMap<String, Integer>      ids            ;
+    private final HashMap<String, ClasseObjet>  classesParNom  ;
+
+    private final ListeTrouee<ClasseObjet>      classes        ;
+    private final ListeTrouee<AssociationObjet> associations   ;
+    private final ListeTrouee<HeritageObjet>    heritages      ;
+    private final ListeTrouee<InterfaceObjet>   implementations;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public GrapheClasses()
+    {
+        this.sommets         = new ArrayList<>();
+        this.ids             = new HashMap<>();
+        this.classesParNom   = new HashMap<>();
+        this.classes         = new ListeTrouee<>();
+        this.associations    = new ListeTrouee<>();
+        this.heritages       = new ListeTrouee<>();
+        this.implementations = new ListeTrouee<>();
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+
+    /** Vues en lecture seule, dans l'ordre d'ajout. */
+    public List<ClasseObjet>      getClasses        () { return this.classes        ; }
+    public List<AssociationObjet> getAssociations   () { return this.associations   ; }
+    public List<HeritageObjet>    getHeritages      () { return this.heritages      ; }
+    public List<InterfaceObjet>   getImplementations() { return this.implementations; }
+
+    /** Classes par nom, en lecture seule. */
+    public Map<String, ClasseObjet> getClassesParNom() { return Collections.unmodifiableMap(this.classesParNom); }
+
+    public boolean     contient (String nom) { return this.ids.containsKey(nom); }
+    public ClasseObjet getClasse(String nom) { return this.classesParNom.get(nom); }
+
+    /** Identifiant de la classe portant ce nom, ou -1. */
+    public int getId(String nom)
+    {
+        Integer id = this.ids.get(nom);
+        return id == null ? -1 : id;
+    }
+
+    /** Classe d'identifiant donné, ou null si elle a été retirée. */
+    public ClasseObjet getClasse(int id)
+    {
+        Sommet s = this.sommets.get(id);
+        return s == null ? null : s.classe;
+    }
+
+    /** Borne (exclue) des identifiants attribués. */
+    public int getNbIds() { return this.sommets.size(); }
+
+    /*-------------------------------------- */
+    /* Requêtes par classe, en O(degré)      */
+    /*-------------------------------------- */
+
+    /** Associations partant de la classe (attributs qu'elle déclare). */
+    public List<AssociationObjet> getAssociationsSortantes(String nom)
+    {
+        Sommet s = this.sommet(nom);
+        return s == null ? List.of() : Collections.unmodifiableList(s.associationsSortantes);
+    }
+
+    /** Associations arrivant sur la classe. */
+    public List<AssociationObjet> getAssociationsEntrantes(String nom)
+    {
+        Sommet s = this.sommet(nom);
+        return s == null ? List.of() : Collections.unmodifiableList(s.associationsEntrantes);
+    }
+
+    /** Classe mère et interfaces implémentées. */
+    public List<ClasseObjet> getSurTypes(String nom)
+    {
+        List<ClasseObjet> resultat = new ArrayList<>();
+        Sommet            s        = this.sommet(nom);
+        if (s == null) return resultat;
+
+        for (HeritageObjet  h : s.parents        ) resultat.add(h.getClasseMere());
+        for (InterfaceObjet i : s.implementations) resultat.addAll(i.getLstInterfaces());
+        return resultat;
+    }
+
+    /** Sous-types directs : classes filles et classes qui implémentent l'interface. */
+    public List<ClasseObjet> getSousTypes(String nom)
+    {
+        List<ClasseObjet> resultat = new ArrayList<>();
+        Sommet            s        = this.sommet(nom);
+        if (s == null) return resultat;
+
+        for (HeritageObjet  h : s.enfants      ) resultat.add(h.getClasseFille());
+        for (InterfaceObjet i : s.implementeurs) resultat.add(i.getClasseFille());
+        return resultat;
+    }
+
+    /** Classes reliées par une liaison, quel qu'en soit le type ou le sens (doublons possibles). */
+    public List<ClasseObjet> getVoisins(String nom)
+    {
+        List<ClasseObjet> resultat = new ArrayList<>();
+        Sommet            s        = this.sommet(nom);
+        if (s == null) return resultat;
+
+        for (AssociationObjet a : s.associationsSortantes) resultat.add(a.getClasseMere ());
+        for (AssociationObjet a : s.associationsEntrantes) resultat.add(a.getClasseFille());
+        resultat.addAll(this.getSurTypes (nom));
+        resultat.addAll(this.getSousTypes(nom));
+        return resultat;
+    }
+
+    /*-------------------------------------- */
+    /* Modifications                         */
+    /*-------------------------------------- */
+
+    /**
+     * Ajoute une classe ; un nom déjà présent est ignoré.
+     *
+     * @return l'identifiant de la classe portant ce nom
+     */
+    public int ajouterClasse(ClasseObjet classe)
+    {
+        Integer existant = this.ids.get(classe.getNom());
+        if (existant != null) return existant;
+
+        int id = this.sommets.size();
+        this.sommets      .add(new Sommet(classe));
+        this.ids          .put(classe.getNom(), id);
+        this.classesParNom.put(classe.getNom(), classe);
+        this.classes      .ajouter(classe);
+        return id;
+    }
+
+    /** Les deux extrémités doivent être des classes du graphe. */
+    public void ajouterAssociation(AssociationObjet a)
+    {
+        this.sommet(a.getClasseFille()).associationsSortantes.add(a);
+        this.sommet(a.getClasseMere ()).associationsEntrantes.add(a);
+        this.associations.ajouter(a);
+    }
+
+    public void ajouterHeritage(HeritageObjet h)
+    {
+        this.sommet(h.getClasseFille()).parents.add(h);
+        this.sommet(h.getClasseMere ()).enfants.add(h);
+        this.heritages.ajouter(h);
+    }
+
+    public void ajouterImplementation(InterfaceObjet i)
+    {
+        this.sommet(i.getClasseFille()).implementations.add(i);
+        for (ClasseObjet iface : i.getLstInterfaces()) this.sommet(iface).implementeurs.add(i);
+        this.implementations.ajouter(i);
+    }
+
+    /**
+     * Retire la classe et toutes ses liaisons, en O(degré). Une classe qui
+     * n'implémentait que cette interface perd son implémentation.
+     *
+     * @return la classe retirée, ou null si le nom est inconnu
+     */
+    public ClasseObjet retirerClasse(String nom)
+    {
+        Integer id = this.ids.remove(nom);
+        if (id == null) return null;
+
+        Sommet s = this.sommets.get(id);
+        this.sommets.set(id, null);
+        this.classesParNom.remove(nom);
+        this.classes      .retirer(s.classe);
+
+        for (AssociationObjet a : s.associationsSortantes)
+        {
+            this.autreExtremite(a.getClasseMere(), s).associationsEntrantes.remove(a);
+            this.associations.retirer(a);
+        }
+        for (AssociationObjet a : s.associationsEntrantes)
+        {
+            this.autreExtremite(a.getClasseFille(), s).associationsSortantes.remove(a);
+            this.associations.retirer(a);
+        }
+
+        for (HeritageObjet h : s.parents)
+        {
+            this.autreExtremite(h.getClasseMere(), s).enfants.remove(h);
+            this.heritages.retirer(h);
+        }
+        for (HeritageObjet h : s.enfants)
+        {
+            this.autreExtremite(h.getClasseFille(), s).parents.remove(h);
+            this.heritages.retirer(h);
+        }
+
+        // Implémentations de la classe : elle disparaît de chacune de ses interfaces
+        for (InterfaceObjet i : s.implementations)
+        {
+            for (ClasseObjet iface : i.getLstInterfaces()) this.autreExtremite(iface, s).implementeurs.remove(i);
+            this.implementations.retirer(i);
+        }
+
+        // La classe était une interface : elle sort de la liste de chaque implémenteur
+        for (InterfaceObjet i : s.implementeurs)
+        {
+            i.getLstInterfaces().removeIf(iface -> iface == s.classe);
+            if (!i.getLstInterfaces().isEmpty()) continue;
+
+            this.autreExtremite(i.getClasseFille(), s).implementations.remove(i);
+            this.implementations.retirer(i);
+        }
+        return s.classe;
+    }
+
+    /**
+     * Oublie toutes les liaisons et garde les classes : les liaisons
+     * vivent alors dans un {@link GrapheCompact}.
+     */
+    public void viderLiaisons()
+    {
+        for (Sommet s : this.sommets)
+        {
+            if (s == null) continue;
+
+            for (ArrayList<?> l : List.of(s.associationsSortantes, s.associationsEntrantes, s.parents,
+                                          s.enfants, s.implementations, s.implementeurs))
+            {
+                l.clear();
+                l.trimToSize();
+            }
+        }
+        this.associations   .vider();
+        this.heritages      .vider();
+        this.implementations.vider();
+    }
+
+    /** Retire toutes les classes et liaisons ; les identifiants repartent de 0. */
+    public void vider()
+    {
+        this.sommets        .clear();
+        this.ids            .clear();
+        this.classesParNom  .clear();
+        this.classes        .vider();
+        this.associations   .vider();
+        this.heritages      .vider();
+        this.implementations.vider();
+    }
+
+    /*-------------------------------------- */
+    /* Outils                                */
+    /*-------------------------------------- */
+    private Sommet sommet(String nom)
+    {
+        Integer id = this.ids.get(nom);
+        return id == null ? null : this.sommets.get(id);
+    }
+
+    private Sommet sommet(ClasseObjet classe)
+    {
+        return this.sommet(classe.getNom());
+    }
+
+    /**
+     * Sommet de l'autre extrémité d'une liaison ; le sommet en cours de
+     * retrait quand la liaison est une boucle (déjà sorti de l'index).
+     */
+    private Sommet autreExtremite(ClasseObjet classe, Sommet retire)
+    {
+        Sommet s = this.sommet(classe);
+        return s == null ? retire : s;
+    }
+}
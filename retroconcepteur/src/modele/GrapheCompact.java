@@ -0,0 +1,453 @@
+package modele;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import modele.entites.AssociationObjet;
+import modele.entites.ClasseObjet;
+import modele.entites.HeritageObjet;
+import modele.entites.InterfaceObjet;
+import modele.entites.MultipliciteObjet;
+
+/**
+ * Graphe des classes en lignes creuses compressées (CSR), pour les très gros
+ * modèles : les arêtes partant de la classe d'identifiant {@code id} occupent
+ * les indices {@code debuts[id]} à {@code debuts[id + 1] - 1} des tableaux
+ * parallèles (cible, type). Un index inverse donne les arêtes entrantes.
+ * Les autres attributs sont rangés par rang dans la liste d'origine, et les
+ * multiplicités et décalages des rôles, très répétitifs, dans des tables de
+ * valeurs distinctes. Aucun objet n'est alloué par liaison.
+ *
+ * Les identifiants sont ceux du {@link GrapheClasses} d'origine. Une
+ * implémentation donne une arête par interface implémentée.
+ *
+ * Les liaisons ({@link AssociationObjet}, {@link HeritageObjet},
+ * {@link InterfaceObjet}) ne sont construites qu'à la demande, à chaque
+ * lecture des vues : une modification faite sur un objet obtenu ainsi n'est
+ * pas conservée.
+ */
+public class GrapheCompact
+{
+    // Type d'arête (2 bits bas) et options
+    public  static final byte ASSOCIATION      = 0;
+    public  static final byte HERITAGE         = 1;
+    public  static final byte IMPLEMENTATION   = 2;
+    private static final int  MASQUE_TYPE      = 0x03;
+    private static final int  BIDIRECTIONNELLE = 0x04;
+    private static final int  FIGEE            = 0x08;
+    private static final int  AJOUT_SEUL       = 0x10;
+    private static final int  REQUETE          = 0x20;
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private final ClasseObjet[] classes; // par identifiant, null une fois retirée
+    private int                 version; // incrémenté à chaque retrait
+
+    // Lignes creuses compressées : arêtes sortantes, puis index inverse
+    private final int[]  debuts         ;
+    private final int[]  cibles         ;
+    private final byte[] types          ;
+    private final int[]  debutsEntrants ;
+    private final int[]  aretesEntrantes;
+
+    // Ordre des listes d'origine : arêtes (associations, héritages), classes (implémentations)
+    private final int[] ordreAssociations   ;
+    private final int[] ordreHeritages      ;
+    private final int[] ordreImplementations;
+
+    // Attributs par rang dans la liste d'origine
+    private final int[]    numsAssociations   ;
+    private final int[]    numsHeritages      ;
+    private final int[]    numsImplementations;
+    private final int[]    multiplicites      ; // 2 par association : indices dans valeursMult, -1 si absente
+    private final int[]    decalages          ; // indice dans valeursDecalages
+    private final String[] nomsAttributs      ;
+    private final String[] rolesOrig          ;
+    private final String[] rolesDest          ;
+
+    // Valeurs distinctes : multiplicité (début, fin), décalages des deux rôles (4 × 16 bits)
+    private final long[] valeursMult     ;
+    private final long[] valeursDecalages;
+
+    private final List<AssociationObjet> vueAssociations   ;
+    private final List<HeritageObjet>    vueHeritages      ;
+    private final List<InterfaceObjet>   vueImplementations;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+
+    /**
+     * Copie les liaisons du graphe ; le graphe peut ensuite les oublier
+     * (voir {@link GrapheClasses#viderLiaisons()}).
+     */
+    public GrapheCompact(GrapheClasses graphe)
+    {
+        int n = graphe.getNbIds();
+        int m = graphe.getAssociations().size() + graphe.getHeritages().size();
+        for (InterfaceObjet i : graphe.getImplementations()) m += i.getLstInterfaces().size();
+
+        this.classes = new ClasseObjet[n];
+        for (int id = 0; id < n; id++) this.classes[id] = graphe.getClasse(id);
+
+        // Arêtes dans l'ordre des listes, rangées ensuite par origine (tri stable)
+        int[] origines = new int[m];
+        int[] rang     = new int[m];
+        int   e        = 0;
+
+        int   nbA      = graphe.getAssociations().size();
+
+        this.debuts           = new int[n + 1];
+        this.cibles           = new int[m];
+        this.types            = new byte[m];
+        this.numsAssociations = new int[nbA];
+        this.multiplicites    = new int[nbA * 2];
+        this.decalages        = new int[nbA];
+        this.nomsAttributs    = new String[nbA];
+        this.rolesOrig        = new String[nbA];
+        this.rolesDest        = new String[nbA];
+
+        for (AssociationObjet a : graphe.getAssociations())  origines[e++] = graphe.getId(a.getClasseFille().getNom());
+        for (HeritageObjet    h : graphe.getHeritages   ())  origines[e++] = graphe.getId(h.getClasseFille().getNom());
+        for (InterfaceObjet   i : graphe.getImplementations())
+            for (int k = 0; k < i.getLstInterfaces().size(); k++) origines[e++] = graphe.getId(i.getClasseFille().getNom());
+
+        for (int o : origines) this.debuts[o + 1]++;
+        for (int id = 0; id < n; id++) this.debuts[id + 1] += this.debuts[id];
+
+        int[] rempli = Arrays.copyOf(this.debuts, n);
+        for (e = 0; e < m; e++) rang[e] = rempli[origines[e]]++;
+
+        // Remplissage : cible et type à la place de chaque arête, le reste par rang
+        this.ordreAssociations = new int[nbA];
+        this.ordreHeritages    = new int[graphe.getHeritages().size()];
+        this.numsHeritages     = new int[this.ordreHeritages.length];
+        e = 0;
+
+        Map<Long, Integer> mults     = new HashMap<>();
+        Map<Long, Integer> decalages = new HashMap<>();
+
+        for (int k = 0; k < nbA; k++, e++)
+        {
+            AssociationObjet a = graphe.getAssociations().get(k);
+            int              p = rang[e];
+
+            this.ordreAssociations[k] = p;
+            this.cibles           [p] = graphe.getId(a.getClasseMere().getNom());
+            this.types            [p] = GrapheCompact.options(a);
+            this.numsAssociations [k] = a.getNum();
+            this.nomsAttributs    [k] = a.getNomAttribut();
+            this.rolesOrig        [k] = a.getRoleOrig();
+            this.rolesDest        [k] = a.getRoleDest();
+
+            this.multiplicites[k * 2    ] = GrapheCompact.indexer(mults, a.getMultOrig());
+            this.multiplicites[k * 2 + 1] = GrapheCompact.indexer(mults, a.getMultDest());
+            this.decalages    [k        ] = GrapheCompact.indexer(decalages, GrapheCompact.decalages(a));
+        }
+
+        this.valeursMult      = GrapheCompact.valeurs(mults    );
+        this.valeursDecalages = GrapheCompact.valeurs(decalages);
+
+        for (int k = 0; k < this.ordreHeritages.length; k++, e++)
+        {
+            HeritageObjet h = graphe.getHeritages().get(k);
+            int           p = rang[e];
+
+            this.ordreHeritages[k] = p;
+            this.numsHeritages [k] = h.getNum();
+            this.cibles        [p] = graphe.getId(h.getClasseMere().getNom());
+            this.types         [p] = GrapheCompact.HERITAGE;
+        }
+
+        List<InterfaceObjet> implementations = graphe.getImplementations();
+        this.ordreImplementations = new int[implementations.size()];
+        this.numsImplementations  = new int[implementations.size()];
+
+        for (int k = 0; k < implementations.size(); k++)
+        {
+            InterfaceObjet i = implementations.get(k);
+
+            this.ordreImplementations[k] = graphe.getId(i.getClasseFille().getNom());
+            this.numsImplementations [k] = i.getNum();
+
+            for (ClasseObjet iface : i.getLstInterfaces())
+            {
+                int p = rang[e++];
+                this.cibles[p] = graphe.getId(iface.getNom());
+                this.types [p] = GrapheCompact.IMPLEMENTATION;
+            }
+        }
+
+        // Index inverse : arêtes entrantes de chaque classe
+        this.debutsEntrants  = new int[n + 1];
+        this.aretesEntrantes = new int[m];
+
+        for (int c : this.cibles) this.debutsEntrants[c + 1]++;
+        for (int id = 0; id < n; id++) this.debutsEntrants[id + 1] += this.debutsEntrants[id];
+
+        rempli = Arrays.copyOf(this.debutsEntrants, n);
+        for (int p = 0; p < m; p++) this.aretesEntrantes[rempli[this.cibles[p]]++] = p;
+
+        this.vueAssociations    = new Vue<>(nbA,                    k -> this.relieVivantes(this.ordreAssociations[k]),
+                                            this::association);
+        this.vueHeritages       = new Vue<>(this.ordreHeritages.length, k -> this.relieVivantes(this.ordreHeritages[k]),
+                                            this::heritage);
+        this.vueImplementations = new Vue<>(implementations.size(), this::implementationVivante, this::implementation);
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+
+    /** Vues en lecture seule, dans l'ordre des listes d'origine ; objets construits à chaque lecture. */
+    public List<AssociationObjet> getAssociations   () { return this.vueAssociations   ; }
+    public List<HeritageObjet>    getHeritages      () { return this.vueHeritages      ; }
+    public List<InterfaceObjet>   getImplementations() { return this.vueImplementations; }
+
+    public int  getNbIds    ()      { return this.classes.length         ; }
+    public int  getNbAretes ()      { return this.cibles.length          ; }
+    public int  getDebut    (int id) { return this.debuts[id]            ; }
+    public int  getFin      (int id) { return this.debuts[id + 1]        ; }
+    public int  getCible    (int e)  { return this.cibles[e]             ; }
+    public byte getType     (int e)  { return (byte) (this.types[e] & MASQUE_TYPE); }
+
+    /** Classe d'identifiant donné, ou null si elle a été retirée. */
+    public ClasseObjet getClasse(int id) { return this.classes[id]; }
+
+    /** Classes reliées à la classe, dans les deux sens (doublons possibles). */
+    public int[] getVoisins(int id)
+    {
+        int[] voisins = new int[this.debuts[id + 1] - this.debuts[id] + this.debutsEntrants[id + 1] - this.debutsEntrants[id]];
+        int   nb      = 0;
+
+        for (int e = this.debuts[id]; e < this.debuts[id + 1]; e++)
+            if (this.classes[this.cibles[e]] != null) voisins[nb++] = this.cibles[e];
+
+        for (int k = this.debutsEntrants[id]; k < this.debutsEntrants[id + 1]; k++)
+        {
+            int o = this.origine(this.aretesEntrantes[k]);
+            if (this.classes[o] != null) voisins[nb++] = o;
+        }
+        return Arrays.copyOf(voisins, nb);
+    }
+
+    /** Sous-types directs : classes filles et classes qui implémentent l'interface. */
+    public int[] getSousTypes(int id)
+    {
+        int[] sousTypes = new int[this.debutsEntrants[id + 1] - this.debutsEntrants[id]];
+        int   nb        = 0;
+
+        for (int k = this.debutsEntrants[id]; k < this.debutsEntrants[id + 1]; k++)
+        {
+            int e = this.aretesEntrantes[k];
+            int o = this.origine(e);
+            if (this.getType(e) != GrapheCompact.ASSOCIATION && this.classes[o] != null) sousTypes[nb++] = o;
+        }
+        return Arrays.copyOf(sousTypes, nb);
+    }
+
+    /*-------------------------------------- */
+    /* Modification                          */
+    /*-------------------------------------- */
+
+    /**
+     * Retire la classe : ses arêtes disparaissent des vues (les listes des
+     * vues sont recalculées à la lecture suivante).
+     */
+    public void retirerClasse(int id)
+    {
+        if (id < 0 || this.classes[id] == null) return;
+
+        this.classes[id] = null;
+        this.version++;
+    }
+
+    /*-------------------------------------- */
+    /* Construction des liaisons à la demande */
+    /*-------------------------------------- */
+    /** @param k rang de l'association dans la liste d'origine */
+    private AssociationObjet association(int k)
+    {
+        int  e = this.ordreAssociations[k];
+        int  t = this.types[e];
+        long d = this.valeursDecalages[this.decalages[k]];
+
+        AssociationObjet a = new AssociationObjet(this.classes[this.cibles[e]], this.classes[this.origine(e)],
+                                                  this.multiplicite(this.multiplicites[k * 2 + 1]),
+                                                  this.multiplicite(this.multiplicites[k * 2    ]),
+                                                  this.nomsAttributs[k], (t & BIDIRECTIONNELLE) == 0);
+        a.setNum     (this.numsAssociations[k]);
+        a.setRoleOrig(this.rolesOrig[k]);
+        a.setRoleDest(this.rolesDest[k]);
+        a.setFrozen  ((t & FIGEE     ) != 0);
+        a.setAddOnly ((t & AJOUT_SEUL) != 0);
+        a.setRequete ((t & REQUETE   ) != 0);
+        a.setRoleOrigOffsetAlong((short) (d >>> 48));
+        a.setRoleOrigOffsetPerp ((short) (d >>> 32));
+        a.setRoleDestOffsetAlong((short) (d >>> 16));
+        a.setRoleDestOffsetPerp ((short)  d        );
+        return a;
+    }
+
+    /** @param k rang de l'héritage dans la liste d'origine */
+    private HeritageObjet heritage(int k)
+    {
+        int           e = this.ordreHeritages[k];
+        HeritageObjet h = new HeritageObjet(this.classes[this.origine(e)], this.classes[this.cibles[e]]);
+        h.setNum(this.numsHeritages[k]);
+        return h;
+    }
+
+    private MultipliciteObjet multiplicite(int indice)
+    {
+        if (indice < 0) return null;
+
+        long v = this.valeursMult[indice];
+        return new MultipliciteObjet((int) (v >>> 32), (int) v);
+    }
+
+    /** @param k rang de l'implémentation dans la liste d'origine */
+    private InterfaceObjet implementation(int k)
+    {
+        int            id = this.ordreImplementations[k];
+        InterfaceObjet i  = new InterfaceObjet(this.classes[id]);
+
+        for (int e = this.debuts[id]; e < this.debuts[id + 1]; e++)
+        {
+            if (this.getType(e) == GrapheCompact.IMPLEMENTATION) i.ajouterInterface(this.classes[this.cibles[e]]);
+        }
+        i.setNum(this.numsImplementations[k]);
+        return i;
+    }
+
+    private boolean relieVivantes(int e)
+    {
+        return this.classes[this.origine(e)] != null && this.classes[this.cibles[e]] != null;
+    }
+
+    /**
+     * Une implémentation disparaît avec sa classe, ou quand toutes ses
+     * interfaces ont été retirées (comme dans {@link GrapheClasses}).
+     */
+    private boolean implementationVivante(int k)
+    {
+        int id = this.ordreImplementations[k];
+        if (this.classes[id] == null) return false;
+
+        boolean aucune = true;
+        for (int e = this.debuts[id]; e < this.debuts[id + 1]; e++)
+        {
+            if (this.getType(e) != GrapheCompact.IMPLEMENTATION) continue;
+            if (this.classes[this.cibles[e]] != null) return true;
+            aucune = false;
+        }
+        return aucune;
+    }
+
+    /*-------------------------------------- */
+    /* Outils                                */
+    /*-------------------------------------- */
+
+    /**
+     * Vue en lecture seule sur une liste d'origine : seuls les éléments
+     * vivants y figurent, recalculés après un retrait.
+     */
+    private final class Vue<T> extends AbstractList<T>
+    {
+        private final int            nb      ;
+        private final IntPredicate   vivant  ;
+        private final IntFunction<T> fabrique;
+        private int[]                vivants ; // rangs vivants, null tant qu'aucun retrait
+        private int                  version ;
+
+        private Vue(int nb, IntPredicate vivant, IntFunction<T> fabrique)
+        {
+            this.nb       = nb      ;
+            this.vivant   = vivant  ;
+            this.fabrique = fabrique;
+        }
+
+        private int[] vivants()
+        {
+            if (this.version != GrapheCompact.this.version)
+            {
+                this.vivants = IntStream.range(0, this.nb).filter(this.vivant).toArray();
+                this.version = GrapheCompact.this.version;
+            }
+            return this.vivants;
+        }
+
+        @Override
+        public T get(int i)
+        {
+            int[] vivants = this.vivants();
+            if (vivants == null) Objects.checkIndex(i, this.nb);
+
+            return this.fabrique.apply(vivants == null ? i : vivants[i]);
+        }
+
+        @Override
+        public int size()
+        {
+            int[] vivants = this.vivants();
+            return vivants == null ? this.nb : vivants.length;
+        }
+    }
+
+    /** Origine d'une arête : la classe dont la plage de debuts la contient. */
+    private int origine(int e)
+    {
+        int bas = 0, haut = this.classes.length - 1;
+
+        while (bas < haut)
+        {
+            int milieu = (bas + haut + 1) >>> 1;
+            if (this.debuts[milieu] <= e) bas  = milieu;
+            else                          haut = milieu - 1;
+        }
+        return bas;
+    }
+
+    private static byte options(AssociationObjet a)
+    {
+        int t = GrapheCompact.ASSOCIATION;
+
+        if (!a.getUnidirectionnel()) t |= BIDIRECTIONNELLE;
+        if (a.isFrozen          ()) t |= FIGEE;
+        if (a.isAddOnly         ()) t |= AJOUT_SEUL;
+        if (a.isRequete         ()) t |= REQUETE;
+        return (byte) t;
+    }
+
+    private static int indexer(Map<Long, Integer> table, MultipliciteObjet m)
+    {
+        if (m == null) return -1;
+        return GrapheCompact.indexer(table, (long) m.getDebut() << 32 | (m.getFin() & 0xFFFFFFFFL));
+    }
+
+    private static int indexer(Map<Long, Integer> table, long valeur)
+    {
+        return table.computeIfAbsent(valeur, v -> table.size());
+    }
+
+    private static long decalages(AssociationObjet a)
+    {
+        return (a.getRoleOrigOffsetAlong() & 0xFFFFL) << 48 | (a.getRoleOrigOffsetPerp() & 0xFFFFL) << 32
+             | (a.getRoleDestOffsetAlong() & 0xFFFFL) << 16 | (a.getRoleDestOffsetPerp() & 0xFFFFL);
+    }
+
+    private static long[] valeurs(Map<Long, Integer> table)
+    {
+        long[] valeurs = new long[table.size()];
+        table.forEach((v, indice) -> valeurs[indice] = v);
+        return valeurs;
+    }
+}
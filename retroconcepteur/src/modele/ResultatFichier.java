@@ -0,0 +1,46 @@
+package modele;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import modele.entites.ClasseObjet;
+
+/**
+ * Résultat de l'analyse d'un unique fichier Java.
+ *
+ * Contient la classe racine du fichier ainsi que les intentions d'héritage
+ * (extends) et d'implémentation (implements) qu'il déclare. Un résultat est
+ * produit indépendamment des autres fichiers : il peut donc être calculé
+ * sur n'importe quel thread puis fusionné dans l'analyseur.
+ */
+public class ResultatFichier
+{
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private ClasseObjet                              classe            ;
+    private LinkedHashMap<String, String           > intentionsHeritage;
+    private LinkedHashMap<String, ArrayList<String>> interfaces        ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public ResultatFichier()
+    {
+        this.classe             = null;
+        this.intentionsHeritage = new LinkedHashMap<String, String           >();
+        this.interfaces         = new LinkedHashMap<String, ArrayList<String>>();
+    }
+
+    /*-------------------------------------- */
+    /* Les Accesseurs                        */
+    /*-------------------------------------- */
+    public ClasseObjet                              getClasse            () { return this.classe            ; }
+    public LinkedHashMap<String, String           > getIntentionsHeritage() { return this.intentionsHeritage; }
+    public LinkedHashMap<String, ArrayList<String>> getInterfaces        () { return this.interfaces        ; }
+
+    /*-------------------------------------- */
+    /* Les Modificateurs                     */
+    /*-------------------------------------- */
+    public void setClasse(ClasseObjet classe) { this.classe = classe; }
+}
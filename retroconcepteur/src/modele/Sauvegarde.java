@@ -2,6 +2,7 @@ package modele;
 
 import java.io.*;
 import java.util.*;
+import modele.outil.ExplorateurSources;
 
 /**
  * Classe pour sauvegarder des classes en UML
@@ -30,8 +31,8 @@ public class Sauvegarde
 
             FileWriter writer = new FileWriter(outFile);
             
-            // Trouver tous les fichiers .java DANS LE dossier fournis UNIQUEMENT
-            List<File> fichiers = trouverFichiers(dossierFile);
+            // Trouver tous les fichiers .java du dossier et de ses sous-dossiers
+            List<File> fichiers = new ExplorateurSources().lister(dossierFile);
             
             writer.write("=== DIAGRAMME UML ===\n\n");
             
@@ -86,29 +87,6 @@ public class Sauvegarde
         }catch (Exception e){  System.out.println("Erreur : " + e.getMessage()); }
     }
     
-    /**
-     * Trouve les fichiers .java
-     */
-    private static List<File> trouverFichiers(File dossier)
-    {
-        List<File> fichiers = new ArrayList<>();
-        
-        File[] files = dossier.listFiles();
-
-        if (files != null)
-        {
-            for (File f : files)
-            {
-                if (f.isDirectory())
-                    fichiers.addAll(trouverFichiers(f));
-
-                else if (f.getName().endsWith(".java"))
-                    fichiers.add(f);
-            }
-        }
-        return fichiers;
-    }
-    
     /**
      * Test
      */
@@ -0,0 +1,219 @@
+package modele;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import modele.outil.ExplorateurSources;
+
+/**
+ * Surveille les fichiers sources d'un projet avec un {@link WatchService}.
+ *
+ * Chaque sous-dossier retenu par l'{@link ExplorateurSources} est
+ * enregistré, y compris ceux créés pendant la surveillance.
+ * Les événements sont regroupés : l'écouteur n'est prévenu qu'après
+ * {@link #DELAI_REGROUPEMENT} ms sans nouvelle modification, avec la liste
+ * des fichiers modifiés ou créés et celle des fichiers supprimés.
+ * L'écouteur est appelé depuis le thread de surveillance.
+ */
+public class SurveillantProjet implements Runnable
+{
+    /**
+     * Reçoit les lots de modifications du projet.
+     */
+    public interface Ecouteur
+    {
+        /**
+         * @param modifies  fichiers modifiés ou créés, ou null si des événements
+         *                  ont été perdus (le projet doit alors être réanalysé)
+         * @param supprimes fichiers supprimés
+         */
+        void projetModifie(List<File> modifies, List<File> supprimes);
+    }
+
+    private static final long DELAI_REGROUPEMENT = 300; // ms
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private File               dossier    ;
+    private ExplorateurSources explorateur;
+    private Ecouteur           ecouteur   ;
+    private WatchService       service    ;
+    private Set<Path>          surveilles ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public SurveillantProjet(File dossier, ExplorateurSources explorateur, Ecouteur ecouteur)
+    {
+        this.dossier     = dossier    ;
+        this.explorateur = explorateur;
+        this.ecouteur    = ecouteur   ;
+        this.surveilles  = new HashSet<Path>();
+    }
+
+    /*-------------------------------------- */
+    /* Méthodes                              */
+    /*-------------------------------------- */
+
+    /**
+     * Démarre la surveillance sur un thread démon.
+     */
+    public void demarrer() throws IOException
+    {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.enregistrer(this.dossier.toPath());
+
+        Thread thread = new Thread(this, "surveillance-" + this.dossier.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Arrête la surveillance. Les modifications en attente sont abandonnées.
+     */
+    public void arreter()
+    {
+        if (this.service == null) return;
+
+        try
+        {
+            this.service.close();
+        }
+        catch (IOException e)
+        {
+            // Service déjà fermé
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        TreeSet<Path> enAttente = new TreeSet<>();
+        boolean       perdus    = false;
+
+        try
+        {
+            while (true)
+            {
+                // Sans rien en attente on bloque ; sinon on attend un silence de DELAI_REGROUPEMENT
+                WatchKey cle = (enAttente.isEmpty() && !perdus)
+                             ? this.service.take()
+                             : this.service.poll(SurveillantProjet.DELAI_REGROUPEMENT, TimeUnit.MILLISECONDS);
+
+                if (cle == null)
+                {
+                    this.publier(enAttente, perdus);
+                    enAttente.clear();
+                    perdus = false;
+                    continue;
+                }
+
+                Path base = (Path) cle.watchable();
+
+                for (WatchEvent<?> evenement : cle.pollEvents())
+                {
+                    if (evenement.kind() == StandardWatchEventKinds.OVERFLOW)
+                    {
+                        perdus = true;
+                        continue;
+                    }
+
+                    Path   racine = this.dossier.toPath();
+                    Path   chemin = base.resolve((Path) evenement.context());
+                    Object type   = evenement.kind();
+
+                    if (type == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(chemin))
+                    {
+                        // Nouveau dossier (créé ou déplacé) : surveillé, et ses sources déjà présentes prises en compte
+                        if (this.explorateur.estExclu(racine, chemin)) continue;
+
+                        this.enregistrer(chemin);
+                        this.explorateur.parcourir(racine, chemin, f -> enAttente.add(f.toPath()));
+                    }
+                    else if (type == StandardWatchEventKinds.ENTRY_DELETE && this.surveilles.remove(chemin))
+                    {
+                        // Dossier surveillé disparu : ses fichiers ne sont pas connus ici
+                        perdus = true;
+                    }
+                    else if (this.explorateur.accepte(racine, chemin))
+                    {
+                        enAttente.add(chemin);
+                    }
+                }
+                cle.reset();
+            }
+        }
+        catch (IOException e)
+        {
+            // Enregistrement d'un nouveau dossier impossible : le projet n'est plus suivi fidèlement
+            this.ecouteur.projetModifie(null, new ArrayList<>());
+        }
+        catch (InterruptedException | ClosedWatchServiceException e)
+        {
+            // Fin de la surveillance
+        }
+    }
+
+    /**
+     * Enregistre un dossier et ses sous-dossiers non exclus auprès du service.
+     * Chaque dossier est enregistré avant la lecture de son contenu : un
+     * sous-dossier créé pendant le parcours est vu soit par le parcours, soit
+     * par un événement.
+     */
+    private void enregistrer(Path depart) throws IOException
+    {
+        List<IOException> erreurs = new ArrayList<>();
+
+        this.explorateur.parcourirDossiers(this.dossier.toPath(), depart, d ->
+        {
+            try
+            {
+                d.register(this.service, StandardWatchEventKinds.ENTRY_CREATE,
+                                         StandardWatchEventKinds.ENTRY_MODIFY,
+                                         StandardWatchEventKinds.ENTRY_DELETE);
+                this.surveilles.add(d);
+            }
+            catch (IOException e)
+            {
+                erreurs.add(e);
+            }
+        });
+
+        if (!erreurs.isEmpty()) throw erreurs.get(0);
+    }
+
+    private void publier(TreeSet<Path> chemins, boolean perdus)
+    {
+        if (perdus)
+        {
+            this.ecouteur.projetModifie(null, new ArrayList<>());
+            return;
+        }
+
+        List<File> modifies  = new ArrayList<>();
+        List<File> supprimes = new ArrayList<>();
+
+        for (Path p : chemins)
+        {
+            if (Files.isRegularFile(p)) modifies .add(p.toFile());
+            else                        supprimes.add(p.toFile());
+        }
+
+        if (!modifies.isEmpty() || !supprimes.isEmpty()) this.ecouteur.projetModifie(modifies, supprimes);
+    }
+}
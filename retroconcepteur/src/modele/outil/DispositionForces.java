@@ -0,0 +1,509 @@
+package modele.outil;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import modele.entites.ClasseObjet;
+import vue.LiaisonVue;
+
+/**
+ * Disposition par forces, pour les projets où les associations dominent et
+ * où la disposition en couches donne une seule couche très large.
+ *
+ * Les liaisons agissent comme des ressorts et toutes les classes se
+ * repoussent ; la répulsion est approchée par un arbre de quadrants
+ * (Barnes-Hut), d'où un coût en O(n log n) par itération. Les forces de
+ * chaque classe sont calculées en parallèle (l'arbre n'est que lu), les
+ * positions et vitesses sont des tableaux de doubles. La simulation
+ * s'arrête à convergence ou à l'échéance du budget de temps ; les blocs
+ * sont ensuite rangés sur une grille, sans chevauchement.
+ */
+public class DispositionForces
+{
+    // Constantes de la simulation
+    public  static final long   BUDGET_DEFAUT_MS  = 2000;
+    private static final int    LARGEUR_DEFAUT    = 200 ;
+    private static final int    HAUTEUR_DEFAUT    = 140 ;
+    private static final int    ECART             = 60  ;
+    private static final int    MARGE_X           = 80  ;
+    private static final int    MARGE_Y           = 60  ;
+    private static final int    ITERATIONS_MAX    = 400 ;
+    private static final int    SEUIL_PARALLELE   = 256 ;  // en dessous, le découpage coûte plus qu'il ne rapporte
+    private static final int    PROFONDEUR_MAX    = 32  ;
+    private static final double THETA             = 0.8 ;  // précision de Barnes-Hut (0 : calcul exact)
+    private static final double GRAVITE           = 2.0 ;
+    private static final double AMORTISSEMENT     = 0.6 ;
+    private static final double REFROIDISSEMENT   = 0.95;
+
+    /**
+     * Calcule la map des positions (coin haut gauche de chaque bloc).
+     *
+     * @param tailles  taille des blocs par nom de classe, peut être null
+     * @param budgetMs durée maximale de la simulation, en millisecondes
+     * @param rapport  rempli avec les mesures de la disposition, peut être null
+     */
+    public static Map<String, Point> calculerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons,
+                                                       Map<String, Dimension> tailles, long budgetMs,
+                                                       RapportDisposition rapport)
+    {
+        if (classes == null || classes.isEmpty()) return new HashMap<>();
+
+        long debut    = System.nanoTime();
+        long echeance = debut + budgetMs * 1_000_000L;
+
+        // 1. Indices, tailles et voisins
+        Map<String, Integer> indices = new HashMap<>();
+        String[]             noms    = new String[classes.size()];
+        int                  n       = 0;
+
+        for (ClasseObjet c : classes)
+        {
+            if (indices.containsKey(c.getNom())) continue;
+            indices.put(c.getNom(), n);
+            noms[n++] = c.getNom();
+        }
+
+        int[]   largeur = new int[n];
+        int[]   hauteur = new int[n];
+        double  cote    = 0;
+
+        for (int v = 0; v < n; v++)
+        {
+            Dimension d = tailles != null ? tailles.get(noms[v]) : null;
+            largeur[v] = d != null ? d.width  : DispositionForces.LARGEUR_DEFAUT;
+            hauteur[v] = d != null ? d.height : DispositionForces.HAUTEUR_DEFAUT;
+            cote      += Math.max(largeur[v], hauteur[v]);
+        }
+
+        int[][] voisins  = construireVoisins(indices, liaisons, n);
+        double  longueur = cote / n + DispositionForces.ECART;  // longueur idéale d'une liaison
+
+        // 2. Simulation
+        double[] x  = new double[n];
+        double[] y  = new double[n];
+        double[] vx = new double[n];
+        double[] vy = new double[n];
+        double[] fx = new double[n];
+        double[] fy = new double[n];
+
+        // Départ en spirale (angle d'or) : déterministe et sans points confondus
+        for (int v = 0; v < n; v++)
+        {
+            double rayon = longueur * Math.sqrt(v);
+            double angle = v * 2.399963229728653;
+            x[v] = rayon * Math.cos(angle);
+            y[v] = rayon * Math.sin(angle);
+        }
+
+        double temperature = longueur * 4;  // déplacement maximal par itération, décroissant
+        int    iter        = 0;
+
+        for (; iter < DispositionForces.ITERATIONS_MAX && System.nanoTime() < echeance; iter++)
+        {
+            ArbreQuadrants arbre = new ArbreQuadrants(x, y);
+            double         k2    = longueur * longueur;
+
+            IntStream indicesCalcul = IntStream.range(0, n);
+            if (n >= DispositionForces.SEUIL_PARALLELE) indicesCalcul = indicesCalcul.parallel();
+
+            indicesCalcul.forEach(v ->
+            {
+                double[] f = arbre.repulsion(v, k2);
+
+                // Ressorts le long des liaisons
+                for (int u : voisins[v])
+                {
+                    double dx = x[u] - x[v];
+                    double dy = y[u] - y[v];
+                    double d  = Math.sqrt(dx * dx + dy * dy);
+                    f[0] += dx * d / longueur;
+                    f[1] += dy * d / longueur;
+                }
+
+                // Légère attraction vers l'origine : les composantes isolées restent groupées
+                fx[v] = f[0] - x[v] * DispositionForces.GRAVITE;
+                fy[v] = f[1] - y[v] * DispositionForces.GRAVITE;
+            });
+
+            double deplacementMax = 0;
+
+            for (int v = 0; v < n; v++)
+            {
+                vx[v] = (vx[v] + fx[v] / longueur) * DispositionForces.AMORTISSEMENT;
+                vy[v] = (vy[v] + fy[v] / longueur) * DispositionForces.AMORTISSEMENT;
+
+                double vitesse = Math.sqrt(vx[v] * vx[v] + vy[v] * vy[v]);
+                if (vitesse > temperature)
+                {
+                    vx[v]   *= temperature / vitesse;
+                    vy[v]   *= temperature / vitesse;
+                    vitesse  = temperature;
+                }
+
+                x[v] += vx[v];
+                y[v] += vy[v];
+                deplacementMax = Math.max(deplacementMax, vitesse);
+            }
+
+            temperature *= DispositionForces.REFROIDISSEMENT;
+            if (deplacementMax < 0.5) { iter++; break; }
+        }
+
+        long finSimulation = System.nanoTime();
+
+        // 3. Ranger les blocs sans chevauchement, puis convertir en coins haut gauche
+        dilater(x, y, largeur, hauteur);
+        placerSurGrille(x, y, largeur, hauteur);
+
+        double gauche = Double.MAX_VALUE, haut = Double.MAX_VALUE;
+        for (int v = 0; v < n; v++)
+        {
+            gauche = Math.min(gauche, x[v] - largeur[v] / 2.0);
+            haut   = Math.min(haut  , y[v] - hauteur[v] / 2.0);
+        }
+
+        Map<String, Point> positions = new HashMap<>();
+        int[]              xs        = new int[n];
+        int[]              ys        = new int[n];
+
+        for (int v = 0; v < n; v++)
+        {
+            xs[v] = DispositionForces.MARGE_X + (int) Math.round(x[v] - largeur[v] / 2.0 - gauche);
+            ys[v] = DispositionForces.MARGE_Y + (int) Math.round(y[v] - hauteur[v] / 2.0 - haut  );
+            positions.put(noms[v], new Point(xs[v], ys[v]));
+        }
+
+        if (rapport != null)
+        {
+            rapport.setMoteur          (DispositionOptimiseur.Moteur.FORCES);
+            rapport.setNbClasses       (n);
+            rapport.setNbIterations    (iter);
+            rapport.setDureeOrdre      (finSimulation - debut);
+            rapport.setDureeCoordonnees(System.nanoTime() - finSimulation);
+            DispositionOptimiseur.mesurer(voisins, xs, ys, largeur, hauteur, rapport);
+        }
+        return positions;
+    }
+
+    private static int[][] construireVoisins(Map<String, Integer> indices, List<LiaisonVue> liaisons, int n)
+    {
+        int[] nbVoisins = new int[n];
+        int[] aretes    = new int[liaisons.size() * 2];
+        int   nbAretes  = 0;
+
+        for (LiaisonVue lv : liaisons)
+        {
+            Integer a = indices.get(lv.getNomClasseOrig());
+            Integer b = indices.get(lv.getNomClasseDest());
+            if (a == null || b == null || a.equals(b)) continue;
+
+            aretes[nbAretes++] = a;
+            aretes[nbAretes++] = b;
+            nbVoisins[a]++;
+            nbVoisins[b]++;
+        }
+
+        int[][] voisins = new int[n][];
+        for (int v = 0; v < n; v++) voisins[v] = new int[nbVoisins[v]];
+
+        Arrays.fill(nbVoisins, 0);
+        for (int e = 0; e < nbAretes; e += 2)
+        {
+            int a = aretes[e], b = aretes[e + 1];
+            voisins[a][nbVoisins[a]++] = b;
+            voisins[b][nbVoisins[b]++] = a;
+        }
+        return voisins;
+    }
+
+    /**
+     * Agrandit uniformément le dessin quand son cœur est trop dense : la
+     * moitié des blocs la plus proche du centre doit tenir, écarts compris,
+     * dans le disque qui les contient. Le rangement sur la grille n'a plus
+     * alors qu'à régler des conflits locaux.
+     */
+    private static void dilater(double[] x, double[] y, int[] largeur, int[] hauteur)
+    {
+        int    n      = x.length;
+        double besoin = 0, cx = 0, cy = 0;
+
+        for (int v = 0; v < n; v++)
+        {
+            besoin += (double) (largeur[v] + DispositionForces.ECART) * (hauteur[v] + DispositionForces.ECART);
+            cx     += x[v];
+            cy     += y[v];
+        }
+        cx /= n;  cy /= n;
+
+        double[] distances = new double[n];
+        for (int v = 0; v < n; v++) distances[v] = Math.hypot(x[v] - cx, y[v] - cy);
+        Arrays.sort(distances);
+
+        double rayon      = distances[n / 2];
+        double disponible = Math.PI * rayon * rayon;
+        if (disponible <= 0 || besoin / 2 <= disponible) return;
+
+        double facteur = Math.sqrt(besoin / 2 / disponible);
+        for (int v = 0; v < n; v++)
+        {
+            x[v] = cx + (x[v] - cx) * facteur;
+            y[v] = cy + (y[v] - cy) * facteur;
+        }
+    }
+
+    /**
+     * Range les blocs sur une grille dont la maille est la taille moyenne d'un
+     * bloc (écart compris) : en partant du centre, chaque bloc prend la place
+     * libre la plus proche de sa position, un grand bloc occupant plusieurs
+     * mailles. Aucun chevauchement ne subsiste et le voisinage obtenu par la
+     * simulation est conservé.
+     */
+    private static void placerSurGrille(double[] x, double[] y, int[] largeur, int[] hauteur)
+    {
+        int    n       = x.length;
+        double mailleX = 0, mailleY = 0, cx = 0, cy = 0;
+
+        for (int v = 0; v < n; v++)
+        {
+            mailleX += largeur[v] + DispositionForces.ECART;
+            mailleY += hauteur[v] + DispositionForces.ECART;
+            cx      += x[v];
+            cy      += y[v];
+        }
+        mailleX /= n;  mailleY /= n;  cx /= n;  cy /= n;
+
+        double    ox = cx, oy = cy, mx = mailleX, my = mailleY;
+        Integer[] ordre = new Integer[n];
+        for (int v = 0; v < n; v++) ordre[v] = v;
+        Arrays.sort(ordre, Comparator.comparingDouble(v -> Math.hypot(x[v] - ox, y[v] - oy)));
+
+        Set<Long> occupees = new HashSet<>();
+
+        for (int v : ordre)
+        {
+            int    nbX = (int) Math.ceil((largeur[v] + DispositionForces.ECART) / mailleX);
+            int    nbY = (int) Math.ceil((hauteur[v] + DispositionForces.ECART) / mailleY);
+            double sx  = (x[v] - cx) / mailleX - nbX / 2.0;  // coin souhaité, en mailles
+            double sy  = (y[v] - cy) / mailleY - nbY / 2.0;
+            int    c0  = (int) Math.round(sx);
+            int    l0  = (int) Math.round(sy);
+
+            // Anneaux de plus en plus larges autour de la maille souhaitée : seul
+            // le bord de chaque anneau est parcouru (lignes du haut et du bas en
+            // entier, deux mailles pour les autres)
+            int    meilleurC = 0, meilleurL = 0;
+            double meilleure = Double.MAX_VALUE;
+
+            for (int rayon = 0; meilleure == Double.MAX_VALUE; rayon++)
+            {
+                for (int dl = -rayon; dl <= rayon; dl++)
+                {
+                    int pasC = Math.abs(dl) == rayon ? 1 : 2 * rayon;
+
+                    for (int dc = -rayon; dc <= rayon; dc += Math.max(1, pasC))
+                    {
+                        if (!libre(occupees, c0 + dc, l0 + dl, nbX, nbY)) continue;
+
+                        double distance = Math.hypot(c0 + dc - sx, l0 + dl - sy);
+                        if (distance < meilleure)
+                        {
+                            meilleure = distance;
+                            meilleurC = c0 + dc;
+                            meilleurL = l0 + dl;
+                        }
+                    }
+                }
+            }
+
+            for (int l = 0; l < nbY; l++)
+                for (int c = 0; c < nbX; c++) occupees.add(maille(meilleurC + c, meilleurL + l));
+
+            x[v] = cx + (meilleurC + nbX / 2.0) * mailleX;
+            y[v] = cy + (meilleurL + nbY / 2.0) * mailleY;
+        }
+    }
+
+    private static boolean libre(Set<Long> occupees, int c0, int l0, int nbX, int nbY)
+    {
+        for (int l = 0; l < nbY; l++)
+            for (int c = 0; c < nbX; c++) if (occupees.contains(maille(c0 + c, l0 + l))) return false;
+        return true;
+    }
+
+    private static long maille(int c, int l)
+    {
+        return ((long) c << 32) ^ (l & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Arbre de quadrants en tableaux : chaque nœud connaît sa masse (nombre
+     * de classes), son centre de masse, la taille de son carré et ses
+     * enfants ; une feuille couvre une plage de l'index des classes, réordonné
+     * à la construction par partitions successives.
+     */
+    private static final class ArbreQuadrants
+    {
+        private final double[] x, y;
+        private final int[]    index;
+
+        private double[] masse   , centreX, centreY, taille;
+        private int[]    enfants ;  // 4 par nœud, -1 si vide
+        private int[]    debut   , fin;  // plage de index (feuilles)
+        private int      nbNoeuds;
+
+        private ArbreQuadrants(double[] x, double[] y)
+        {
+            int n = x.length;
+
+            this.x     = x;
+            this.y     = y;
+            this.index = new int[n];
+            for (int v = 0; v < n; v++) this.index[v] = v;
+
+            int capacite = Math.max(16, 2 * n);
+            this.masse   = new double[capacite];
+            this.centreX = new double[capacite];
+            this.centreY = new double[capacite];
+            this.taille  = new double[capacite];
+            this.debut   = new int   [capacite];
+            this.fin     = new int   [capacite];
+            this.enfants = new int   [capacite * 4];
+
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int v = 0; v < n; v++)
+            {
+                minX = Math.min(minX, x[v]);  maxX = Math.max(maxX, x[v]);
+                minY = Math.min(minY, y[v]);  maxY = Math.max(maxY, y[v]);
+            }
+
+            this.construire(0, n, minX, minY, Math.max(maxX - minX, maxY - minY) + 1, 0);
+        }
+
+        private int construire(int deb, int fn, double x0, double y0, double cote, int profondeur)
+        {
+            int noeud = this.nbNoeuds++;
+            if (noeud == this.masse.length) this.agrandir();
+
+            this.taille [noeud] = cote;
+            this.debut  [noeud] = deb;
+            this.fin    [noeud] = fn;
+            Arrays.fill(this.enfants, noeud * 4, noeud * 4 + 4, -1);
+
+            double sx = 0, sy = 0;
+            for (int i = deb; i < fn; i++) { sx += this.x[this.index[i]]; sy += this.y[this.index[i]]; }
+
+            this.masse  [noeud] = fn - deb;
+            this.centreX[noeud] = sx / (fn - deb);
+            this.centreY[noeud] = sy / (fn - deb);
+
+            if (fn - deb <= 1 || profondeur == DispositionForces.PROFONDEUR_MAX) return noeud;
+
+            // Partition en quatre : d'abord selon y, puis chaque moitié selon x
+            double mx = x0 + cote / 2, my = y0 + cote / 2;
+            int    milieu = this.partitionner(deb   , fn, my, false);
+            int    haut   = this.partitionner(deb   , milieu, mx, true);
+            int    bas    = this.partitionner(milieu, fn    , mx, true);
+
+            int[] bornes = { deb, haut, milieu, bas, fn };
+            for (int q = 0; q < 4; q++)
+            {
+                if (bornes[q] == bornes[q + 1]) continue;
+
+                double qx = (q % 2 == 0) ? x0 : mx;
+                double qy = (q < 2     ) ? y0 : my;
+                int enfant = this.construire(bornes[q], bornes[q + 1], qx, qy, cote / 2, profondeur + 1);
+                this.enfants[noeud * 4 + q] = enfant;
+            }
+            this.debut[noeud] = this.fin[noeud] = -1;
+            return noeud;
+        }
+
+        /** Place en tête de la plage les classes sous le seuil ; renvoie la frontière. */
+        private int partitionner(int deb, int fn, double seuil, boolean selonX)
+        {
+            int i = deb, j = fn - 1;
+
+            while (i <= j)
+            {
+                int    v = this.index[i];
+                double c = selonX ? this.x[v] : this.y[v];
+
+                if (c < seuil) { i++; continue; }
+
+                this.index[i] = this.index[j];
+                this.index[j] = v;
+                j--;
+            }
+            return i;
+        }
+
+        private void agrandir()
+        {
+            int capacite = this.masse.length * 2;
+            this.masse   = Arrays.copyOf(this.masse  , capacite);
+            this.centreX = Arrays.copyOf(this.centreX, capacite);
+            this.centreY = Arrays.copyOf(this.centreY, capacite);
+            this.taille  = Arrays.copyOf(this.taille , capacite);
+            this.debut   = Arrays.copyOf(this.debut  , capacite);
+            this.fin     = Arrays.copyOf(this.fin    , capacite);
+            this.enfants = Arrays.copyOf(this.enfants, capacite * 4);
+        }
+
+        /**
+         * Répulsion subie par la classe v (k² / d) : un nœud assez petit vu
+         * de v compte comme une seule masse en son centre.
+         */
+        private double[] repulsion(int v, double k2)
+        {
+            double[] f    = new double[2];
+            int[]    pile = new int[3 * DispositionForces.PROFONDEUR_MAX + 4];
+            int      nb   = 0;
+            double   xv   = this.x[v], yv = this.y[v];
+
+            pile[nb++] = 0;
+            while (nb > 0)
+            {
+                int    noeud = pile[--nb];
+                double dx    = this.centreX[noeud] - xv;
+                double dy    = this.centreY[noeud] - yv;
+                double d2    = dx * dx + dy * dy;
+
+                if (this.debut[noeud] >= 0)
+                {
+                    // Feuille : calcul exact, points confondus écartés selon leur indice
+                    for (int i = this.debut[noeud]; i < this.fin[noeud]; i++)
+                    {
+                        int u = this.index[i];
+                        if (u == v) continue;
+
+                        double ex = this.x[u] - xv, ey = this.y[u] - yv;
+                        double e2 = ex * ex + ey * ey;
+                        if (e2 < 1e-6) { ex = u < v ? -1 : 1; ey = 0; e2 = 1; }
+
+                        f[0] -= k2 * ex / e2;
+                        f[1] -= k2 * ey / e2;
+                    }
+                }
+                else if (this.taille[noeud] * this.taille[noeud] < DispositionForces.THETA * DispositionForces.THETA * d2)
+                {
+                    f[0] -= this.masse[noeud] * k2 * dx / d2;
+                    f[1] -= this.masse[noeud] * k2 * dy / d2;
+                }
+                else
+                {
+                    for (int q = 0; q < 4; q++)
+                        if (this.enfants[noeud * 4 + q] >= 0) pile[nb++] = this.enfants[noeud * 4 + q];
+                }
+            }
+            return f;
+        }
+    }
+}
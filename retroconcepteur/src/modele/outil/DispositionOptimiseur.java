@@ -1,119 +1,1264 @@
 package modele.outil;
 
+import java.awt.Dimension;
 import java.awt.Point;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import modele.entites.ClasseObjet;
 import vue.LiaisonVue;
 
 /**
  * Unique classe responsable du calcul des positions du diagramme.
+ *
+ * Disposition en couches (Sugiyama) : couches par l'héritage, classes
+ * reliées seulement par association rangées près de leurs partenaires,
+ * nœuds fictifs sur les liaisons qui traversent plusieurs couches, ordre
+ * par médiane et transpositions, puis placement horizontal selon la
+ * largeur réelle des blocs.
  */
-public class DispositionOptimiseur 
+public class DispositionOptimiseur
 {
     // Constantes de mise en page (centralisées ici)
-    private static final int ESPACEMENT_X = 260;
-    private static final int ESPACEMENT_Y = 220;
-    private static final int MARGE_X      = 80 ;
-    private static final int MARGE_Y      = 60 ;
-    private static final int ITERATIONS   = 5  ;
+    private static final int    LARGEUR_DEFAUT     = 200;  // bloc dont la taille n'est pas fournie
+    private static final int    HAUTEUR_DEFAUT     = 140;
+    private static final int    LARGEUR_FICTIF     = 20 ;  // passage réservé à une liaison longue
+    private static final int    ECART_X            = 60 ;
+    private static final int    ECART_Y            = 80 ;
+    private static final int    MARGE_X            = 80 ;
+    private static final int    MARGE_Y            = 60 ;
+    private static final int    ITERATIONS_MAX     = 24 ;
+    private static final int    TRANSPOSITIONS_MAX = 8  ;
+    private static final int    PASSES_PLACEMENT   = 8  ;
+    private static final double PROPORTION         = 16.0 / 9;  // largeur / hauteur visée du canevas
+
+    /** Moteurs de disposition proposés à l'utilisateur. */
+    public enum Moteur
+    {
+        COUCHES, // hiérarchique, adapté aux projets structurés par l'héritage
+        FORCES   // par forces, adapté aux projets dominés par les associations
+    }
 
     /**
      * Calcule la map des positions pour chaque classe du projet.
      */
-    public static Map<String, Point> calculerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons) 
+    public static Map<String, Point> calculerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons)
+    {
+        return calculerPositions(classes, liaisons, null, null);
+    }
+
+    /**
+     * Calcule la map des positions et remplit le rapport (s'il est fourni)
+     * avec les mesures de qualité et la durée de chaque phase.
+     */
+    public static Map<String, Point> calculerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons,
+                                                       RapportDisposition rapport)
+    {
+        return calculerPositions(classes, liaisons, null, rapport);
+    }
+
+    /**
+     * Calcule la map des positions avec le moteur choisi.
+     *
+     * @param budgetMs durée maximale de la simulation (disposition par forces)
+     */
+    public static Map<String, Point> calculerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons,
+                                                       Map<String, Dimension> tailles, Moteur moteur, long budgetMs,
+                                                       RapportDisposition rapport)
+    {
+        if (moteur == Moteur.FORCES)
+            return DispositionForces.calculerPositions(classes, liaisons, tailles, budgetMs, rapport);
+
+        return calculerPositions(classes, liaisons, tailles, rapport);
+    }
+
+    /**
+     * Calcule la map des positions (coin haut gauche de chaque bloc).
+     *
+     * Chaque composante connexe (liaisons et héritage confondus) est
+     * disposée séparément, les plus grandes en parallèle sur le pool
+     * fork/join commun, puis les rectangles obtenus sont rangés par
+     * étagères dans un canevas compact.
+     *
+     * @param tailles taille des blocs par nom de classe ; une classe absente
+     *                (ou tailles null) prend une taille par défaut
+     * @param rapport rempli avec les mesures de la disposition, peut être null
+     */
+    public static Map<String, Point> calculerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons,
+                                                       Map<String, Dimension> tailles, RapportDisposition rapport)
     {
         if (classes == null || classes.isEmpty()) return new HashMap<>();
 
-        // 1. Assigner les couches (niveaux verticaux)
-        Map<String, Integer> couches = assignerCouches(classes, liaisons);
+        long debut = System.nanoTime();
 
-        // 2. Grouper les noms de classes par niveau
-        Map<Integer, List<String>> classesParCouche = new TreeMap<>();
+        // 1. Couches de l'héritage, voisins et composantes connexes
+        GrapheHierarchie graphe         = assignerCouches(classes, liaisons);
+        int[][]          voisinsClasses = construireVoisins(graphe, liaisons);
+        int              n              = graphe.getNbClasses();
+        int[]            largeur        = new int[n];
+        int[]            hauteur        = new int[n];
 
-        for (ClasseObjet c : classes) 
+        for (int v = 0; v < n; v++)
         {
-            int niveau = couches.getOrDefault(c.getNom(), 0);
-            classesParCouche.computeIfAbsent(niveau, k -> new ArrayList<>()).add(c.getNom());
+            Dimension d = tailles != null ? tailles.get(graphe.getNom(v)) : null;
+            largeur[v] = d != null ? d.width  : DispositionOptimiseur.LARGEUR_DEFAUT;
+            hauteur[v] = d != null ? d.height : DispositionOptimiseur.HAUTEUR_DEFAUT;
         }
 
-        // 3. Optimiser l'ordre horizontal (barycentre) pour réduire les croisements
-        for (int i = 0; i < DispositionOptimiseur.ITERATIONS; i++) 
-            optimiserOrdreHorizontal(classesParCouche, liaisons);
+        List<int[]> membres     = separerComposantes(graphe, voisinsClasses);
+        int[]       indiceLocal = new int[n];
+
+        for (int[] m : membres)
+            for (int i = 0; i < m.length; i++) indiceLocal[m[i]] = i;
+
+        long finSeparation = System.nanoTime();
+
+        // 2. Disposition de chaque composante (une classe seule n'a rien à calculer)
+        Composante[]                   composantes = new Composante[membres.size()];
+        List<ForkJoinTask<Composante>> taches      = new ArrayList<>();
+        List<Integer>                  rangs       = new ArrayList<>();
+
+        for (int c = 0; c < composantes.length; c++)
+        {
+            int[] m = membres.get(c);
+
+            if (m.length == 1)
+            {
+                composantes[c] = new Composante(m[0], largeur[m[0]], hauteur[m[0]]);
+                continue;
+            }
+
+            taches.add(ForkJoinPool.commonPool().submit(() ->
+                       disposerComposante(graphe, voisinsClasses, indiceLocal, m, largeur, hauteur)));
+            rangs.add(c);
+        }
+
+        for (int t = 0; t < taches.size(); t++) composantes[rangs.get(t)] = taches.get(t).join();
+
+        long finComposantes = System.nanoTime();
+
+        // 3. Rangement des composantes puis positions absolues
+        empaqueter(composantes);
 
-        // 4. Convertir en coordonnées réelles
         Map<String, Point> positions = new HashMap<>();
+        int[]              xs        = new int[n];
+        int[]              ys        = new int[n];
+
+        for (Composante c : composantes)
+        {
+            for (int i = 0; i < c.membres.length; i++)
+            {
+                int v = c.membres[i];
+                xs[v] = DispositionOptimiseur.MARGE_X + c.x + c.xs[i];
+                ys[v] = DispositionOptimiseur.MARGE_Y + c.y + c.ys[i];
+                positions.put(graphe.getNom(v), new Point(xs[v], ys[v]));
+            }
+        }
 
-        for (Map.Entry<Integer, List<String>> entry : classesParCouche.entrySet()) 
+        if (rapport != null)
         {
-            int niveauY = entry.getKey();
-            List<String> noms = entry.getValue();
+            long fin = System.nanoTime();
+
+            rapport.setNbClasses         (n);
+            rapport.setNbComposantes     (composantes.length);
+            rapport.setNbAretesInversees (graphe.getNbAretesInversees());
+            rapport.setDureeCouches      (finSeparation - debut);
+            rapport.setDureeCoordonnees  (fin - finComposantes);
+            rapport.setDureeTotale       (fin - debut);
+
+            for (Composante c : composantes) cumuler(rapport, c.mesures);
+            mesurer(voisinsClasses, xs, ys, largeur, hauteur, rapport);
+        }
+        return positions;
+    }
 
-            for (int i = 0; i < noms.size(); i++) 
+    /**
+     * Ajoute au rapport global les mesures d'une composante : les compteurs
+     * s'additionnent (couches et balayages : le maximum), les durées se
+     * cumulent d'un fil à l'autre.
+     */
+    private static void cumuler(RapportDisposition total, RapportDisposition composante)
+    {
+        total.setNbCouches          (Math.max(total.getNbCouches(), composante.getNbCouches()));
+        total.setNbBalayages        (Math.max(total.getNbBalayages(), composante.getNbBalayages()));
+        total.setNbNoeudsFictifs    (total.getNbNoeudsFictifs()     + composante.getNbNoeudsFictifs());
+        total.setCroisementsInitiaux(total.getCroisementsInitiaux() + composante.getCroisementsInitiaux());
+        total.setCroisements        (total.getCroisements()         + composante.getCroisements());
+        total.setDureeCouches       (total.getDureeCouches()        + composante.getDureeCouches());
+        total.setDureeOrdre         (total.getDureeOrdre()          + composante.getDureeOrdre());
+        total.setDureeCoordonnees   (total.getDureeCoordonnees()    + composante.getDureeCoordonnees());
+    }
+
+    /**
+     * Disposition incrémentale : les positions fixées ne bougent pas, seules
+     * les autres classes sont placées, dans l'espace libre près de leurs
+     * voisines déjà placées (sous leurs parents, au-dessus de leurs enfants,
+     * à côté de leurs associées). Une classe sans voisine placée rejoint une
+     * rangée sous le diagramme. Les classes visant la même rangée y sont
+     * posées dans l'ordre de leur barycentre : c'est la seule réduction de
+     * croisements, limitée aux rangées touchées.
+     *
+     * Sans aucune position fixée, la disposition complète est calculée.
+     *
+     * @param fixes   positions à conserver, par nom de bloc ; les blocs hors
+     *                de la liste des classes (classes internes...) restent des
+     *                obstacles
+     * @param tailles taille des blocs par nom, peut être null
+     * @param rapport rempli avec les mesures de la disposition, peut être null
+     */
+    public static Map<String, Point> completerPositions(List<ClasseObjet> classes, List<LiaisonVue> liaisons,
+                                                        Map<String, Dimension> tailles, Map<String, Point> fixes,
+                                                        RapportDisposition rapport)
+    {
+        if (classes == null || classes.isEmpty()) return new HashMap<>();
+        if (fixes == null || fixes.isEmpty()) return calculerPositions(classes, liaisons, tailles, rapport);
+
+        long debut = System.nanoTime();
+
+        GrapheHierarchie graphe  = assignerCouches(classes, liaisons);
+        int[][]          voisins = construireVoisins(graphe, liaisons);
+        int              n       = graphe.getNbClasses();
+        int[]            largeur = new int[n];
+        int[]            hauteur = new int[n];
+        int[]            xs      = new int[n];
+        int[]            ys      = new int[n];
+        boolean[]        place   = new boolean[n];
+        Occupation       libre   = new Occupation();
+        int              basMax  = 0;
+        int              droite  = 0;  // bord droit du diagramme conservé
+
+        for (Map.Entry<String, Point> e : fixes.entrySet())
+        {
+            Dimension d = tailles != null ? tailles.get(e.getKey()) : null;
+            int       w = d != null ? d.width  : DispositionOptimiseur.LARGEUR_DEFAUT;
+            int       h = d != null ? d.height : DispositionOptimiseur.HAUTEUR_DEFAUT;
+
+            libre.ajouter(e.getValue().x, e.getValue().y, w, h);
+            basMax = Math.max(basMax, e.getValue().y + h);
+            droite = Math.max(droite, e.getValue().x + w);
+        }
+
+        int nbRestants = 0;
+
+        for (int v = 0; v < n; v++)
+        {
+            Dimension d = tailles != null ? tailles.get(graphe.getNom(v)) : null;
+            Point     p = fixes.get(graphe.getNom(v));
+
+            largeur[v] = d != null ? d.width  : DispositionOptimiseur.LARGEUR_DEFAUT;
+            hauteur[v] = d != null ? d.height : DispositionOptimiseur.HAUTEUR_DEFAUT;
+
+            if (p == null) { nbRestants++; continue; }
+
+            xs[v]    = p.x;
+            ys[v]    = p.y;
+            place[v] = true;
+        }
+
+        int nbConservees = n - nbRestants;
+        int rangeeX      = DispositionOptimiseur.MARGE_X;
+        int rangeeY      = basMax + DispositionOptimiseur.ECART_Y;
+        int rangeeBas    = rangeeY;
+        int isolee       = 0; // aucune classe non placée avant cet indice
+
+        // Par vagues : d'abord les classes qui touchent une classe placée. Une
+        // vague est faite des voisines non placées de la vague précédente :
+        // chaque arête n'est parcourue qu'une fois de chaque côté
+        boolean[]     enVague = new boolean[n];
+        List<Integer> vague   = new ArrayList<>();
+        for (int u = 0; u < n; u++) if (place[u]) enfilerVoisins(graphe, voisins, place, enVague, u, vague);
+
+        while (nbRestants > 0)
+        {
+            if (vague.isEmpty())
             {
-                int posX = DispositionOptimiseur.MARGE_X + (i       * DispositionOptimiseur.ESPACEMENT_X);
-                int posY = DispositionOptimiseur.MARGE_Y + (niveauY * DispositionOptimiseur.ESPACEMENT_Y);
+                // Classes sans voisine placée : la première part de la rangée sous le diagramme,
+                // qui repart à gauche quand elle dépasserait la largeur du diagramme
+                while (place[isolee]) isolee++;
+
+                int v = isolee;
+                if (rangeeX > DispositionOptimiseur.MARGE_X && rangeeX + largeur[v] > droite)
+                {
+                    rangeeX = DispositionOptimiseur.MARGE_X;
+                    rangeeY = rangeeBas + DispositionOptimiseur.ECART_Y;
+                }
+
+                Point p = libre.chercher(rangeeX, rangeeY, largeur[v], hauteur[v]);
+
+                xs[v]    = p.x;
+                ys[v]    = p.y;
+                place[v] = true;
+                libre.ajouter(p.x, p.y, largeur[v], hauteur[v]);
+                rangeeX   = p.x + largeur[v] + DispositionOptimiseur.ECART_X;
+                rangeeBas = Math.max(rangeeBas, p.y + hauteur[v]);
+                nbRestants--;
+
+                enfilerVoisins(graphe, voisins, place, enVague, v, vague);
+                continue;
+            }
+
+            // Ordre des indices, comme un parcours de toutes les classes restantes
+            Collections.sort(vague);
+
+            // Position souhaitée, puis pose par rangée dans l'ordre des barycentres
+            Map<Integer, List<int[]>> parRangee = new TreeMap<>();
+            for (int v : vague)
+            {
+                int[] souhait = souhait(graphe, voisins, place, xs, ys, largeur, hauteur, v);
+                parRangee.computeIfAbsent(souhait[1], k -> new ArrayList<>()).add(new int[] { v, souhait[0] });
+            }
+
+            for (List<int[]> rangee : parRangee.values())
+            {
+                rangee.sort(Comparator.comparingInt(s -> s[1]));
+                int minX = Integer.MIN_VALUE;
+
+                for (int[] s : rangee)
+                {
+                    int   v = s[0];
+                    int   y = souhait(graphe, voisins, place, xs, ys, largeur, hauteur, v)[1];
+                    Point p = libre.chercher(Math.max(s[1] - largeur[v] / 2, minX), y, largeur[v], hauteur[v]);
 
-                positions.put(noms.get(i), new Point(posX, posY));
+                    xs[v]    = p.x;
+                    ys[v]    = p.y;
+                    place[v] = true;
+                    libre.ajouter(p.x, p.y, largeur[v], hauteur[v]);
+                    if (p.y == y) minX = p.x + largeur[v] + DispositionOptimiseur.ECART_X;
+                }
             }
+            nbRestants -= vague.size();
+
+            List<Integer> suivante = new ArrayList<>();
+            for (int v : vague) enfilerVoisins(graphe, voisins, place, enVague, v, suivante);
+            vague = suivante;
+        }
+
+        Map<String, Point> positions = new HashMap<>();
+        for (int v = 0; v < n; v++) positions.put(graphe.getNom(v), new Point(xs[v], ys[v]));
+
+        if (rapport != null)
+        {
+            rapport.setNbClasses          (n);
+            rapport.setNbClassesConservees(nbConservees);
+            rapport.setDureeCoordonnees   (System.nanoTime() - debut);
+            rapport.setDureeTotale        (System.nanoTime() - debut);
+            mesurer(voisins, xs, ys, largeur, hauteur, rapport);
         }
         return positions;
     }
 
-    private static Map<String, Integer> assignerCouches(List<ClasseObjet> classes, List<LiaisonVue> liaisons) 
+    /** Ajoute à la vague les voisines non placées de v qui n'y sont pas encore. */
+    private static void enfilerVoisins(GrapheHierarchie graphe, int[][] voisins, boolean[] place, boolean[] enVague,
+                                       int v, List<Integer> vague)
     {
-        Map<String, Integer> couches = new HashMap<>();
-        classes.forEach(c -> couches.put(c.getNom(), 0));
+        for (int[] liste : new int[][] { voisins[v], graphe.getParents(v), graphe.getEnfants(v) })
+        {
+            for (int u : liste)
+            {
+                if (u >= place.length || place[u] || enVague[u]) continue;
 
-        boolean changement = true;
+                enVague[u] = true;
+                vague.add(u);
+            }
+        }
+    }
 
-        while (changement) 
+    /**
+     * Position souhaitée {centre x, haut y} d'une classe à placer : sous
+     * ses parents placés, sinon au-dessus de ses enfants placés, sinon à la
+     * hauteur de ses associées placées, centrée sur leur barycentre.
+     */
+    private static int[] souhait(GrapheHierarchie graphe, int[][] voisins, boolean[] place, int[] xs, int[] ys,
+                                 int[] largeur, int[] hauteur, int v)
+    {
+        long somme = 0;
+        int  nb    = 0;
+        int  bas   = Integer.MIN_VALUE;
+
+        for (int u : graphe.getParents(v))
         {
-            changement = false;
+            if (u >= place.length || !place[u]) continue;
+            somme += xs[u] + largeur[u] / 2;
+            bas    = Math.max(bas, ys[u] + hauteur[u]);
+            nb++;
+        }
+        if (nb > 0) return new int[] { (int) (somme / nb), bas + DispositionOptimiseur.ECART_Y };
+
+        int haut = Integer.MAX_VALUE;
+        for (int u : graphe.getEnfants(v))
+        {
+            if (u >= place.length || !place[u]) continue;
+            somme += xs[u] + largeur[u] / 2;
+            haut   = Math.min(haut, ys[u]);
+            nb++;
+        }
+        if (nb > 0) return new int[] { (int) (somme / nb), Math.max(0, haut - DispositionOptimiseur.ECART_Y - hauteur[v]) };
 
-            for (LiaisonVue l : liaisons) 
+        long sommeY = 0;
+        for (int u : voisins[v])
+        {
+            if (!place[u]) continue;
+            somme  += xs[u] + largeur[u] / 2;
+            sommeY += ys[u];
+            nb++;
+        }
+        return new int[] { (int) (somme / nb), (int) (sommeY / nb) };
+    }
+
+    /**
+     * Longueur totale des liaisons (entre centres de blocs) et surface du
+     * rectangle englobant. Partagé avec la disposition par forces.
+     */
+    static void mesurer(int[][] voisins, int[] xs, int[] ys, int[] largeur, int[] hauteur, RapportDisposition rapport)
+    {
+        double longueur = 0;
+        int    minX     = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int    maxX     = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+
+        for (int a = 0; a < voisins.length; a++)
+        {
+            for (int b : voisins[a])
+            {
+                if (b <= a) continue;
+
+                double dx = (xs[a] + largeur[a] / 2.0) - (xs[b] + largeur[b] / 2.0);
+                double dy = (ys[a] + hauteur[a] / 2.0) - (ys[b] + hauteur[b] / 2.0);
+                longueur += Math.sqrt(dx * dx + dy * dy);
+            }
+
+            minX = Math.min(minX, xs[a]);
+            minY = Math.min(minY, ys[a]);
+            maxX = Math.max(maxX, xs[a] + largeur[a]);
+            maxY = Math.max(maxY, ys[a] + hauteur[a]);
+        }
+
+        rapport.setLongueurLiaisons(longueur);
+        rapport.setSurface((long) (maxX - minX) * (maxY - minY));
+    }
+
+    /**
+     * Construit le graphe d'héritage / d'implémentation et assigne à chaque
+     * classe sa couche (plus long chemin depuis une racine, cycles cassés).
+     * Le graphe est renvoyé pour les phases suivantes.
+     */
+    static GrapheHierarchie assignerCouches(List<ClasseObjet> classes, List<LiaisonVue> liaisons)
+    {
+        return new GrapheHierarchie(classes, liaisons);
+    }
+
+    /**
+     * Voisins de chaque classe, toutes liaisons confondues et sans tenir
+     * compte du sens (une entrée par liaison).
+     */
+    private static int[][] construireVoisins(GrapheHierarchie graphe, List<LiaisonVue> liaisons)
+    {
+        int   n         = graphe.getNbClasses();
+        int[] nbVoisins = new int[n];
+        int[] aretes    = new int[liaisons.size() * 2];
+        int   nbAretes  = 0;
+
+        for (LiaisonVue lv : liaisons)
+        {
+            int a = graphe.getIndice(lv.getNomClasseOrig());
+            int b = graphe.getIndice(lv.getNomClasseDest());
+            if (a < 0 || b < 0 || a >= n || b >= n || a == b) continue;
+
+            aretes[nbAretes++] = a;
+            aretes[nbAretes++] = b;
+            nbVoisins[a]++;
+            nbVoisins[b]++;
+        }
+
+        return adjacence(n, aretes, nbAretes, nbVoisins);
+    }
+
+    private static int[][] adjacence(int n, int[] aretes, int nbAretes, int[] nbVoisins)
+    {
+        int[][] voisins = new int[n][];
+        for (int v = 0; v < n; v++) voisins[v] = new int[nbVoisins[v]];
+
+        Arrays.fill(nbVoisins, 0);
+        for (int e = 0; e < nbAretes; e += 2)
+        {
+            int a = aretes[e], b = aretes[e + 1];
+            voisins[a][nbVoisins[a]++] = b;
+            voisins[b][nbVoisins[b]++] = a;
+        }
+        return voisins;
+    }
+
+    /**
+     * Composantes connexes des classes, par union-recherche sur les
+     * liaisons et sur l'héritage (un parent hors du projet relie aussi ses
+     * enfants, qui partagent alors la même hiérarchie de couches). Les
+     * composantes sont numérotées dans l'ordre de leur première classe.
+     */
+    private static List<int[]> separerComposantes(GrapheHierarchie graphe, int[][] voisins)
+    {
+        int   n      = graphe.getNbClasses();
+        int[] parent = new int[graphe.getNbSommets()];
+
+        for (int v = 0; v < parent.length; v++) parent[v] = v;
+
+        for (int v = 0; v < n; v++)
+            for (int u : voisins[v]) unir(parent, u, v);
+
+        for (int v = 0; v < parent.length; v++)
+            for (int p : graphe.getParents(v)) unir(parent, p, v);
+
+        int[] numero = new int[parent.length];
+        int[] taille = new int[n];
+        int   nb     = 0;
+
+        Arrays.fill(numero, -1);
+        for (int v = 0; v < n; v++)
+        {
+            int r = racine(parent, v);
+            if (numero[r] < 0) numero[r] = nb++;
+            taille[numero[r]]++;
+        }
+
+        List<int[]> membres = new ArrayList<>(nb);
+        for (int c = 0; c < nb; c++) membres.add(new int[taille[c]]);
+
+        Arrays.fill(taille, 0);
+        for (int v = 0; v < n; v++)
+        {
+            int c = numero[racine(parent, v)];
+            membres.get(c)[taille[c]++] = v;
+        }
+        return membres;
+    }
+
+    private static int racine(int[] parent, int v)
+    {
+        while (parent[v] != v)
+        {
+            parent[v] = parent[parent[v]];
+            v         = parent[v];
+        }
+        return v;
+    }
+
+    private static void unir(int[] parent, int a, int b)
+    {
+        int ra = racine(parent, a), rb = racine(parent, b);
+        if (ra != rb) parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+
+    /**
+     * Disposition en couches d'une composante, en coordonnées relatives
+     * (coin haut gauche du rectangle de la composante en 0, 0). Les classes
+     * sont renumérotées de 0 à membres.length - 1 pour les phases suivantes.
+     */
+    private static Composante disposerComposante(GrapheHierarchie graphe, int[][] voisinsClasses, int[] indiceLocal,
+                                                 int[] membres, int[] largeurClasses, int[] hauteurClasses)
+    {
+        long debut = System.nanoTime();
+        int  m     = membres.length;
+
+        int[][] voisins = new int[m][];
+        for (int i = 0; i < m; i++)
+        {
+            int[] vs = voisinsClasses[membres[i]];
+            voisins[i] = new int[vs.length];
+            for (int k = 0; k < vs.length; k++) voisins[i][k] = indiceLocal[vs[k]];
+        }
+
+        int[]         couche = placerClassesLibres(graphe, membres, voisins);
+        GrapheCouches g      = new GrapheCouches(voisins, couche);
+
+        long finCouches = System.nanoTime();
+
+        // Optimiser l'ordre horizontal (médiane + transpositions) pour réduire les croisements
+        RapportDisposition mesures = new RapportDisposition();
+        optimiserOrdreHorizontal(g.couches, g.voisins, g.rang, mesures);
+
+        long finOrdre = System.nanoTime();
+
+        // Convertir en coordonnées relatives
+        int[] largeur = new int[g.nbNoeuds];
+        int[] hauteur = new int[g.nbNoeuds];
+
+        for (int v = 0; v < g.nbNoeuds; v++)
+        {
+            largeur[v] = v < m ? largeurClasses[membres[v]] : DispositionOptimiseur.LARGEUR_FICTIF;
+            hauteur[v] = v < m ? hauteurClasses[membres[v]] : 0;
+        }
+
+        double[] centres = placerHorizontalement(g, largeur, m);
+        int[]    hautY   = placerVerticalement  (g, hauteur);
+
+        double gauche = Double.MAX_VALUE;
+        for (int v = 0; v < m; v++) gauche = Math.min(gauche, centres[v] - largeur[v] / 2.0);
+
+        Composante c = new Composante(membres);
+
+        for (int v = 0; v < m; v++)
+        {
+            c.xs[v]   = (int) Math.round(centres[v] - largeur[v] / 2.0 - gauche);
+            c.ys[v]   = hautY[g.rang[v]];
+            c.largeur = Math.max(c.largeur, c.xs[v] + largeur[v]);
+            c.hauteur = Math.max(c.hauteur, c.ys[v] + hauteur[v]);
+        }
+
+        mesures.setNbCouches       (g.couches.length);
+        mesures.setNbNoeudsFictifs (g.nbNoeuds - m);
+        mesures.setDureeCouches    (finCouches - debut);
+        mesures.setDureeOrdre      (finOrdre   - finCouches);
+        mesures.setDureeCoordonnees(System.nanoTime() - finOrdre);
+        c.mesures = mesures;
+
+        return c;
+    }
+
+    /**
+     * Range les composantes par étagères : triées par hauteur décroissante,
+     * elles sont posées de gauche à droite et une nouvelle étagère commence
+     * dès que la largeur visée est atteinte. La largeur visée donne au
+     * canevas à peu près les proportions d'un écran.
+     */
+    private static void empaqueter(Composante[] composantes)
+    {
+        double aire       = 0;
+        int    largeurMax = 0;
+
+        for (Composante c : composantes)
+        {
+            aire      += (double) (c.largeur + DispositionOptimiseur.ECART_X) * (c.hauteur + DispositionOptimiseur.ECART_Y);
+            largeurMax = Math.max(largeurMax, c.largeur);
+        }
+
+        int       largeurVisee = Math.max(largeurMax, (int) Math.sqrt(aire * DispositionOptimiseur.PROPORTION));
+        Integer[] ordre        = new Integer[composantes.length];
+
+        for (int i = 0; i < ordre.length; i++) ordre[i] = i;
+        Arrays.sort(ordre, (a, b) -> Integer.compare(composantes[b].hauteur, composantes[a].hauteur));
+
+        int x = 0, y = 0, hauteurEtagere = 0;
+
+        for (int i : ordre)
+        {
+            Composante c = composantes[i];
+
+            if (x > 0 && x + c.largeur > largeurVisee)
             {
-                if (l.getType() == LiaisonVue.TypeLiaison.HERITAGE || l.getType() == LiaisonVue.TypeLiaison.IMPLEMENTATION) 
+                x              = 0;
+                y             += hauteurEtagere + DispositionOptimiseur.ECART_Y;
+                hauteurEtagere = 0;
+            }
+
+            c.x             = x;
+            c.y             = y;
+            x              += c.largeur + DispositionOptimiseur.ECART_X;
+            hauteurEtagere  = Math.max(hauteurEtagere, c.hauteur);
+        }
+    }
+
+    /**
+     * Couche de chaque classe de la composante, numérotée sans trou. Les
+     * classes prises dans l'héritage gardent leur couche ; les autres sont
+     * rangées par parcours en largeur des associations, une couche sous la
+     * classe qui les a atteintes (une composante sans héritage part de la
+     * couche 0).
+     */
+    private static int[] placerClassesLibres(GrapheHierarchie graphe, int[] membres, int[][] voisins)
+    {
+        int       n      = membres.length;
+        int[]     couche = new int[n];
+        boolean[] place  = new boolean[n];
+        int[]     file   = new int[n];
+        int       tete   = 0;
+        int       queue  = 0;
+
+        for (int v = 0; v < n; v++)
+        {
+            int s = membres[v];
+            if (graphe.getParents(s).length == 0 && graphe.getEnfants(s).length == 0) continue;
+
+            couche[v]     = graphe.getCouche(s);
+            place [v]     = true;
+            file[queue++] = v;
+        }
+
+        for (int suivant = 0; ; )
+        {
+            while (tete < queue)
+            {
+                int u = file[tete++];
+
+                for (int w : voisins[u])
                 {
-                    int niveauParent = couches.getOrDefault(l.getNomClasseDest(), 0);
-                    int niveauEnfant = couches.getOrDefault(l.getNomClasseOrig(), 0);
+                    if (place[w]) continue;
 
-                    if (niveauEnfant <= niveauParent) 
+                    couche[w]     = couche[u] + 1;
+                    place [w]     = true;
+                    file[queue++] = w;
+                }
+            }
+
+            while (suivant < n && place[suivant]) suivant++;
+            if (suivant == n) break;
+
+            couche[suivant] = 0;
+            place [suivant] = true;
+            file[queue++]   = suivant;
+        }
+
+        // Renumérotation sans couche vide
+        int max = 0;
+        for (int c : couche) max = Math.max(max, c);
+
+        int[] nouvelle = new int[max + 1];
+        for (int c : couche) nouvelle[c] = 1;
+        for (int c = 0, k = 0; c <= max; c++) if (nouvelle[c] == 1) nouvelle[c] = k++;
+        for (int v = 0; v < n; v++) couche[v] = nouvelle[couche[v]];
+
+        return couche;
+    }
+
+    /**
+     * Balayages alternés (descendant puis montant) : chaque couche est triée
+     * selon la médiane de ses voisins dans la couche voisine déjà placée,
+     * puis des voisins adjacents sont échangés tant que cela réduit les
+     * croisements. On s'arrête dès que deux balayages de suite n'ont pas
+     * réduit le nombre de croisements, et l'on garde le meilleur ordre
+     * rencontré.
+     */
+    private static void optimiserOrdreHorizontal(int[][] couches, int[][] voisins, int[] rang,
+                                                 RapportDisposition rapport)
+    {
+        int   n   = voisins.length;
+        int[] pos = new int[n];
+
+        for (int l = 0; l < couches.length; l++)
+            for (int i = 0; i < couches[l].length; i++) pos[couches[l][i]] = i;
+
+        int degreMax = 0;
+        for (int[] vs : voisins) degreMax = Math.max(degreMax, vs.length);
+
+        int[]   tampon        = new int[degreMax];
+        int[]   tampon2       = new int[degreMax];
+        long    meilleur      = compterCroisements(couches, voisins, rang, pos);
+        int[][] meilleurOrdre = copier(couches);
+        int     sansProgres   = 0;
+        int     iter          = 0;
+
+        if (rapport != null) rapport.setCroisementsInitiaux(meilleur);
+
+        for (; iter < DispositionOptimiseur.ITERATIONS_MAX && meilleur > 0 && sansProgres < 2; iter++)
+        {
+            balayer   (couches, voisins, rang, pos, iter % 2 == 0, tampon);
+            transposer(couches, voisins, rang, pos, tampon, tampon2);
+
+            long croisements = compterCroisements(couches, voisins, rang, pos);
+            if (croisements < meilleur)
+            {
+                meilleur      = croisements;
+                meilleurOrdre = copier(couches);
+                sansProgres   = 0;
+            }
+            else
+            {
+                sansProgres++;
+            }
+        }
+
+        for (int l = 0; l < couches.length; l++)
+        {
+            couches[l] = meilleurOrdre[l];
+            for (int i = 0; i < couches[l].length; i++) pos[couches[l][i]] = i;
+        }
+
+        if (rapport != null)
+        {
+            rapport.setCroisements(meilleur);
+            rapport.setNbBalayages(iter);
+        }
+    }
+
+    private static void balayer(int[][] couches, int[][] voisins, int[] rang, int[] pos, boolean descendant,
+                                int[] tampon)
+    {
+        int pas   = descendant ? 1 : -1;
+        int debut = descendant ? 1 : couches.length - 2;
+
+        for (int l = debut; l >= 0 && l < couches.length; l += pas)
+        {
+            int      fixe    = l - pas;
+            int[]    ordre   = couches[l];
+            double[] mediane = new double[ordre.length];
+
+            // Médiane calculée une fois par sommet ; sans voisin dans la couche fixe, il garde sa place
+            for (int i = 0; i < ordre.length; i++)
+            {
+                int nb = positionsVoisins(ordre[i], fixe, voisins, rang, pos, tampon);
+                mediane[i] = nb == 0 ? i : mediane(tampon, nb);
+            }
+
+            Integer[] indices = new Integer[ordre.length];
+            for (int i = 0; i < indices.length; i++) indices[i] = i;
+            Arrays.sort(indices, Comparator.comparingDouble(i -> mediane[i]));
+
+            int[] trie = new int[ordre.length];
+            for (int i = 0; i < trie.length; i++)
+            {
+                trie[i]      = ordre[indices[i]];
+                pos[trie[i]] = i;
+            }
+            couches[l] = trie;
+        }
+    }
+
+    /**
+     * Positions triées des voisins de v situés dans la couche donnée.
+     */
+    private static int positionsVoisins(int v, int couche, int[][] voisins, int[] rang, int[] pos, int[] tampon)
+    {
+        int nb = 0;
+        for (int u : voisins[v]) if (rang[u] == couche) tampon[nb++] = pos[u];
+
+        Arrays.sort(tampon, 0, nb);
+        return nb;
+    }
+
+    /**
+     * Médiane pondérée : entre les deux valeurs centrales, on se rapproche
+     * du côté où les voisins sont les plus serrés.
+     */
+    private static double mediane(int[] p, int nb)
+    {
+        int m = nb / 2;
+
+        if (nb % 2 == 1) return p[m];
+        if (nb == 2    ) return (p[0] + p[1]) / 2.0;
+
+        double gauche = p[m - 1] - p[0];
+        double droite = p[nb - 1] - p[m];
+        if (gauche + droite == 0) return (p[m - 1] + p[m]) / 2.0;
+
+        return (p[m - 1] * droite + p[m] * gauche) / (gauche + droite);
+    }
+
+    /**
+     * Échange deux sommets voisins d'une couche quand cela réduit les
+     * croisements avec les deux couches adjacentes ; répété tant qu'un
+     * passage améliore (borné par TRANSPOSITIONS_MAX).
+     */
+    private static void transposer(int[][] couches, int[][] voisins, int[] rang, int[] pos,
+                                   int[] tampon, int[] tampon2)
+    {
+        boolean ameliore = true;
+
+        for (int passe = 0; ameliore && passe < DispositionOptimiseur.TRANSPOSITIONS_MAX; passe++)
+        {
+            ameliore = false;
+
+            for (int l = 0; l < couches.length; l++)
+            {
+                int[] ordre = couches[l];
+
+                for (int i = 0; i + 1 < ordre.length; i++)
+                {
+                    int u = ordre[i], v = ordre[i + 1];
+                    long avant = 0, apres = 0;
+
+                    for (int cote = l - 1; cote <= l + 1; cote += 2)
+                    {
+                        int nu = positionsVoisins(u, cote, voisins, rang, pos, tampon );
+                        int nv = positionsVoisins(v, cote, voisins, rang, pos, tampon2);
+                        if (nu == 0 || nv == 0) continue;
+
+                        avant += paires(tampon , nu, tampon2, nv);
+                        apres += paires(tampon2, nv, tampon , nu);
+                    }
+
+                    if (apres < avant)
+                    {
+                        ordre[i]     = v;
+                        ordre[i + 1] = u;
+                        pos[v]       = i;
+                        pos[u]       = i + 1;
+                        ameliore     = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Nombre de couples (a, b) avec a strictement plus grand que b, les deux
+     * tableaux étant triés : croisements entre les liaisons d'un sommet placé
+     * à gauche (a) et celles de son voisin de droite (b).
+     */
+    private static long paires(int[] a, int na, int[] b, int nb)
+    {
+        long total = 0;
+        int  j     = 0;
+
+        for (int i = 0; i < na; i++)
+        {
+            while (j < nb && b[j] < a[i]) j++;
+            total += j;
+        }
+        return total;
+    }
+
+    /**
+     * Nombre de croisements entre couches consécutives : les arêtes d'un
+     * couple de couches sont triées par position haute puis basse, et chaque
+     * arête croise les précédentes dont la position basse est plus grande
+     * (comptage par arbre de Fenwick, O(E log V)).
+     */
+    static long compterCroisements(int[][] couches, int[][] voisins, int[] rang, int[] pos)
+    {
+        long total = 0;
+
+        for (int l = 0; l + 1 < couches.length; l++)
+        {
+            int    largeurBas = couches[l + 1].length;
+            long[] aretes     = new long[16];
+            int    nb         = 0;
+
+            for (int u : couches[l])
+            {
+                for (int v : voisins[u])
+                {
+                    if (rang[v] != l + 1) continue;
+                    if (nb == aretes.length) aretes = Arrays.copyOf(aretes, nb * 2);
+                    aretes[nb++] = (long) pos[u] * largeurBas + pos[v];
+                }
+            }
+            Arrays.sort(aretes, 0, nb);
+
+            int[] fenwick = new int[largeurBas + 1];
+            for (int e = 0; e < nb; e++)
+            {
+                int bas = (int) (aretes[e] % largeurBas);
+
+                // Arêtes précédentes arrivant strictement plus à droite
+                int inferieurs = 0;
+                for (int i = bas + 1; i > 0; i -= i & -i) inferieurs += fenwick[i];
+                total += e - inferieurs;
+
+                for (int i = bas + 1; i <= largeurBas; i += i & -i) fenwick[i]++;
+            }
+        }
+        return total;
+    }
+
+    private static int[][] copier(int[][] couches)
+    {
+        int[][] copie = new int[couches.length][];
+        for (int l = 0; l < couches.length; l++) copie[l] = couches[l].clone();
+        return copie;
+    }
+
+    /**
+     * Centre horizontal de chaque sommet. Les couches sont d'abord tassées à
+     * gauche, puis chaque couche est recentrée à tour de rôle sur la moyenne
+     * de ses voisins des deux couches adjacentes : la meilleure position
+     * respectant l'ordre et l'écart minimal entre blocs est obtenue par
+     * régression isotone (fusion des blocs adjacents en violation).
+     */
+    private static double[] placerHorizontalement(GrapheCouches g, int[] largeur, int nbClasses)
+    {
+        double[] x = new double[g.nbNoeuds];
+
+        for (int[] ordre : g.couches)
+        {
+            double courant = 0;
+            for (int i = 0; i < ordre.length; i++)
+            {
+                if (i > 0) courant += ecart(ordre[i - 1], ordre[i], largeur, nbClasses);
+                x[ordre[i]] = courant;
+            }
+        }
+
+        for (int passe = 0; passe < DispositionOptimiseur.PASSES_PLACEMENT; passe++)
+        {
+            boolean descendant = passe % 2 == 0;
+
+            for (int k = 0; k < g.couches.length; k++)
+            {
+                int[]    ordre   = g.couches[descendant ? k : g.couches.length - 1 - k];
+                double[] souhait = new double[ordre.length];
+
+                for (int i = 0; i < ordre.length; i++)
+                {
+                    double somme = 0;
+                    int    nb    = 0;
+
+                    for (int u : g.voisins[ordre[i]])
+                    {
+                        if (g.rang[u] == g.rang[ordre[i]]) continue;
+                        somme += x[u];
+                        nb++;
+                    }
+                    souhait[i] = nb == 0 ? x[ordre[i]] : somme / nb;
+                }
+
+                ajuster(ordre, souhait, largeur, nbClasses, x);
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Écart minimal entre les centres de deux sommets consécutifs d'une couche.
+     */
+    private static double ecart(int a, int b, int[] largeur, int nbClasses)
+    {
+        int espace = (a < nbClasses && b < nbClasses) ? DispositionOptimiseur.ECART_X
+                                                      : DispositionOptimiseur.ECART_X / 2;
+        return (largeur[a] + largeur[b]) / 2.0 + espace;
+    }
+
+    /**
+     * Positions les plus proches des souhaits (moindres carrés) qui gardent
+     * l'ordre de la couche et l'écart minimal entre voisins.
+     */
+    private static void ajuster(int[] ordre, double[] souhait, int[] largeur, int nbClasses, double[] x)
+    {
+        int      m        = ordre.length;
+        double[] decalage = new double[m];
+
+        for (int i = 1; i < m; i++)
+            decalage[i] = decalage[i - 1] + ecart(ordre[i - 1], ordre[i], largeur, nbClasses);
+
+        // Pile de blocs (somme, effectif, premier indice) de moyennes croissantes
+        double[] somme   = new double[m];
+        int[]    effectif = new int   [m];
+        int[]    premier  = new int   [m];
+        int      nb       = 0;
+
+        for (int i = 0; i < m; i++)
+        {
+            somme   [nb] = souhait[i] - decalage[i];
+            effectif[nb] = 1;
+            premier [nb] = i;
+            nb++;
+
+            while (nb > 1 && somme[nb - 2] * effectif[nb - 1] > somme[nb - 1] * effectif[nb - 2])
+            {
+                somme   [nb - 2] += somme   [nb - 1];
+                effectif[nb - 2] += effectif[nb - 1];
+                nb--;
+            }
+        }
+
+        for (int b = 0; b < nb; b++)
+        {
+            double moyenne = somme[b] / effectif[b];
+            int    fin     = (b + 1 < nb) ? premier[b + 1] : m;
+
+            for (int i = premier[b]; i < fin; i++) x[ordre[i]] = moyenne + decalage[i];
+        }
+    }
+
+    /**
+     * Ordonnée du haut de chaque couche : la couche précédente occupe la
+     * hauteur de son plus grand bloc.
+     */
+    private static int[] placerVerticalement(GrapheCouches g, int[] hauteur)
+    {
+        int[] hautY   = new int[g.couches.length];
+        int   courant = 0;
+
+        for (int l = 0; l < g.couches.length; l++)
+        {
+            hautY[l] = courant;
+
+            int max = 0;
+            for (int v : g.couches[l]) max = Math.max(max, hauteur[v]);
+            courant += max + DispositionOptimiseur.ECART_Y;
+        }
+        return hautY;
+    }
+
+    /**
+     * Graphe en couches : les classes (indices 0 à n - 1) puis les nœuds
+     * fictifs qui découpent chaque liaison traversant plusieurs couches en
+     * arêtes entre couches consécutives. Les liaisons entre classes d'une
+     * même couche n'y figurent pas.
+     */
+    private static final class GrapheCouches
+    {
+        private int     nbNoeuds;
+        private int[]   rang    ;
+        private int[][] voisins ;
+        private int[][] couches ;
+
+        private GrapheCouches(int[][] voisinsClasses, int[] coucheClasses)
+        {
+            int   n        = voisinsClasses.length;
+            int[] aretes   = new int[16];
+            int   nbAretes = 0;
+
+            this.nbNoeuds = n;
+            this.rang     = Arrays.copyOf(coucheClasses, Math.max(n, 16));
+
+            for (int a = 0; a < n; a++)
+            {
+                for (int b : voisinsClasses[a])
+                {
+                    if (b <= a || this.rang[a] == this.rang[b]) continue;
+
+                    int haut = this.rang[a] < this.rang[b] ? a : b;
+                    int bas  = haut == a ? b : a;
+                    int prec = haut;
+
+                    for (int c = this.rang[haut] + 1; c <= this.rang[bas]; c++)
                     {
-                        couches.put(l.getNomClasseOrig(), niveauParent + 1);
-                        changement = true;
+                        int suivant = bas;
+
+                        if (c < this.rang[bas])
+                        {
+                            if (this.nbNoeuds == this.rang.length) this.rang = Arrays.copyOf(this.rang, this.nbNoeuds * 2);
+                            suivant            = this.nbNoeuds++;
+                            this.rang[suivant] = c;
+                        }
+
+                        if (nbAretes + 2 > aretes.length) aretes = Arrays.copyOf(aretes, aretes.length * 2);
+                        aretes[nbAretes++] = prec;
+                        aretes[nbAretes++] = suivant;
+                        prec = suivant;
                     }
                 }
             }
+
+            this.rang = Arrays.copyOf(this.rang, this.nbNoeuds);
+
+            int[] nbVoisins = new int[this.nbNoeuds];
+            for (int e = 0; e < nbAretes; e++) nbVoisins[aretes[e]]++;
+            this.voisins = adjacence(this.nbNoeuds, aretes, nbAretes, nbVoisins);
+
+            // Ordre initial : celui des indices (classes dans l'ordre de la liste, puis fictifs)
+            int nbCouches = 0;
+            for (int r : this.rang) nbCouches = Math.max(nbCouches, r + 1);
+
+            int[] taille = new int[nbCouches];
+            for (int r : this.rang) taille[r]++;
+
+            this.couches = new int[nbCouches][];
+            for (int l = 0; l < nbCouches; l++) this.couches[l] = new int[taille[l]];
+
+            Arrays.fill(taille, 0);
+            for (int v = 0; v < this.nbNoeuds; v++) this.couches[this.rang[v]][taille[this.rang[v]]++] = v;
         }
-        return couches;
     }
 
-    private static void optimiserOrdreHorizontal(Map<Integer, List<String>> couches, List<LiaisonVue> liaisons) 
+    /**
+     * Résultat de la disposition d'une composante : positions relatives de
+     * ses classes, taille du rectangle occupé, puis place de ce rectangle
+     * dans le canevas (fixée par empaqueter).
+     */
+    private static final class Composante
     {
-        List<Integer> niveaux = new ArrayList<>(couches.keySet());
+        private int[]              membres;
+        private int[]              xs     ;
+        private int[]              ys     ;
+        private int                largeur;
+        private int                hauteur;
+        private int                x      ;
+        private int                y      ;
+        private RapportDisposition mesures;
+
+        private Composante(int[] membres)
+        {
+            this.membres = membres;
+            this.xs      = new int[membres.length];
+            this.ys      = new int[membres.length];
+        }
 
-        for (int i = 1; i < niveaux.size(); i++) 
+        /** Classe seule : un bloc, une couche. */
+        private Composante(int classe, int largeur, int hauteur)
         {
-            List<String> coucheFixe     = couches.get(niveaux.get(i - 1));
-            List<String> coucheAMouvoir = couches.get(niveaux.get(i));
-            
-            coucheAMouvoir.sort(Comparator.comparingDouble(nom -> calculerBarycentre(nom, coucheFixe, liaisons)));
+            this(new int[] { classe });
+            this.largeur = largeur;
+            this.hauteur = hauteur;
+            this.mesures = new RapportDisposition();
+            this.mesures.setNbCouches(1);
         }
     }
 
-    private static double calculerBarycentre(String nom, List<String> couchePrecedente, List<LiaisonVue> liaisons) 
+    /**
+     * Rectangles occupés (écart compris), rangés dans une grille uniforme
+     * pour ne tester que les voisins d'un emplacement.
+     */
+    private static final class Occupation
     {
-        double sommePositions = 0;
-        int    connexions     = 0;
+        private static final int CELLULE = 256;
+        private static final int PAS     = 20 ;  // pas de la recherche d'une place libre
+
+        private final Map<Long, List<int[]>> cellules = new HashMap<>();
 
-        for (LiaisonVue l : liaisons) 
+        private void ajouter(int x, int y, int largeur, int hauteur)
         {
-            if (l.getNomClasseOrig().equals(nom) && couchePrecedente.contains(l.getNomClasseDest())) 
+            int[] r = { x - DispositionOptimiseur.ECART_X / 2, y - DispositionOptimiseur.ECART_Y / 2,
+                        x + largeur + DispositionOptimiseur.ECART_X / 2, y + hauteur + DispositionOptimiseur.ECART_Y / 2 };
+
+            for (int cy = Math.floorDiv(r[1], CELLULE); cy <= Math.floorDiv(r[3], CELLULE); cy++)
+                for (int cx = Math.floorDiv(r[0], CELLULE); cx <= Math.floorDiv(r[2], CELLULE); cx++)
+                    this.cellules.computeIfAbsent(cle(cx, cy), k -> new ArrayList<>()).add(r);
+        }
+
+        private boolean estLibre(int x, int y, int largeur, int hauteur)
+        {
+            int x2 = x + largeur, y2 = y + hauteur;
+
+            for (int cy = Math.floorDiv(y, CELLULE); cy <= Math.floorDiv(y2, CELLULE); cy++)
             {
-                sommePositions += couchePrecedente.indexOf(l.getNomClasseDest());
-                connexions++;
+                for (int cx = Math.floorDiv(x, CELLULE); cx <= Math.floorDiv(x2, CELLULE); cx++)
+                {
+                    List<int[]> rs = this.cellules.get(cle(cx, cy));
+                    if (rs == null) continue;
+
+                    for (int[] r : rs) if (x < r[2] && r[0] < x2 && y < r[3] && r[1] < y2) return false;
+                }
             }
+            return true;
+        }
+
+        /**
+         * Place libre la plus proche du coin souhaité, cherchée par anneaux
+         * de plus en plus larges (sans sortir du quart de plan positif).
+         * Seul le pourtour de chaque anneau est parcouru, ligne par ligne :
+         * rangées du haut et du bas entières, deux cases sur les autres.
+         */
+        private Point chercher(int x, int y, int largeur, int hauteur)
+        {
+            x = Math.max(0, x);
+            y = Math.max(0, y);
+
+            for (int rayon = 0; ; rayon++)
+            {
+                Point  meilleur = null;
+                double distance = Double.MAX_VALUE;
+
+                for (int dy = -rayon; dy <= rayon; dy++)
+                {
+                    int py = y + dy * PAS;
+                    if (py < 0) continue;
+
+                    int pasX = Math.abs(dy) == rayon ? 1 : 2 * rayon;
+
+                    for (int dx = -rayon; dx <= rayon; dx += Math.max(1, pasX))
+                    {
+                        int px = x + dx * PAS;
+                        if (px < 0 || !this.estLibre(px, py, largeur, hauteur)) continue;
+
+                        double d = Math.hypot(dx, dy);
+                        if (d < distance) { distance = d; meilleur = new Point(px, py); }
+                    }
+                }
+                if (meilleur != null) return meilleur;
+            }
+        }
+
+        private static long cle(int cx, int cy)
+        {
+            return ((long) cx << 32) ^ (cy & 0xFFFFFFFFL);
         }
-        return connexions == 0 ? 0 : sommePositions / connexions;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+package modele.outil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Recherche des fichiers sources d'un projet, sous-dossiers compris.
+ *
+ * Le parcours repose sur {@link Files#walkFileTree} et transmet chaque
+ * fichier retenu dès qu'il est trouvé, sans construire la liste complète.
+ * Les filtres sont des motifs glob :
+ * <ul>
+ *   <li>un motif sans '/' porte sur le nom seul ("*.java", "target") ;</li>
+ *   <li>un motif avec '/' porte sur le chemin relatif à la racine
+ *       ("src/main/java/**", "module-a/src/**").</li>
+ * </ul>
+ * Un dossier exclu n'est pas parcouru du tout.
+ */
+public class ExplorateurSources
+{
+    /** Dossiers de build, de gestion de version et de sources générées ignorés par défaut. */
+    public static final String[] EXCLUSIONS_PAR_DEFAUT = { "target", "build", ".git", ".svn", ".hg", ".idea",
+                                                           "node_modules", "generated-sources",
+                                                           "generated-test-sources", ".retroconcepteur" };
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private List<String     > motifsInclusion ;
+    private List<String     > motifsExclusion ;
+    private List<PathMatcher> inclusions      ;
+    private List<PathMatcher> exclusions      ;
+    private boolean           recursif        ;
+
+    /*-------------------------------------- */
+    /* Constructeurs                         */
+    /*-------------------------------------- */
+
+    /**
+     * Explorateur des fichiers .java, récursif, avec les exclusions par défaut.
+     */
+    public ExplorateurSources()
+    {
+        this(List.of("*.java"), List.of(ExplorateurSources.EXCLUSIONS_PAR_DEFAUT));
+    }
+
+    public ExplorateurSources(List<String> inclusions, List<String> exclusions)
+    {
+        this.motifsInclusion = new ArrayList<String     >();
+        this.motifsExclusion = new ArrayList<String     >();
+        this.inclusions      = new ArrayList<PathMatcher>();
+        this.exclusions      = new ArrayList<PathMatcher>();
+        this.recursif        = true;
+
+        for (String motif : inclusions) this.ajouterInclusion(motif);
+        for (String motif : exclusions) this.ajouterExclusion(motif);
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs / Modificateurs            */
+    /*-------------------------------------- */
+    public List<String> getInclusions() { return new ArrayList<String>(this.motifsInclusion); }
+    public List<String> getExclusions() { return new ArrayList<String>(this.motifsExclusion); }
+    public boolean      isRecursif   () { return this.recursif; }
+
+    /** En mode non récursif seul le dossier racine est lu. */
+    public void setRecursif(boolean recursif) { this.recursif = recursif; }
+
+    public void ajouterInclusion(String motif)
+    {
+        this.motifsInclusion.add(motif);
+        this.inclusions     .add(ExplorateurSources.compiler(motif));
+    }
+
+    public void ajouterExclusion(String motif)
+    {
+        this.motifsExclusion.add(motif);
+        this.exclusions     .add(ExplorateurSources.compiler(motif));
+    }
+
+    /*-------------------------------------- */
+    /* Parcours                              */
+    /*-------------------------------------- */
+
+    /**
+     * Transmet chaque fichier retenu sous la racine, dans l'ordre du parcours.
+     */
+    public void parcourir(Path racine, Consumer<File> action)
+    {
+        this.explorer(racine, racine, action, null);
+    }
+
+    /**
+     * Transmet chaque fichier retenu sous {@code depart}, sous-dossier de la
+     * racine (les filtres restent relatifs à la racine).
+     */
+    public void parcourir(Path racine, Path depart, Consumer<File> action)
+    {
+        this.explorer(racine, depart, action, null);
+    }
+
+    /**
+     * Transmet chaque dossier parcouru sous {@code depart} (compris), dans
+     * l'ordre du parcours. Les filtres restent relatifs à la racine.
+     */
+    public void parcourirDossiers(Path racine, Path depart, Consumer<Path> action)
+    {
+        this.explorer(racine, depart, null, action);
+    }
+
+    /**
+     * Liste les fichiers retenus sous la racine.
+     */
+    public List<File> lister(File racine)
+    {
+        List<File> fichiers = new ArrayList<File>();
+        this.parcourir(racine.toPath(), fichiers::add);
+        return fichiers;
+    }
+
+    /**
+     * Indique si un chemin situé sous la racine, ou l'un de ses dossiers
+     * parents, est écarté par les exclusions.
+     */
+    public boolean estExclu(Path racine, Path chemin)
+    {
+        Path relatif = racine.relativize(chemin);
+
+        if (!this.recursif && relatif.getNameCount() > 1) return true;
+
+        for (int i = 1; i <= relatif.getNameCount(); i++)
+        {
+            if (this.correspond(this.exclusions, relatif.subpath(0, i))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indique si un fichier situé sous la racine serait retenu par le parcours.
+     */
+    public boolean accepte(Path racine, Path fichier)
+    {
+        return !this.estExclu(racine, fichier) && this.correspond(this.inclusions, racine.relativize(fichier));
+    }
+
+    private void explorer(Path racine, Path depart, Consumer<File> actionFichier, Consumer<Path> actionDossier)
+    {
+        if (!Files.isDirectory(depart)) return;
+
+        try
+        {
+            Files.walkFileTree(depart, new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dossier, BasicFileAttributes attrs)
+                {
+                    if (!dossier.equals(depart))
+                    {
+                        if (!ExplorateurSources.this.recursif) return FileVisitResult.SKIP_SUBTREE;
+
+                        Path relatif = racine.relativize(dossier);
+                        if (ExplorateurSources.this.correspond(ExplorateurSources.this.exclusions, relatif))
+                            return FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    if (actionDossier != null) actionDossier.accept(dossier);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path fichier, BasicFileAttributes attrs)
+                {
+                    if (actionFichier != null && attrs.isRegularFile()
+                        && ExplorateurSources.this.estRetenu(racine.relativize(fichier)))
+                    {
+                        actionFichier.accept(fichier.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path fichier, IOException e)
+                {
+                    // Fichier ou dossier illisible : ignoré
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            // Parcours interrompu : les fichiers déjà transmis restent valables
+        }
+    }
+
+    private boolean estRetenu(Path relatif)
+    {
+        return this.correspond(this.inclusions, relatif) && !this.correspond(this.exclusions, relatif);
+    }
+
+    private boolean correspond(List<PathMatcher> motifs, Path relatif)
+    {
+        Path nom = relatif.getFileName();
+
+        for (PathMatcher m : motifs)
+        {
+            if (m.matches(relatif) || (nom != null && m.matches(nom))) return true;
+        }
+        return false;
+    }
+
+    private static PathMatcher compiler(String motif)
+    {
+        FileSystem fs = FileSystems.getDefault();
+        return fs.getPathMatcher("glob:" + motif);
+    }
+}
@@ -0,0 +1,253 @@
+package modele.outil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import modele.entites.ClasseObjet;
+import vue.LiaisonVue;
+
+/**
+ * Graphe d'héritage / d'implémentation utilisé par la disposition automatique.
+ *
+ * Les sommets sont les classes (dans l'ordre de la liste fournie) puis les
+ * noms rencontrés seulement dans les liaisons ; chaque arête va d'une classe
+ * enfant vers son parent. Les cycles (noms simples en double, code en cours
+ * d'écriture...) sont cassés en inversant les arêtes arrière d'un parcours
+ * en profondeur, puis chaque sommet reçoit sa couche par le plus long chemin
+ * depuis une racine, en un seul passage dans l'ordre topologique.
+ *
+ * Le tout est linéaire en nombre de sommets et d'arêtes.
+ */
+public class GrapheHierarchie
+{
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private List<String>         noms    ;
+    private Map<String, Integer> indices ;
+    private int                  nbClasses;
+
+    // Adjacence après cassage des cycles
+    private int[][]              parents ;
+    private int[][]              enfants ;
+
+    private int[]                couches ;
+    private int                  nbCouches;
+    private int                  nbAretesInversees;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public GrapheHierarchie(List<ClasseObjet> classes, List<LiaisonVue> liaisons)
+    {
+        this.noms    = new ArrayList<String>();
+        this.indices = new HashMap<String, Integer>();
+
+        for (ClasseObjet c : classes) this.sommet(c.getNom());
+        this.nbClasses = this.noms.size();
+
+        // Arêtes enfant -> parent, boucles écartées
+        int[] origines     = new int[liaisons.size()];
+        int[] destinations = new int[liaisons.size()];
+        int   nbAretes     = 0;
+
+        for (LiaisonVue l : liaisons)
+        {
+            if (l.getType() != LiaisonVue.TypeLiaison.HERITAGE && l.getType() != LiaisonVue.TypeLiaison.IMPLEMENTATION)
+                continue;
+
+            int enfant = this.sommet(l.getNomClasseOrig());
+            int parent = this.sommet(l.getNomClasseDest());
+            if (enfant == parent) continue;
+
+            origines    [nbAretes] = enfant;
+            destinations[nbAretes] = parent;
+            nbAretes++;
+        }
+
+        this.casserCycles(origines, destinations, nbAretes);
+        this.construireAdjacence(origines, destinations, nbAretes);
+        this.calculerCouches();
+    }
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+    public int    getNbSommets        ()      { return this.noms.size()      ; }
+
+    /** Les classes fournies occupent les indices 0 à getNbClasses() - 1. */
+    public int    getNbClasses        ()      { return this.nbClasses        ; }
+    public String getNom              (int i) { return this.noms.get(i)      ; }
+    public int    getCouche           (int i) { return this.couches[i]       ; }
+    public int    getNbCouches        ()      { return this.nbCouches        ; }
+    public int    getNbAretesInversees()      { return this.nbAretesInversees; }
+
+    /** Parents du sommet (sens enfant -> parent, après cassage des cycles). */
+    public int[]  getParents          (int i) { return this.parents[i]       ; }
+    public int[]  getEnfants          (int i) { return this.enfants[i]       ; }
+
+    /** Indice du sommet portant ce nom, ou -1. */
+    public int getIndice(String nom)
+    {
+        Integer i = this.indices.get(nom);
+        return i == null ? -1 : i;
+    }
+
+    /** Couche du sommet portant ce nom (0 s'il est inconnu). */
+    public int getCouche(String nom)
+    {
+        int i = this.getIndice(nom);
+        return i < 0 ? 0 : this.couches[i];
+    }
+
+    /*-------------------------------------- */
+    /* Construction                          */
+    /*-------------------------------------- */
+    private int sommet(String nom)
+    {
+        Integer i = this.indices.get(nom);
+        if (i != null) return i;
+
+        this.indices.put(nom, this.noms.size());
+        this.noms.add(nom);
+        return this.noms.size() - 1;
+    }
+
+    /**
+     * Parcours en profondeur itératif dans le sens enfant -> parent : une
+     * arête qui revient sur un sommet de la pile ferme un cycle et est
+     * inversée. Le graphe obtenu n'a plus de cycle.
+     */
+    private void casserCycles(int[] origines, int[] destinations, int nbAretes)
+    {
+        int   n       = this.noms.size();
+        int[] debut   = new int[n + 1];
+        int[] sortant = new int[nbAretes];
+
+        for (int e = 0; e < nbAretes; e++) debut[origines[e] + 1]++;
+        for (int i = 0; i < n; i++) debut[i + 1] += debut[i];
+
+        int[] rempli = Arrays.copyOf(debut, n);
+        for (int e = 0; e < nbAretes; e++) sortant[rempli[origines[e]]++] = e;
+
+        // 0 : non visité, 1 : sur la pile, 2 : terminé
+        byte[]    etat    = new byte[n];
+        int[]     pile    = new int[n];
+        int[]     suivant = new int[n];
+        boolean[] inverse = new boolean[nbAretes];
+
+        for (int racine = 0; racine < n; racine++)
+        {
+            if (etat[racine] != 0) continue;
+
+            int hauteur = 0;
+            pile[hauteur++] = racine;
+            suivant[racine] = debut[racine];
+            etat[racine]    = 1;
+
+            while (hauteur > 0)
+            {
+                int u = pile[hauteur - 1];
+
+                if (suivant[u] == debut[u + 1])
+                {
+                    etat[u] = 2;
+                    hauteur--;
+                    continue;
+                }
+
+                int e = sortant[suivant[u]++];
+                int v = destinations[e];
+
+                if (etat[v] == 1)
+                {
+                    inverse[e] = true;
+                }
+                else if (etat[v] == 0)
+                {
+                    etat[v]         = 1;
+                    suivant[v]      = debut[v];
+                    pile[hauteur++] = v;
+                }
+            }
+        }
+
+        for (int e = 0; e < nbAretes; e++)
+        {
+            if (!inverse[e]) continue;
+
+            int t = origines[e];
+            origines    [e] = destinations[e];
+            destinations[e] = t;
+            this.nbAretesInversees++;
+        }
+    }
+
+    private void construireAdjacence(int[] origines, int[] destinations, int nbAretes)
+    {
+        int   n         = this.noms.size();
+        int[] nbParents = new int[n];
+        int[] nbEnfants = new int[n];
+
+        for (int e = 0; e < nbAretes; e++)
+        {
+            nbParents[origines    [e]]++;
+            nbEnfants[destinations[e]]++;
+        }
+
+        this.parents = new int[n][];
+        this.enfants = new int[n][];
+        for (int i = 0; i < n; i++)
+        {
+            this.parents[i] = new int[nbParents[i]];
+            this.enfants[i] = new int[nbEnfants[i]];
+        }
+
+        Arrays.fill(nbParents, 0);
+        Arrays.fill(nbEnfants, 0);
+        for (int e = 0; e < nbAretes; e++)
+        {
+            int enfant = origines    [e];
+            int parent = destinations[e];
+
+            this.parents[enfant][nbParents[enfant]++] = parent;
+            this.enfants[parent][nbEnfants[parent]++] = enfant;
+        }
+    }
+
+    /**
+     * Plus long chemin depuis les racines, dans l'ordre topologique (Kahn) :
+     * une racine est en couche 0, un enfant une couche sous son parent le
+     * plus bas.
+     */
+    private void calculerCouches()
+    {
+        int   n        = this.noms.size();
+        int[] restants = new int[n];
+        int[] file     = new int[n];
+        int   tete     = 0;
+        int   queue    = 0;
+
+        this.couches = new int[n];
+
+        for (int i = 0; i < n; i++)
+        {
+            restants[i] = this.parents[i].length;
+            if (restants[i] == 0) file[queue++] = i;
+        }
+
+        while (tete < queue)
+        {
+            int p = file[tete++];
+            this.nbCouches = Math.max(this.nbCouches, this.couches[p] + 1);
+
+            for (int c : this.enfants[p])
+            {
+                this.couches[c] = Math.max(this.couches[c], this.couches[p] + 1);
+                if (--restants[c] == 0) file[queue++] = c;
+            }
+        }
+    }
+}
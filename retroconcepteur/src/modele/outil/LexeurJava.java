@@ -0,0 +1,276 @@
+package modele.outil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
+
+/**
+ * Analyseur lexical en un seul passage sur le texte d'un fichier Java.
+ *
+ * Le fichier est lu dans un tampon {@code char[]} réutilisé d'un fichier à
+ * l'autre. Les chaînes, caractères littéraux et commentaires (ligne et bloc)
+ * sont suivis caractère par caractère : seuls les jetons structurels sont
+ * émis (identifiants, mots-clés, accolades, parenthèses, ...), sans créer de
+ * String. Le texte d'un jeton n'est matérialisé qu'à la demande.
+ *
+ * Une instance n'est pas thread-safe : utiliser une instance par thread.
+ */
+public final class LexeurJava
+{
+    /**
+     * Types de jetons émis par le lexeur.
+     */
+    public enum TypeJeton
+    {
+        IDENT, ACCOLADE_OUVRANTE, ACCOLADE_FERMANTE, PARENTHESE_OUVRANTE, PARENTHESE_FERMANTE,
+        POINT_VIRGULE, VIRGULE, POINT, CHEVRON_OUVRANT, CHEVRON_FERMANT, EGAL, AROBASE,
+        CHAINE, CARACTERE, AUTRE, FIN
+    }
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private char[]    tampon     ;
+    private int       longueur   ;
+    private int       position   ;
+
+    private TypeJeton type       ;
+    private int       debutJeton ;
+    private int       finJeton   ;
+    private boolean   espaceAvant;
+    private boolean   rejouer    ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public LexeurJava()
+    {
+        this.tampon   = new char[8192];
+        this.longueur = 0;
+        this.position = 0;
+        this.type     = TypeJeton.FIN;
+    }
+
+    /*-------------------------------------- */
+    /* Chargement                            */
+    /*-------------------------------------- */
+
+    /**
+     * Charge le contenu d'un fichier dans le tampon (agrandi si nécessaire).
+     * L'encodage est celui de la plateforme, comme le faisait le Scanner.
+     */
+    public void charger(File fichier) throws IOException
+    {
+        this.charger(fichier, null);
+    }
+
+    /**
+     * Charge le fichier en mettant à jour la somme de contrôle avec les octets
+     * lus : le contenu n'est lu qu'une fois pour l'analyse et l'empreinte.
+     *
+     * @param somme somme de contrôle à alimenter, ou null
+     */
+    public void charger(File fichier, Checksum somme) throws IOException
+    {
+        this.longueur = 0;
+        this.position = 0;
+        this.rejouer  = false;
+        this.type     = TypeJeton.FIN;
+
+        InputStream octets = new FileInputStream(fichier);
+        if (somme != null) octets = new CheckedInputStream(octets, somme);
+
+        try (Reader lecteur = new InputStreamReader(octets))
+        {
+            int lu;
+            while ((lu = lecteur.read(this.tampon, this.longueur, this.tampon.length - this.longueur)) != -1)
+            {
+                this.longueur += lu;
+
+                if (this.longueur == this.tampon.length)
+                {
+                    char[] plusGrand = new char[this.tampon.length * 2];
+                    System.arraycopy(this.tampon, 0, plusGrand, 0, this.longueur);
+                    this.tampon = plusGrand;
+                }
+            }
+        }
+    }
+
+    /*-------------------------------------- */
+    /* Accès au jeton courant                */
+    /*-------------------------------------- */
+    public TypeJeton getType       () { return this.type       ; }
+    public boolean   aEspaceAvant  () { return this.espaceAvant; }
+
+    /** Le jeton courant sera renvoyé une nouvelle fois par {@link #suivant()}. */
+    public void      rejouer       () { this.rejouer = true    ; }
+
+    /**
+     * Compare le jeton courant à un mot sans allouer de String.
+     */
+    public boolean estMot(String mot)
+    {
+        if (this.type != TypeJeton.IDENT || this.finJeton - this.debutJeton != mot.length()) return false;
+
+        for (int i = 0; i < mot.length(); i++)
+        {
+            if (this.tampon[this.debutJeton + i] != mot.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** Matérialise le texte du jeton courant. */
+    public String texte() { return new String(this.tampon, this.debutJeton, this.finJeton - this.debutJeton); }
+
+    /**
+     * Ajoute le texte du jeton courant au tampon fourni.
+     * Le contenu des chaînes est neutralisé (remplacé par "").
+     */
+    public void ajouterA(StringBuilder sb)
+    {
+        if (this.type == TypeJeton.CHAINE) sb.append("\"\"");
+        else                               sb.append(this.tampon, this.debutJeton, this.finJeton - this.debutJeton);
+    }
+
+    /*-------------------------------------- */
+    /* Lecture                               */
+    /*-------------------------------------- */
+
+    /**
+     * Avance jusqu'au prochain jeton structurel.
+     *
+     * @return le type du jeton lu ({@code FIN} en fin de fichier)
+     */
+    public TypeJeton suivant()
+    {
+        if (this.rejouer)
+        {
+            this.rejouer = false;
+            return this.type;
+        }
+
+        this.espaceAvant = false;
+        char[] t = this.tampon;
+        int    n = this.longueur;
+        int    i = this.position;
+
+        // Espaces et commentaires
+        while (i < n)
+        {
+            char c = t[i];
+
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f')
+            {
+                this.espaceAvant = true;
+                i++;
+            }
+            else if (c == '/' && i + 1 < n && t[i + 1] == '/')
+            {
+                this.espaceAvant = true;
+                i += 2;
+                while (i < n && t[i] != '\n') i++;
+            }
+            else if (c == '/' && i + 1 < n && t[i + 1] == '*')
+            {
+                this.espaceAvant = true;
+                i += 2;
+                while (i < n && !(t[i] == '*' && i + 1 < n && t[i + 1] == '/')) i++;
+                i = Math.min(n, i + 2);
+            }
+            else break;
+        }
+
+        this.debutJeton = i;
+
+        if (i >= n)
+        {
+            this.position = this.finJeton = n;
+            return this.type = TypeJeton.FIN;
+        }
+
+        char c = t[i];
+
+        if (Character.isJavaIdentifierStart(c))
+        {
+            i++;
+            while (i < n && Character.isJavaIdentifierPart(t[i])) i++;
+            this.type = TypeJeton.IDENT;
+        }
+        else if (c >= '0' && c <= '9')
+        {
+            i++;
+            while (i < n && (Character.isJavaIdentifierPart(t[i]) || t[i] == '.')) i++;
+            this.type = TypeJeton.AUTRE;
+        }
+        else if (c == '"')
+        {
+            if (i + 2 < n && t[i + 1] == '"' && t[i + 2] == '"')
+            {
+                // Bloc de texte """ ... """
+                i += 3;
+                while (i < n && !(t[i] == '"' && i + 2 < n && t[i + 1] == '"' && t[i + 2] == '"'))
+                {
+                    i += (t[i] == '\\') ? 2 : 1;
+                }
+                i = Math.min(n, i + 3);
+            }
+            else
+            {
+                i = this.finLitteral(i + 1, '"');
+            }
+            this.type = TypeJeton.CHAINE;
+        }
+        else if (c == '\'')
+        {
+            i = this.finLitteral(i + 1, '\'');
+            this.type = TypeJeton.CARACTERE;
+        }
+        else
+        {
+            i++;
+            switch (c)
+            {
+                case '{': this.type = TypeJeton.ACCOLADE_OUVRANTE  ; break;
+                case '}': this.type = TypeJeton.ACCOLADE_FERMANTE  ; break;
+                case '(': this.type = TypeJeton.PARENTHESE_OUVRANTE; break;
+                case ')': this.type = TypeJeton.PARENTHESE_FERMANTE; break;
+                case ';': this.type = TypeJeton.POINT_VIRGULE      ; break;
+                case ',': this.type = TypeJeton.VIRGULE            ; break;
+                case '.': this.type = TypeJeton.POINT              ; break;
+                case '<': this.type = TypeJeton.CHEVRON_OUVRANT    ; break;
+                case '>': this.type = TypeJeton.CHEVRON_FERMANT    ; break;
+                case '=': this.type = TypeJeton.EGAL               ; break;
+                case '@': this.type = TypeJeton.AROBASE            ; break;
+
+                default : this.type = TypeJeton.AUTRE;
+            }
+        }
+
+        this.position = this.finJeton = Math.min(i, n);
+        return this.type;
+    }
+
+    /**
+     * Renvoie la position qui suit le délimiteur fermant d'un littéral
+     * (gère les échappements ; un littéral non fermé s'arrête en fin de ligne).
+     */
+    private int finLitteral(int i, char delimiteur)
+    {
+        while (i < this.longueur)
+        {
+            char c = this.tampon[i];
+
+            if (c == '\\')       { i += 2; continue; }
+            if (c == delimiteur) return i + 1;
+            if (c == '\n')       return i;
+            i++;
+        }
+        return this.longueur;
+    }
+}
@@ -0,0 +1,131 @@
+package modele.outil;
+
+/**
+ * Mesures d'une disposition calculée par {@link DispositionOptimiseur} :
+ * qualité (croisements, longueur des liaisons, surface) et coût de chaque
+ * phase. Rempli par {@code calculerPositions(classes, liaisons, rapport)}.
+ *
+ * Les distances sont prises entre les centres des blocs et la surface est
+ * celle du rectangle englobant, avec les tailles fournies au calcul (taille
+ * par défaut sinon). Les croisements tiennent compte des nœuds fictifs.
+ */
+public class RapportDisposition
+{
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private DispositionOptimiseur.Moteur moteur = DispositionOptimiseur.Moteur.COUCHES;
+
+    private int    nbClasses           ;
+    private int    nbComposantes       ;
+    private int    nbClassesConservees ;
+    private int    nbCouches           ;
+    private int    nbAretesInversees   ;
+    private int    nbNoeudsFictifs     ;
+    private int    nbBalayages         ;
+    private int    nbIterations        ;
+    private long   croisementsInitiaux ;
+    private long   croisements         ;
+    private double longueurLiaisons    ;
+    private long   surface             ;
+
+    private long   dureeCouches        ;
+    private long   dureeOrdre          ;
+    private long   dureeCoordonnees    ;
+    private long   dureeTotale         ;
+
+    /*-------------------------------------- */
+    /* Accesseurs                            */
+    /*-------------------------------------- */
+    public DispositionOptimiseur.Moteur getMoteur() { return this.moteur; }
+
+    public int    getNbClasses          () { return this.nbClasses          ; }
+
+    /** Composantes connexes disposées séparément puis rangées (disposition en couches). */
+    public int    getNbComposantes      () { return this.nbComposantes      ; }
+
+    /** Classes dont la position a été conservée (disposition incrémentale). */
+    public int    getNbClassesConservees() { return this.nbClassesConservees; }
+    public int    getNbCouches          () { return this.nbCouches          ; }
+    public int    getNbAretesInversees  () { return this.nbAretesInversees  ; }
+
+    /** Nœuds ajoutés sur les liaisons qui traversent plusieurs couches. */
+    public int    getNbNoeudsFictifs    () { return this.nbNoeudsFictifs    ; }
+    public int    getNbBalayages        () { return this.nbBalayages        ; }
+
+    /** Itérations de la simulation (disposition par forces). */
+    public int    getNbIterations       () { return this.nbIterations       ; }
+
+    /** Croisements entre couches consécutives avant la réduction (ordre initial). */
+    public long   getCroisementsInitiaux() { return this.croisementsInitiaux; }
+
+    /** Croisements entre couches consécutives de la disposition retenue. */
+    public long   getCroisements        () { return this.croisements        ; }
+    public double getLongueurLiaisons   () { return this.longueurLiaisons   ; }
+    public long   getSurface            () { return this.surface            ; }
+
+    /**
+     * Durées des phases, en nanosecondes. Pour la disposition par forces,
+     * l'ordre correspond à la simulation et les coordonnées au rangement
+     * des blocs sur la grille.
+     */
+    public long   getDureeCouches       () { return this.dureeCouches       ; }
+    public long   getDureeOrdre         () { return this.dureeOrdre         ; }
+    public long   getDureeCoordonnees   () { return this.dureeCoordonnees   ; }
+
+    /** Durée totale du calcul ; les phases des composantes se cumulent d'un fil à l'autre. */
+    public long   getDureeTotale        () { return this.dureeTotale        ; }
+
+    /*-------------------------------------- */
+    /* Modificateurs (DispositionOptimiseur) */
+    /*-------------------------------------- */
+    void setMoteur(DispositionOptimiseur.Moteur moteur) { this.moteur = moteur; }
+
+    void setNbClasses          (int    nb    ) { this.nbClasses           = nb    ; }
+    void setNbComposantes      (int    nb    ) { this.nbComposantes       = nb    ; }
+    void setNbClassesConservees(int    nb    ) { this.nbClassesConservees = nb    ; }
+    void setNbCouches          (int    nb    ) { this.nbCouches           = nb    ; }
+    void setNbAretesInversees  (int    nb    ) { this.nbAretesInversees   = nb    ; }
+    void setNbNoeudsFictifs    (int    nb    ) { this.nbNoeudsFictifs     = nb    ; }
+    void setNbBalayages        (int    nb    ) { this.nbBalayages         = nb    ; }
+    void setNbIterations       (int    nb    ) { this.nbIterations        = nb    ; }
+    void setCroisementsInitiaux(long   nb    ) { this.croisementsInitiaux = nb    ; }
+    void setCroisements        (long   nb    ) { this.croisements         = nb    ; }
+    void setLongueurLiaisons   (double lg    ) { this.longueurLiaisons    = lg    ; }
+    void setSurface            (long   aire  ) { this.surface             = aire  ; }
+    void setDureeCouches       (long   duree ) { this.dureeCouches        = duree ; }
+    void setDureeOrdre         (long   duree ) { this.dureeOrdre          = duree ; }
+    void setDureeCoordonnees   (long   duree ) { this.dureeCoordonnees    = duree ; }
+    void setDureeTotale        (long   duree ) { this.dureeTotale         = duree ; }
+
+    @Override
+    public String toString()
+    {
+        String mesures = String.format("Longueur des liaisons  : %.0f px%n", this.longueurLiaisons)
+                       + String.format("Surface occupée        : %d px²%n", this.surface);
+
+        if (this.nbClassesConservees > 0)
+            return String.format("Classes                : %d (%d conservée(s), %d placée(s))%n", this.nbClasses,
+                                 this.nbClassesConservees, this.nbClasses - this.nbClassesConservees)
+                 + mesures
+                 + String.format("Temps                  : %.2f ms", this.dureeTotale / 1e6);
+
+        if (this.moteur == DispositionOptimiseur.Moteur.FORCES)
+            return String.format("Classes                : %d (disposition par forces)%n", this.nbClasses)
+                 + String.format("Itérations             : %d%n", this.nbIterations)
+                 + mesures
+                 + String.format("Temps                  : simulation %.2f ms, grille %.2f ms",
+                                 this.dureeOrdre / 1e6, this.dureeCoordonnees / 1e6);
+
+        return String.format("Classes                : %d (%d composante(s) connexe(s))%n", this.nbClasses, this.nbComposantes)
+             + String.format("Couches                : %d (%d arête(s) inversée(s) pour casser les cycles)%n",
+                             this.nbCouches, this.nbAretesInversees)
+             + String.format("Nœuds fictifs          : %d%n", this.nbNoeudsFictifs)
+             + String.format("Croisements            : %d (avant réduction : %d, %d balayage(s))%n",
+                             this.croisements, this.croisementsInitiaux, this.nbBalayages)
+             + mesures
+             + String.format("Temps                  : %.2f ms (cumulé : couches %.2f ms, ordre %.2f ms, coordonnées %.2f ms)",
+                             this.dureeTotale / 1e6, this.dureeCouches / 1e6, this.dureeOrdre / 1e6,
+                             this.dureeCoordonnees / 1e6);
+    }
+}
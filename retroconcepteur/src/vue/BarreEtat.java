@@ -0,0 +1,68 @@
+package vue;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+
+/**
+ * Barre d'état en bas de la fenêtre principale : message de l'étape en
+ * cours et barre de progression pendant le chargement d'un projet.
+ *
+ * À n'utiliser que depuis l'EDT.
+ *
+ * @author Quentin MORVAN, Valentin LEROY, Celim CHAOU, Enzo DUMONT,
+ *         Ariunbayar BUYANBADRAKH, Yassine EL MAADI
+ * @date   12 décembre 2025
+ */
+public class BarreEtat extends JPanel
+{
+    private JLabel       message    ;
+    private JProgressBar progression;
+
+    public BarreEtat()
+    {
+        this.setLayout(new BorderLayout(10, 0));
+        this.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+
+        this.message     = new JLabel("Prêt");
+        this.progression = new JProgressBar();
+        this.progression.setPreferredSize(new Dimension(200, 14));
+        this.progression.setVisible(false);
+
+        this.add(this.message,     BorderLayout.CENTER);
+        this.add(this.progression, BorderLayout.EAST);
+    }
+
+    /**
+     * Affiche une étape en cours.
+     *
+     * @param texte message de l'étape
+     * @param fait  unités traitées
+     * @param total unités à traiter, ou 0 si inconnu (barre indéterminée)
+     */
+    public void afficherEtape(String texte, int fait, int total)
+    {
+        this.message.setText(texte);
+
+        this.progression.setVisible(true);
+        this.progression.setIndeterminate(total <= 0);
+        if (total > 0)
+        {
+            this.progression.setMaximum(total);
+            this.progression.setValue(fait);
+        }
+    }
+
+    /**
+     * Affiche un message final et masque la barre de progression.
+     */
+    public void afficherMessage(String texte)
+    {
+        this.message.setText(texte);
+        this.progression.setIndeterminate(false);
+        this.progression.setVisible(false);
+    }
+}
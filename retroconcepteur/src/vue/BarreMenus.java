@@ -4,6 +4,7 @@ import controleur.Controleur;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import modele.outil.DispositionOptimiseur;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFileChooser;
 import javax.swing.JMenu;
@@ -32,11 +33,15 @@ public class BarreMenus extends JMenuBar implements ActionListener
     private JMenuItem ouvrirClasse;
     private JMenuItem sauvegarderClasse;
     private JMenuItem quitterClasse;
-    private JMenuItem optimiserClasse;
+    private JMenuItem optimiserCouches;
+    private JMenuItem optimiserForces;
+    private JMenuItem completerDispo;
     private JMenuItem itemExporter;
     private JMenuItem supprimerClasse;
 
     private JCheckBoxMenuItem afficherExternes;
+    private JCheckBoxMenuItem surveillerProjet;
+    private JCheckBoxMenuItem cacheRendu;
 
     private JMenuItem aProposClasse;
 
@@ -67,13 +72,16 @@ public class BarreMenus extends JMenuBar implements ActionListener
         this.sauvegarderClasse     = new JMenuItem("Sauvegarder au format txt");
         this.itemExporter          = new JMenuItem("Exporter le diagramme (PNG)");
         this.quitterClasse         = new JMenuItem("Quitter");
+        this.surveillerProjet      = new JCheckBoxMenuItem("Suivre les modifications du projet", true);
 
         ouvrirClasse     .addActionListener(this);
         sauvegarderClasse.addActionListener(this);
         itemExporter     .addActionListener(this);
         quitterClasse    .addActionListener(this);
+        surveillerProjet .addActionListener(this);
 
         menu.add(ouvrirClasse);
+        menu.add(surveillerProjet);
         menu.addSeparator();
         menu.add(sauvegarderClasse);
         menu.add(itemExporter);
@@ -87,19 +95,32 @@ public class BarreMenus extends JMenuBar implements ActionListener
     {
         JMenu menu = new JMenu("Affichage");
 
-        this.optimiserClasse  = new JMenuItem("Optimiser les positions");
+        JMenu optimiser       = new JMenu("Optimiser les positions");
+        this.optimiserCouches = new JMenuItem("En couches (héritage)");
+        this.optimiserForces  = new JMenuItem("Par forces (associations)");
+        this.completerDispo   = new JMenuItem("Compléter la disposition (positions conservées)");
         this.supprimerClasse  = new JMenuItem("Supprimer");
         this.afficherExternes = new JCheckBoxMenuItem("Afficher les classes externes", true);
+        this.cacheRendu       = new JCheckBoxMenuItem("Accélérer le rendu (images en cache)", false);
 
-        optimiserClasse .addActionListener(this);
+        optimiserCouches.addActionListener(this);
+        optimiserForces .addActionListener(this);
+        completerDispo  .addActionListener(this);
         supprimerClasse .addActionListener(this);
         afficherExternes.addActionListener(this);
+        cacheRendu      .addActionListener(this);
 
-        menu.add(optimiserClasse);
+        optimiser.add(optimiserCouches);
+        optimiser.add(optimiserForces);
+        optimiser.addSeparator();
+        optimiser.add(completerDispo);
+
+        menu.add(optimiser);
         menu.addSeparator();
         menu.add(supprimerClasse);
         menu.addSeparator();
         menu.add(afficherExternes);
+        menu.add(cacheRendu);
 
         return menu;
     }
@@ -123,10 +144,14 @@ public class BarreMenus extends JMenuBar implements ActionListener
         if (src == ouvrirClasse       ) {    actionOuvrirProjet()     ;    }
         if (src == sauvegarderClasse  ) {    actionSauvegarder()      ;    }
         if (src == supprimerClasse    ) {    actionSupprimer()        ;    }
-        if (src == optimiserClasse    ) {    actionOptimiser()        ;    }
+        if (src == optimiserCouches   ) {    actionOptimiser(DispositionOptimiseur.Moteur.COUCHES);    }
+        if (src == optimiserForces    ) {    actionOptimiser(DispositionOptimiseur.Moteur.FORCES );    }
+        if (src == completerDispo     ) {    actionCompleter()        ;    }
         if (src == aProposClasse      ) {    actionAPropos()          ;    }
         if (src == itemExporter       ) {    actionExporter()         ;    }
         if (src == afficherExternes   ) {    actionToggleExternes()   ;    }
+        if (src == cacheRendu         ) {    controleur.setCacheRendu(cacheRendu.isSelected());    }
+        if (src == surveillerProjet   ) {    controleur.setSurveillanceActive(surveillerProjet.isSelected());    }
         if (src == quitterClasse      ) {    System.exit(0)   ;    }
         
     }
@@ -148,10 +173,8 @@ public class BarreMenus extends JMenuBar implements ActionListener
             {
                 try 
                 {
+                    // Chargement en arrière-plan : l'avancement s'affiche dans la barre d'état
                     controleur.analyserEtAfficherDiagramme( dossier.getAbsolutePath());
-
-                    JOptionPane.showMessageDialog( SwingUtilities.getWindowAncestor(this),
-                                                   "Dossier chargé : " + dossier.getName());
                     panneauProjets.ajouterProjet(dossier.getAbsolutePath());
                 } 
                 catch (Exception ex) 
@@ -237,11 +260,32 @@ public class BarreMenus extends JMenuBar implements ActionListener
     }
 
 
-    public void actionOptimiser() 
+    public void actionOptimiser(DispositionOptimiseur.Moteur moteur) 
+    {
+        controleur.setMoteurDisposition(moteur);
+
+        // Calcul en arrière-plan : le message s'affiche une fois les blocs déplacés
+        controleur.optimiserDisposition(() ->
+        {
+            String message = "Positions optimisées !";
+            if (controleur.getDernierRapportDisposition() != null)
+                message += "\n\n" + controleur.getDernierRapportDisposition();
+
+            JOptionPane.showMessageDialog( SwingUtilities.getWindowAncestor(this),message,
+                                           "Succès",JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    /** Place les blocs qui n'ont pas encore de position, sans toucher aux autres. */
+    public void actionCompleter() 
     {
-        controleur.optimiserDisposition();
+        controleur.completerDisposition();
+
+        String message = "Disposition complétée !";
+        if (controleur.getDernierRapportDisposition() != null)
+            message += "\n\n" + controleur.getDernierRapportDisposition();
 
-        JOptionPane.showMessageDialog( SwingUtilities.getWindowAncestor(this),"Positions optimisées !",
+        JOptionPane.showMessageDialog( SwingUtilities.getWindowAncestor(this),message,
                                        "Succès",JOptionPane.INFORMATION_MESSAGE);
     }
 
@@ -2,13 +2,14 @@
 package vue;
 
 import java.awt.BasicStroke;
-import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Représentation graphique d'une classe UML.
@@ -38,9 +39,14 @@ public class BlocClasse
     private boolean estInterface  ;
     private boolean estSelectionne;
     private boolean estExterne    ; // NOUVEAU: Champ pour marquer une classe comme externe
+    private boolean estPlace      ; // position choisie (déplacement ou disposition), à conserver
+    private int     versionRendu  ;
 
+    // Membres déjà convertis, conservés même masqués : changer la visibilité ne reconvertit rien
     private List<String> attributsAffichage;
     private List<String> methodesAffichage ;
+    private boolean      attributsVisibles = true;
+    private boolean      methodesVisibles  = true;
 
     private static final int PADDING        = 10;
     private static final int HAUTEUR_ENTETE = 30;
@@ -50,6 +56,27 @@ public class BlocClasse
     private static final Color COULEUR_FOND_EXTERNE = new Color(235, 235, 235);
     private static final Color COULEUR_BORDURE      = new Color(0, 0, 0);
 
+    private static final Color COULEUR_SILHOUETTE         = new Color(170, 170, 170);
+    private static final Color COULEUR_SILHOUETTE_EXTERNE = new Color(215, 215, 215);
+
+    private static final Font POLICE_NOM        = new Font("Arial", Font.BOLD  , 12);
+    private static final Font POLICE_SOUS_TITRE = new Font("Arial", Font.ITALIC, 11);
+    private static final Font POLICE_MEMBRE     = new Font("Arial", Font.PLAIN , 12);
+    private static final Font POLICE_NOM_SEUL   = new Font("Arial", Font.BOLD  , 24);
+
+    // Nom seul réduit pour tenir dans le bloc : une police par taille entière, de 8 à 24 points
+    private static final Font[] POLICES_NOM_REDUIT = new Font[24];
+    static
+    {
+        for (int taille = 8; taille < 24; taille++)
+            BlocClasse.POLICES_NOM_REDUIT[taille] = BlocClasse.POLICE_NOM_SEUL.deriveFont((float) taille);
+    }
+
+    // Libellés affichés pour chaque membre, calculés une fois par texte distinct (au plus LIMITE_LIBELLES)
+    private static final Map<String, String> LIBELLES           = new ConcurrentHashMap<>();
+    private static final Map<String, String> LIBELLES_CONDENSES = new ConcurrentHashMap<>();
+    private static final int                 LIMITE_LIBELLES    = 50_000;
+
     public BlocClasse(String nom, int x, int y, List<String> attributs, List<String> methodes)
     {
         this.nom = nom;
@@ -63,42 +90,6 @@ public class BlocClasse
         this.estSelectionne = false;
         this.estExterne     = false; // Initialisation du nouveau champ
 
-        // Calcul précis de la largeur du nom et du sous-titre avec la police réelle
-        Font fontNom            = new Font("Arial", Font.BOLD  , 12);
-        Font fontSousTitre      = new Font("Arial", Font.ITALIC, 11);
-        Canvas c                = new Canvas();
-        FontMetrics fmNom       = c.getFontMetrics(fontNom      );
-        FontMetrics fmSousTitre = c.getFontMetrics(fontSousTitre);
-
-        int largeurNom       = fmNom.stringWidth(this.nom);
-        int largeurSousTitre = 0;
-        
-        if (this.typeSpecifique != null && !this.typeSpecifique.isEmpty()) 
-            largeurSousTitre = fmSousTitre.stringWidth("<<" + this.typeSpecifique + ">>");
-
-        else if (this.estInterface) 
-            largeurSousTitre = fmSousTitre.stringWidth("<<interface>>");
-
-        int maxLgAttributs = attributs.stream()
-            .mapToInt(String::length)
-            .max()
-            .orElse(0) * 8;
-
-        int maxLgMethodes = methodes.stream()
-            .mapToInt(String::length)
-            .max()
-            .orElse(0) * 8;
-
-        int maxLgEntete = Math.max(largeurNom, largeurSousTitre);
-
-        this.largeur = Math.max(
-            200,
-            BlocClasse.PADDING * 2 + Math.max(maxLgEntete, Math.max(maxLgAttributs, maxLgMethodes)));
-
-        this.hauteur = BlocClasse.HAUTEUR_ENTETE
-                + (attributs.size() + methodes.size()) * BlocClasse.HAUTEUR_LIGNE
-                + BlocClasse.PADDING * 4;
-
         recalculerDimensions();
     }
 
@@ -114,28 +105,84 @@ public class BlocClasse
     public int    getHauteur       () {  return this.hauteur       ; }
     public String getTypeSpecifique() {  return this.typeSpecifique; }
 
-    public void setLargeur       (int     largeur     ) {  this.largeur        = largeur     ; }
+    /**
+     * Numéro incrémenté à chaque changement du contenu dessiné (hors position) :
+     * une image pré-rendue du bloc n'est valable que pour une version donnée.
+     */
+    public int    getVersionRendu  () {  return this.versionRendu  ; }
+
     public void setX             (int     x           ) {  this.x              = x           ; }
     public void setY             (int     y           ) {  this.y              = y           ; }
-    public void setInterface     (boolean estInterface) {  this.estInterface   = estInterface; }
-    public void setSelectionne   (boolean selectionne ) {  this.estSelectionne = selectionne ; }
-    public void setExterne       (boolean externe     ) {  this.estExterne     = externe     ; }
-    public void setTypeSpecifique(String  type        ) {  this.typeSpecifique = type        ; }
+
+    public void setLargeur(int largeur)
+    {
+        if (this.largeur != largeur) this.versionRendu++;
+        this.largeur = largeur;
+    }
+
+    public void setInterface(boolean estInterface)
+    {
+        if (this.estInterface != estInterface) this.versionRendu++;
+        this.estInterface = estInterface;
+        recalculerDimensions();
+    }
+
+    /**
+     * Marque la position comme choisie : la disposition incrémentale ne
+     * déplace pas un bloc placé.
+     */
+    public void setPlace(boolean place) {  this.estPlace = place;  }
+
+    public void setSelectionne(boolean selectionne)
+    {
+        if (this.estSelectionne != selectionne) this.versionRendu++;
+        this.estSelectionne = selectionne;
+    }
+
+    public void setExterne(boolean externe)
+    {
+        if (this.estExterne != externe) this.versionRendu++;
+        this.estExterne = externe;
+    }
+
+    public void setTypeSpecifique(String type)
+    {
+        this.typeSpecifique = type;
+        this.versionRendu++;
+        recalculerDimensions();
+    }
 
     public void setAttributs(List<String> attributs) 
     {
         this.attributsAffichage = attributs;
+        this.versionRendu++;
         recalculerDimensions();
     }
 
     public void setMethodes(List<String> methodes) 
     {
         this.methodesAffichage = methodes;
+        this.versionRendu++;
+        recalculerDimensions();
+    }
+
+    /**
+     * Affiche ou masque les attributs et les méthodes sans les reconvertir :
+     * seules les dimensions sont recalculées, la position ne change pas.
+     */
+    public void setMembresVisibles(boolean attributs, boolean methodes)
+    {
+        if (this.attributsVisibles == attributs && this.methodesVisibles == methodes) return;
+
+        this.attributsVisibles = attributs;
+        this.methodesVisibles  = methodes ;
+        this.versionRendu++;
         recalculerDimensions();
     }
 
     public void setModeComplet(boolean complet)
     {
+        if (this.modeComplet != complet) this.versionRendu++;
         this.modeComplet = complet;
         recalculerDimensions();
     }
@@ -143,7 +190,14 @@ public class BlocClasse
     public boolean estInterface  () {  return this.estInterface  ;  }
     public boolean estSelectionne() {  return this.estSelectionne;  }
     public boolean estExterne    () {  return this.estExterne    ;  }
+    public boolean estPlace      () {  return this.estPlace      ;  }
     public boolean isModeComplet () {  return this.modeComplet   ;  }
+    public boolean isAttributsVisibles() {  return this.attributsVisibles;  }
+    public boolean isMethodesVisibles () {  return this.methodesVisibles ;  }
+
+    // Membres réellement affichés
+    private List<String> attributs() {  return this.attributsVisibles ? this.attributsAffichage : List.of();  }
+    private List<String> methodes () {  return this.methodesVisibles  ? this.methodesAffichage  : List.of();  }
     
     public void dessiner(Graphics2D g)
     {
@@ -158,6 +212,42 @@ public class BlocClasse
 
     }
 
+    /**
+     * Version réduite pour les zooms faibles : le cadre et le nom seul,
+     * en police agrandie (dans la limite de la largeur) pour rester lisible.
+     */
+    public void dessinerNomSeul(Graphics2D g)
+    {
+        dessinerFondEtBordure(g);
+
+        Font font       = BlocClasse.POLICE_NOM_SEUL;
+        int  largeurNom = MesureTexte.largeur(font, this.nom);
+        int  dispo      = this.largeur - BlocClasse.PADDING * 2;
+
+        if (largeurNom > dispo)
+        {
+            font       = BlocClasse.POLICES_NOM_REDUIT[Math.max(8, Math.min(23, 24 * dispo / largeurNom))];
+            largeurNom = MesureTexte.largeur(font, this.nom);
+        }
+
+        FontMetrics fm = MesureTexte.metriques(font);
+
+        g.setColor(Color.BLACK);
+        g.setFont (font);
+        g.drawString(this.nom, this.x + (this.largeur - largeurNom) / 2,
+                               this.y + (this.hauteur + fm.getAscent() - fm.getDescent()) / 2);
+    }
+
+    /**
+     * Version minimale pour les zooms très faibles : un rectangle plein,
+     * plus clair pour une classe externe.
+     */
+    public void dessinerSilhouette(Graphics2D g)
+    {
+        g.setColor(this.estExterne ? BlocClasse.COULEUR_SILHOUETTE_EXTERNE : BlocClasse.COULEUR_SILHOUETTE);
+        g.fillRect(this.x, this.y, this.largeur, this.hauteur);
+    }
+
     public boolean contient(int px, int py)
     {
         return px >= this.x && px <= this.x + this.largeur && py >= this.y && py <= this.y + this.hauteur;
@@ -167,7 +257,7 @@ public class BlocClasse
      * Limite l'affichage des paramètres d'une méthode à 2 paramètres.
      * Si plus de 2 paramètres, affiche les 2 premiers suivis de "..."
      */
-    private String limiterParametres(String methode)
+    private static String limiterParametres(String methode)
     {
         int idxParenthese = methode.indexOf('(');
 
@@ -190,6 +280,40 @@ public class BlocClasse
         return avant + paramsTab[0].trim() + ", " + paramsTab[1].trim() + ", ..." + apres;
     }
 
+    /**
+     * Oublie les libellés et largeurs de texte mémorisés, partagés par tous
+     * les blocs : appelé sur l'EDT quand un projet chargé remplace l'ancien.
+     */
+    public static void viderCaches()
+    {
+        BlocClasse.LIBELLES          .clear();
+        BlocClasse.LIBELLES_CONDENSES.clear();
+        MesureTexte.vider();
+    }
+
+    // Texte affiché d'un membre : sans le marqueur {static}
+    private static String libelle(String membre)
+    {
+        if (BlocClasse.LIBELLES.size() >= LIMITE_LIBELLES) BlocClasse.LIBELLES.clear();
+        return BlocClasse.LIBELLES.computeIfAbsent(membre, m -> m.replace("{static}", "").trim());
+    }
+
+    // Texte affiché d'une méthode en mode condensé : paramètres limités à 2
+    private static String libelleCondense(String methode)
+    {
+        if (BlocClasse.LIBELLES_CONDENSES.size() >= LIMITE_LIBELLES) BlocClasse.LIBELLES_CONDENSES.clear();
+        return BlocClasse.LIBELLES_CONDENSES.computeIfAbsent(methode,
+                                                             m -> BlocClasse.limiterParametres(BlocClasse.libelle(m)));
+    }
+
+    // Stéréotype affiché sous le nom, ou null
+    private String libelleType()
+    {
+        if (this.typeSpecifique != null && !this.typeSpecifique.isEmpty()) return "<<" + this.typeSpecifique + ">>";
+        if (this.estInterface)                                              return "<<interface>>";
+        return null;
+    }
+
 
     // Affiche le fond et la bordure du bloc
     private void dessinerFondEtBordure(Graphics2D g)
@@ -207,16 +331,10 @@ public class BlocClasse
     private int dessinerNom(Graphics2D g) 
     {
         // On considère qu'il y a un type si le string est rempli OU si le flag estInterface est vrai
-        String labelType = null;
-
-        if (this.typeSpecifique != null && !this.typeSpecifique.isEmpty()) 
-            labelType = "<<" + this.typeSpecifique + ">>";
-
-        else if (this.estInterface) 
-            labelType = "<<interface>>";
+        String labelType = this.libelleType();
 
         g.setColor(Color.BLACK);
-        g.setFont(new Font("Arial", Font.BOLD, 12));
+        g.setFont(BlocClasse.POLICE_NOM);
         FontMetrics fmNom = g.getFontMetrics();
         int nomY = this.y + BlocClasse.HAUTEUR_ENTETE - (BlocClasse.HAUTEUR_ENTETE - fmNom.getAscent()) / 2;
         g.drawString(this.nom, this.x + (this.largeur - fmNom.stringWidth(this.nom)) / 2, nomY);
@@ -225,7 +343,7 @@ public class BlocClasse
 
         if (labelType != null) 
         {
-            g.setFont(new Font("Arial", Font.ITALIC, 11));
+            g.setFont(BlocClasse.POLICE_SOUS_TITRE);
             FontMetrics fmSous = g.getFontMetrics();
             int sousY = nomY + fmSous.getHeight();
             g.drawString(labelType, this.x + (this.largeur - fmSous.stringWidth(labelType)) / 2, sousY);
@@ -241,30 +359,30 @@ public class BlocClasse
     private int dessinerAttributs(Graphics2D g, int currentY)
     {
         g.setColor(Color.BLACK);
-        g.setFont(new Font("Arial", Font.PLAIN, 12));
+        g.setFont(BlocClasse.POLICE_MEMBRE);
         
         int maxAttributs = this.modeComplet ? Integer.MAX_VALUE : 3;
         int iAtt = 0;
         
-        for (String att : this.attributsAffichage)
+        for (String att : this.attributs())
         {
             if (iAtt >= maxAttributs) break;
             currentY += BlocClasse.HAUTEUR_LIGNE;
             
             boolean estStatique = att.contains("{static}");
-            String libelle = att.replace("{static}", "").trim();
+            String libelle = BlocClasse.libelle(att);
             
             g.drawString(libelle, this.x + BlocClasse.PADDING, currentY);
             
             if (estStatique)
             {
-                FontMetrics fm = g.getFontMetrics();
-                g.drawLine(this.x + BlocClasse.PADDING, currentY + 2, this.x + BlocClasse.PADDING + fm.stringWidth(libelle), currentY + 2);
+                int largeurLibelle = MesureTexte.largeur(BlocClasse.POLICE_MEMBRE, libelle);
+                g.drawLine(this.x + BlocClasse.PADDING, currentY + 2, this.x + BlocClasse.PADDING + largeurLibelle, currentY + 2);
             }
             iAtt++;
         }
         
-        if (!this.modeComplet && this.attributsAffichage.size() > maxAttributs)
+        if (!this.modeComplet && this.attributs().size() > maxAttributs)
         {
             currentY += BlocClasse.HAUTEUR_LIGNE;
             g.drawString("...", this.x + BlocClasse.PADDING, currentY);
@@ -288,28 +406,27 @@ public class BlocClasse
         int maxMethodes = this.modeComplet ? Integer.MAX_VALUE : 3;
         int iMet = 0;
         
-        for (String met : this.methodesAffichage) 
+        for (String met : this.methodes()) 
         {
             if (iMet >= maxMethodes) break;
             currentY += BlocClasse.HAUTEUR_LIGNE;
             
             boolean estStatique = met.contains("{static}");
-            String libelle = met.replace("{static}", "").trim();
             
             // CORRECTION : On ne limite QUE si on n'est PAS en mode complet
-            String libelleFinal = this.modeComplet ? libelle : limiterParametres(libelle);
+            String libelleFinal = this.modeComplet ? BlocClasse.libelle(met) : BlocClasse.libelleCondense(met);
             
             g.drawString(libelleFinal, this.x + BlocClasse.PADDING, currentY);
             
             if (estStatique) 
             {
-                FontMetrics fm = g.getFontMetrics();
-                g.drawLine(this.x + BlocClasse.PADDING, currentY + 2, this.x + BlocClasse.PADDING + fm.stringWidth(libelleFinal), currentY + 2);
+                int largeurLibelle = MesureTexte.largeur(BlocClasse.POLICE_MEMBRE, libelleFinal);
+                g.drawLine(this.x + BlocClasse.PADDING, currentY + 2, this.x + BlocClasse.PADDING + largeurLibelle, currentY + 2);
             }
             iMet++;
         }
         
-        if (!this.modeComplet && this.methodesAffichage.size() > maxMethodes)
+        if (!this.modeComplet && this.methodes().size() > maxMethodes)
         {
             currentY += BlocClasse.HAUTEUR_LIGNE;
             g.drawString("...", this.x + BlocClasse.PADDING, currentY);
@@ -317,50 +434,53 @@ public class BlocClasse
         return currentY;
     }
 
+    /**
+     * Largeur mesurée avec les polices réelles (largeurs mémorisées par
+     * {@link MesureTexte}) et hauteur selon le mode condensé / complet.
+     */
     private void recalculerDimensions()
     {
-        int maxLongueur = this.nom != null ? this.nom.length() : 0;
+        int maxLargeur = this.nom != null ? MesureTexte.largeur(BlocClasse.POLICE_NOM, this.nom) : 0;
+
+        String labelType = this.libelleType();
+        if (labelType != null) maxLargeur = Math.max(maxLargeur, MesureTexte.largeur(BlocClasse.POLICE_SOUS_TITRE, labelType));
 
-        for (String att : this.attributsAffichage)
+        for (String att : this.attributs())
         {
             if (att == null) continue;
 
-            int longueur = att.replace("{static}", "").trim().length();
-
-            maxLongueur = Math.max(maxLongueur, longueur);
+            maxLargeur = Math.max(maxLargeur, MesureTexte.largeur(BlocClasse.POLICE_MEMBRE, BlocClasse.libelle(att)));
         }
 
-        for (String met : this.methodesAffichage)
+        for (String met : this.methodes())
         {
             if (met == null) continue;
 
-            String s = met.replace("{static}", "").trim();
-            
             // On calcule la largeur basée sur ce qui sera RÉELLEMENT affiché
-            String aMesurer = this.modeComplet ? s : limiterParametres(s);
-            maxLongueur = Math.max(maxLongueur, aMesurer.length());
+            String aMesurer = this.modeComplet ? BlocClasse.libelle(met) : BlocClasse.libelleCondense(met);
+            maxLargeur = Math.max(maxLargeur, MesureTexte.largeur(BlocClasse.POLICE_MEMBRE, aMesurer));
         }
 
         this.largeur = Math.max(
                 200,
-                BlocClasse.PADDING * 2 + maxLongueur * 8);
+                BlocClasse.PADDING * 2 + maxLargeur);
 
         // Calculer hauteur en fonction du mode
         int nbLignesAtt, nbLignesMet;
         if (this.modeComplet)
         {
-            nbLignesAtt = this.attributsAffichage.size();
-            nbLignesMet = this.methodesAffichage .size();
+            nbLignesAtt = this.attributs().size();
+            nbLignesMet = this.methodes().size();
         }
         else
         {
             // Mode condensé : max 3 attributs + ligne "..." si nécessaire
-            int nbAttAffiches = Math.min(this.attributsAffichage.size(), 3);
-            nbLignesAtt = nbAttAffiches + (this.attributsAffichage.size() > 3 ? 1 : 0);
+            int nbAttAffiches = Math.min(this.attributs().size(), 3);
+            nbLignesAtt = nbAttAffiches + (this.attributs().size() > 3 ? 1 : 0);
 
             // Mode condensé : max 3 méthodes + ligne "..." si nécessaire
-            int nbMetAffichees = Math.min(this.methodesAffichage.size(), 3);
-            nbLignesMet = nbMetAffichees + (this.methodesAffichage.size() > 3 ? 1 : 0);
+            int nbMetAffichees = Math.min(this.methodes().size(), 3);
+            nbLignesMet = nbMetAffichees + (this.methodes().size() > 3 ? 1 : 0);
         }
 
         this.hauteur = BlocClasse.HAUTEUR_ENTETE
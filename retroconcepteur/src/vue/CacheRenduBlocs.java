@@ -0,0 +1,161 @@
+package vue;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache d'images pré-rendues des blocs de classes.
+ *
+ * Chaque bloc est rendu une fois dans une image à l'échelle de l'écran,
+ * arrondie au palier de zoom (un dixième), puis simplement recopié aux
+ * affichages suivants : un déplacement ou un défilement ne coûte plus la
+ * mise en page du texte. Une entrée est refaite quand la version de rendu
+ * du bloc a changé ({@link BlocClasse#getVersionRendu()}) ou que le palier
+ * de zoom n'est plus le même.
+ *
+ * La mémoire est bornée par un nombre total de pixels : les blocs les moins
+ * récemment dessinés sont écartés en premier.
+ */
+public class CacheRenduBlocs
+{
+    /** Budget par défaut : 8 millions de pixels, soit 32 Mo en ARGB. */
+    public static final long PIXELS_MAX_PAR_DEFAUT = 8_000_000L;
+
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private LinkedHashMap<BlocClasse, Entree> entrees   ;
+    private long                              pixelsMax ;
+    private long                              pixels    ;
+
+    /*-------------------------------------- */
+    /* Constructeurs                         */
+    /*-------------------------------------- */
+    public CacheRenduBlocs()
+    {
+        this(CacheRenduBlocs.PIXELS_MAX_PAR_DEFAUT);
+    }
+
+    public CacheRenduBlocs(long pixelsMax)
+    {
+        this.entrees   = new LinkedHashMap<BlocClasse, Entree>(64, 0.75f, true);
+        this.pixelsMax = pixelsMax;
+        this.pixels    = 0;
+    }
+
+    /*-------------------------------------- */
+    /* Méthodes                              */
+    /*-------------------------------------- */
+    public void vider()
+    {
+        this.entrees.clear();
+        this.pixels = 0;
+    }
+
+    /**
+     * Oublie les images des blocs qui ne font plus partie de la scène.
+     */
+    public void conserver(Set<BlocClasse> blocs)
+    {
+        Iterator<Map.Entry<BlocClasse, Entree>> it = this.entrees.entrySet().iterator();
+
+        while (it.hasNext())
+        {
+            Map.Entry<BlocClasse, Entree> e = it.next();
+            if (blocs.contains(e.getKey())) continue;
+
+            this.pixels -= e.getValue().pixels();
+            it.remove();
+        }
+    }
+
+    /**
+     * Dessine le bloc depuis son image en cache, en la (re)construisant si
+     * nécessaire.
+     */
+    public void dessiner(Graphics2D g, BlocClasse bloc)
+    {
+        AffineTransform t       = g.getTransform();
+        double          echelle = t.getScaleX();
+
+        // Transformation inhabituelle (rotation, symétrie...) : dessin direct
+        if (t.getShearX() != 0 || t.getShearY() != 0 || echelle <= 0 || echelle != t.getScaleY())
+        {
+            bloc.dessiner(g);
+            return;
+        }
+
+        double palier = Math.max(1, Math.round(echelle * 10)) / 10.0;
+        Entree entree = this.entrees.get(bloc);
+
+        if (entree == null || entree.version != bloc.getVersionRendu() || entree.palier != palier)
+        {
+            if (entree != null) this.pixels -= entree.pixels();
+
+            entree = CacheRenduBlocs.rendre(bloc, palier, g);
+            this.entrees.put(bloc, entree);
+            this.pixels += entree.pixels();
+            this.reduire();
+        }
+
+        AffineTransform avant = g.getTransform();
+        g.translate(bloc.getX(), bloc.getY());
+        g.scale(1 / palier, 1 / palier);
+        g.drawImage(entree.image, 0, 0, null);
+        g.setTransform(avant);
+    }
+
+    // Écarte les entrées les plus anciennes tant que le budget est dépassé
+    private void reduire()
+    {
+        Iterator<Map.Entry<BlocClasse, Entree>> it = this.entrees.entrySet().iterator();
+
+        while (this.pixels > this.pixelsMax && this.entrees.size() > 1 && it.hasNext())
+        {
+            this.pixels -= it.next().getValue().pixels();
+            it.remove();
+        }
+    }
+
+    private static Entree rendre(BlocClasse bloc, double palier, Graphics2D modele)
+    {
+        // +1 : la bordure est tracée sur x + largeur et y + hauteur
+        int largeur = (int) Math.ceil((bloc.getLargeur() + 1) * palier) + 1;
+        int hauteur = (int) Math.ceil((bloc.getHauteur() + 1) * palier) + 1;
+
+        BufferedImage image = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D    g     = image.createGraphics();
+
+        g.setRenderingHints(modele.getRenderingHints());
+        g.scale(palier, palier);
+        g.translate(-bloc.getX(), -bloc.getY());
+        bloc.dessiner(g);
+        g.dispose();
+
+        return new Entree(image, bloc.getVersionRendu(), palier);
+    }
+
+    /**
+     * Image d'un bloc pour une version de rendu et un palier de zoom.
+     */
+    private static class Entree
+    {
+        private BufferedImage image  ;
+        private int           version;
+        private double        palier ;
+
+        private Entree(BufferedImage image, int version, double palier)
+        {
+            this.image   = image  ;
+            this.version = version;
+            this.palier  = palier ;
+        }
+
+        private long pixels() { return (long) this.image.getWidth() * this.image.getHeight(); }
+    }
+}
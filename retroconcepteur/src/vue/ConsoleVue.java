@@ -5,6 +5,7 @@ import modele.entites.AssociationObjet;
 import modele.entites.ClasseObjet;
 import modele.entites.HeritageObjet;
 import modele.entites.InterfaceObjet;
+import modele.outil.RapportDisposition;
 
 /**
  * Vue console minimale : centralise l'affichage.
@@ -76,4 +77,17 @@ public class ConsoleVue
 
         for (InterfaceObjet i : implementations) System.out.println(i);
     }
-}
+
+    public void afficherRapportDisposition(RapportDisposition rapport)
+    {
+        System.out.println("\n=== DISPOSITION ===");
+
+        if (rapport == null || rapport.getNbClasses() == 0)
+        {
+            System.out.println("(Aucune classe à disposer)");
+            return;
+        }
+
+        System.out.println(rapport);
+    }
+}
\ No newline at end of file
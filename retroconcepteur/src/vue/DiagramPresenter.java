@@ -2,6 +2,7 @@ package vue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import modele.entites.*;
 
 public class DiagramPresenter 
@@ -14,48 +15,63 @@ public class DiagramPresenter
         int x = startX;
         int y = startY;
 
+        // Noms du projet calculés une seule fois pour toutes les classes
+        Set<String> noms = PresentationMapper.nomsClasses(classes);
+
         for (ClasseObjet c : classes) 
         {
             // Utilisation stricte du stéréotype pour le filtrage
             boolean estExterne = "externe".equals(c.getSpecifique());
             if (!afficherClassesExternes && estExterne) continue;
 
-            // Préparation des membres via le PresentationMapper centralisé
-            List<String> attrVue = afficherAttributs ? 
-                PresentationMapper.convertirAttributs(c.getAttributs(), c, classes) : new ArrayList<>();
-                
-            List<String> methVue = afficherMethodes ?
-                PresentationMapper.convertirMethodes(c.getMethodes(), c) : new ArrayList<>();
+            blocs.addAll(construireBlocsClasse(c, noms, afficherAttributs, afficherMethodes, x, y));
 
-            BlocClasse bloc = new BlocClasse(c.getNom(), x, y, attrVue, methVue);
+            // Grille automatique pour éviter que les blocs ne se superposent
+            x += 350;
+            if (x > 1400) { x = startX; y += 400; }
+        }
+        return blocs;
+    }
 
-            // Définition propre du type (interface, abstract, record) sans se fier au nom du fichier
-            if (c.getSpecifique() != null) 
-            {
-                bloc.setTypeSpecifique(c.getSpecifique());
-                if ("interface".equals(c.getSpecifique())) bloc.setInterface(true);
-            }
+    /**
+     * Construit le bloc d'une classe suivi des blocs de ses classes internes.
+     * Les membres sont toujours convertis ; ceux qui ne sont pas affichés
+     * restent dans le bloc, masqués (voir {@link BlocClasse#setMembresVisibles}).
+     *
+     * @param nomsClasses noms des classes du projet (voir {@link PresentationMapper#nomsClasses})
+     */
+    public static List<BlocClasse> construireBlocsClasse(ClasseObjet c, Set<String> nomsClasses,
+            boolean afficherAttributs, boolean afficherMethodes, int x, int y) 
+    {
+        List<BlocClasse> blocs = new ArrayList<>();
 
-            bloc.setExterne(estExterne);
-            blocs.add(bloc);
+        // Préparation des membres via le PresentationMapper centralisé
+        List<String> attrVue = PresentationMapper.convertirAttributs(c.getAttributs(), c, nomsClasses);
+        List<String> methVue = PresentationMapper.convertirMethodes (c.getMethodes(), c);
 
-            // Gestion des classes internes (ex: TestInterne dans Disque.java)
-            for (ClasseObjet inner : c.getClassesInternes()) 
-            {
-                List<String> iAttr = afficherAttributs ? 
-                    PresentationMapper.convertirAttributs(inner.getAttributs(), inner, classes) : new ArrayList<>();
+        BlocClasse bloc = new BlocClasse(c.getNom(), x, y, attrVue, methVue);
+        bloc.setMembresVisibles(afficherAttributs, afficherMethodes);
 
-                List<String> iMeth = afficherMethodes ?
-                    PresentationMapper.convertirMethodes(inner.getMethodes(), inner) : new ArrayList<>();
+        // Définition propre du type (interface, abstract, record) sans se fier au nom du fichier
+        if (c.getSpecifique() != null) 
+        {
+            bloc.setTypeSpecifique(c.getSpecifique());
+            if ("interface".equals(c.getSpecifique())) bloc.setInterface(true);
+        }
 
-                BlocClasse blocInner = new BlocClasse(inner.getNom(), x + 40, y + 180, iAttr, iMeth);
-                blocInner.setExterne("externe".equals(inner.getSpecifique()));
-                blocs.add(blocInner);
-            }
+        bloc.setExterne("externe".equals(c.getSpecifique()));
+        blocs.add(bloc);
 
-            // Grille automatique pour éviter que les blocs ne se superposent
-            x += 350;
-            if (x > 1400) { x = startX; y += 400; }
+        // Gestion des classes internes (ex: TestInterne dans Disque.java)
+        for (ClasseObjet inner : c.getClassesInternes()) 
+        {
+            List<String> iAttr = PresentationMapper.convertirAttributs(inner.getAttributs(), inner, nomsClasses);
+            List<String> iMeth = PresentationMapper.convertirMethodes (inner.getMethodes(), inner);
+
+            BlocClasse blocInner = new BlocClasse(inner.getNom(), x + 40, y + 180, iAttr, iMeth);
+            blocInner.setMembresVisibles(afficherAttributs, afficherMethodes);
+            blocInner.setExterne("externe".equals(inner.getSpecifique()));
+            blocs.add(blocInner);
         }
         return blocs;
     }
@@ -31,6 +31,7 @@ public class FenetrePrincipale extends JFrame
     private PanneauDiagramme panneauDiagramme ;
 
     private BarreMenus barreMenus            ;
+    private BarreEtat  barreEtat             ;
 
     /**
      * Constructeur de la fenêtre principale.
@@ -56,6 +57,7 @@ public class FenetrePrincipale extends JFrame
         this.panneauDiagramme = new PanneauDiagramme(controleur);
         this.panneauProjets   = new PanneauProjets(this, controleur, this.panneauDiagramme);
         this.barreMenus       = new BarreMenus(controleur, panneauProjets);
+        this.barreEtat        = new BarreEtat();
 
         JScrollPane scrollDiagramme = new JScrollPane(this.panneauDiagramme);
 
@@ -67,7 +69,8 @@ public class FenetrePrincipale extends JFrame
         splitPane.setDividerLocation(250);
         splitPane.setOneTouchExpandable(true);
 
-        this.add(splitPane, BorderLayout.CENTER);
+        this.add(splitPane,      BorderLayout.CENTER);
+        this.add(this.barreEtat, BorderLayout.SOUTH );
         this.setJMenuBar(barreMenus);
 
         this.setVisible(true);
@@ -81,11 +84,13 @@ public class FenetrePrincipale extends JFrame
      */
     public PanneauDiagramme getPanneauDiagramme() { return this.panneauDiagramme; }
     public PanneauProjets getPanneauProjets    () { return this.panneauProjets  ; }
+    public BarreEtat      getBarreEtat         () { return this.barreEtat       ; }
 
     /**
      * Charge et affiche un projet Java dans le diagramme.
      *
-     * Délègue l'analyse et l'affichage au contrôleur.
+     * Délègue l'analyse et l'affichage au contrôleur (en arrière-plan,
+     * l'avancement s'affiche dans la barre d'état).
      *
      * @param cheminProjet Chemin absolu vers le dossier du projet à charger
      */
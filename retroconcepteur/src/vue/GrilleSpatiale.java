@@ -0,0 +1,203 @@
+package vue;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Index spatial en grille uniforme sur des éléments identifiés par un entier.
+ *
+ * Chaque élément est rangé dans toutes les cellules qu'il couvre : celles de
+ * son rectangle englobant, ou celles longées par un segment. Une recherche
+ * ne lit que les cellules de la zone demandée et renvoie les identifiants
+ * candidats dans l'ordre croissant : l'appelant retrouve ainsi l'ordre de
+ * dessin de ses listes.
+ */
+public class GrilleSpatiale
+{
+    /*-------------------------------------- */
+    /* Attributs                             */
+    /*-------------------------------------- */
+    private int                     tailleCellule;
+    private HashMap<Long, Cellule>  cellules     ;
+
+    // Clés des cellules occupées par chaque élément (pour le retirer sans tout parcourir)
+    private long[][]                clesDe       ;
+
+    /*-------------------------------------- */
+    /* Constructeur                          */
+    /*-------------------------------------- */
+    public GrilleSpatiale(int tailleCellule)
+    {
+        this.tailleCellule = tailleCellule;
+        this.cellules      = new HashMap<Long, Cellule>();
+        this.clesDe        = new long[16][];
+    }
+
+    /*-------------------------------------- */
+    /* Méthodes                              */
+    /*-------------------------------------- */
+    public void vider()
+    {
+        this.cellules.clear();
+        Arrays.fill(this.clesDe, null);
+    }
+
+    /**
+     * Place (ou déplace) un élément selon son rectangle englobant.
+     */
+    public void placer(int id, int x, int y, int largeur, int hauteur)
+    {
+        this.retirer(id);
+
+        int cx1 = Math.floorDiv(x,           this.tailleCellule);
+        int cy1 = Math.floorDiv(y,           this.tailleCellule);
+        int cx2 = Math.floorDiv(x + largeur, this.tailleCellule);
+        int cy2 = Math.floorDiv(y + hauteur, this.tailleCellule);
+
+        long[] cles = new long[(cx2 - cx1 + 1) * (cy2 - cy1 + 1)];
+        int    nb   = 0;
+
+        for (int cx = cx1; cx <= cx2; cx++)
+        {
+            for (int cy = cy1; cy <= cy2; cy++) cles[nb++] = GrilleSpatiale.cle(cx, cy);
+        }
+        this.enregistrer(id, cles, nb);
+    }
+
+    /**
+     * Place (ou déplace) un segment épaissi de {@code marge} de chaque côté.
+     * Seules les cellules longées par le segment sont occupées, et non tout
+     * son rectangle englobant : une longue diagonale reste peu coûteuse.
+     */
+    public void placerSegment(int id, int x1, int y1, int x2, int y2, int marge)
+    {
+        this.retirer(id);
+
+        if (x1 > x2)
+        {
+            int t = x1; x1 = x2; x2 = t;
+                t = y1; y1 = y2; y2 = t;
+        }
+
+        int    t    = this.tailleCellule;
+        long[] cles = new long[16];
+        int    nb   = 0;
+
+        int cxa = Math.floorDiv(x1 - marge, t);
+        int cxb = Math.floorDiv(x2 + marge, t);
+
+        for (int cx = cxa; cx <= cxb; cx++)
+        {
+            // Portion du segment vue depuis cette colonne (marge comprise)
+            double xa = Math.max(x1, Math.min(x2, cx * t - marge));
+            double xb = Math.max(x1, Math.min(x2, (cx + 1) * t + marge));
+
+            double ya = (x1 == x2) ? y1 : y1 + (y2 - y1) * (xa - x1) / (x2 - x1);
+            double yb = (x1 == x2) ? y2 : y1 + (y2 - y1) * (xb - x1) / (x2 - x1);
+
+            int cy1 = Math.floorDiv((int) Math.floor(Math.min(ya, yb)) - marge, t);
+            int cy2 = Math.floorDiv((int) Math.ceil (Math.max(ya, yb)) + marge, t);
+
+            for (int cy = cy1; cy <= cy2; cy++)
+            {
+                if (nb == cles.length) cles = Arrays.copyOf(cles, nb * 2);
+                cles[nb++] = GrilleSpatiale.cle(cx, cy);
+            }
+        }
+        this.enregistrer(id, cles, nb);
+    }
+
+    public void retirer(int id)
+    {
+        if (id >= this.clesDe.length || this.clesDe[id] == null) return;
+
+        for (long c : this.clesDe[id])
+        {
+            Long    cle     = c;
+            Cellule cellule = this.cellules.get(cle);
+
+            if (cellule != null && cellule.retirer(id) && cellule.nb == 0) this.cellules.remove(cle);
+        }
+        this.clesDe[id] = null;
+    }
+
+    private void enregistrer(int id, long[] cles, int nb)
+    {
+        if (id >= this.clesDe.length) this.clesDe = Arrays.copyOf(this.clesDe, Math.max(id + 1, this.clesDe.length * 2));
+
+        for (int i = 0; i < nb; i++)
+        {
+            this.cellules.computeIfAbsent(cles[i], k -> new Cellule()).ajouter(id);
+        }
+        this.clesDe[id] = (nb == cles.length) ? cles : Arrays.copyOf(cles, nb);
+    }
+
+    /**
+     * Identifiants des éléments dont une cellule touche la zone. Ce sont des
+     * candidats : l'intersection exacte reste à vérifier par l'appelant.
+     */
+    public BitSet chercher(Rectangle zone)
+    {
+        BitSet resultat = new BitSet();
+
+        int cx1 = Math.floorDiv(zone.x,               this.tailleCellule);
+        int cy1 = Math.floorDiv(zone.y,               this.tailleCellule);
+        int cx2 = Math.floorDiv(zone.x + zone.width,  this.tailleCellule);
+        int cy2 = Math.floorDiv(zone.y + zone.height, this.tailleCellule);
+
+        for (int cx = cx1; cx <= cx2; cx++)
+        {
+            for (int cy = cy1; cy <= cy2; cy++)
+            {
+                Cellule cellule = this.cellules.get(GrilleSpatiale.cle(cx, cy));
+                if (cellule == null) continue;
+
+                for (int i = 0; i < cellule.nb; i++) resultat.set(cellule.ids[i]);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Identifiants des éléments rangés dans la cellule qui contient le point.
+     */
+    public BitSet chercher(int x, int y)
+    {
+        return this.chercher(new Rectangle(x, y, 0, 0));
+    }
+
+    private static long cle(int cx, int cy)
+    {
+        return ((long) cx << 32) ^ (cy & 0xffffffffL);
+    }
+
+    /**
+     * Liste d'identifiants d'une cellule.
+     */
+    private static class Cellule
+    {
+        private int[] ids = new int[4];
+        private int   nb  = 0;
+
+        private void ajouter(int id)
+        {
+            if (this.nb == this.ids.length) this.ids = Arrays.copyOf(this.ids, this.nb * 2);
+            this.ids[this.nb++] = id;
+        }
+
+        private boolean retirer(int id)
+        {
+            for (int i = 0; i < this.nb; i++)
+            {
+                if (this.ids[i] == id)
+                {
+                    this.ids[i] = this.ids[--this.nb];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
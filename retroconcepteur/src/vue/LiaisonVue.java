@@ -49,6 +49,10 @@ public class LiaisonVue
     private String proprietes = ""; // ex: "{frozen, addOnly}"
     private String contrainte = ""; // texte libre (étape 7)
 
+    // Blocs d'extrémité résolus par le panneau (null si la classe n'est pas affichée)
+    private BlocClasse blocOrig;
+    private BlocClasse blocDest;
+
     /**
      * Constructeur d'une liaison vue.
      * * @param nomClasseOrig Nom de la classe origine
@@ -106,8 +110,12 @@ public class LiaisonVue
     public int         getRoleDestOffsetPerp () { return roleDestOffsetPerp ; }
     public String      getProprietes         () { return proprietes         ; }
     public String      getContrainte         () { return contrainte         ; }
+    public BlocClasse  getBlocOrig           () { return blocOrig           ; }
+    public BlocClasse  getBlocDest           () { return blocDest           ; }
 
     // SETTERS
+    void setBlocs(BlocClasse orig, BlocClasse dest) { this.blocOrig = orig; this.blocDest = dest; }
+
     public void setRoleOrigOffsetAlong(int offset) { this.roleOrigOffsetAlong = offset ; }
     public void setRoleOrigOffsetPerp (int offset) { this.roleOrigOffsetPerp  = offset ; }
     public void setRoleDestOffsetAlong(int offset) { this.roleDestOffsetAlong = offset ; }
@@ -0,0 +1,55 @@
+package vue;
+
+import java.awt.Canvas;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mesure de largeur de texte partagée par tous les blocs.
+ *
+ * Les métriques sont celles d'un composant hors écran, identiques à celles
+ * du panneau de dessin (ni anticrénelage du texte ni métriques
+ * fractionnaires). Chaque largeur est mémorisée par couple (police, texte) :
+ * une signature répétée d'une classe à l'autre n'est mesurée qu'une fois.
+ * Les largeurs d'une police sont oubliées au-delà de {@link #LIMITE} textes
+ * et à chaque chargement de projet ({@link #vider()}).
+ */
+public final class MesureTexte
+{
+    private static final Canvas                                   CANEVAS    = new Canvas();
+    private static final Map<Font, FontMetrics>                   METRIQUES  = new ConcurrentHashMap<>();
+    private static final Map<Font, Map<String, Integer>>          LARGEURS   = new ConcurrentHashMap<>();
+    private static final int                                      LIMITE     = 50_000;
+
+    private MesureTexte() { }
+
+    public static FontMetrics metriques(Font police)
+    {
+        return MesureTexte.METRIQUES.computeIfAbsent(police, MesureTexte.CANEVAS::getFontMetrics);
+    }
+
+    /**
+     * Largeur en pixels du texte dans la police donnée (zoom 1).
+     */
+    public static int largeur(Font police, String texte)
+    {
+        Map<String, Integer> parTexte = MesureTexte.LARGEURS.computeIfAbsent(police, p -> new ConcurrentHashMap<>());
+
+        Integer largeur = parTexte.get(texte);
+        if (largeur == null)
+        {
+            largeur = MesureTexte.metriques(police).stringWidth(texte);
+            if (parTexte.size() >= MesureTexte.LIMITE) parTexte.clear();
+            parTexte.put(texte, largeur);
+        }
+        return largeur;
+    }
+
+    /** Oublie les largeurs mémorisées (les métriques des polices sont gardées). */
+    public static void vider()
+    {
+        MesureTexte.LARGEURS.clear();
+    }
+}
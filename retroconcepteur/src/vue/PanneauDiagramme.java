@@ -11,12 +11,19 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Polygon;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Stroke;
 import java.awt.event.*;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import javax.swing.*;
 import vue.LiaisonVue.TypeLiaison;
 
@@ -37,6 +44,33 @@ public class PanneauDiagramme extends JPanel
 {
     private List<BlocClasse> blocsClasses;
     private List<LiaisonVue> liaisonsVue;
+    // Index de la scène : bloc affiché pour chaque nom de classe
+    private Map<String, BlocClasse> blocsParNom;
+
+    // Index spatiaux : identifiant = position dans blocsClasses / liaisonsVue
+    private static final int TAILLE_CELLULE = 512;
+    private GrilleSpatiale                 grilleBlocs    ;
+    private GrilleSpatiale                 grilleLiaisons ;
+    private Map<BlocClasse, Integer>       idBlocs        ;
+    private Map<BlocClasse, List<Integer>> liaisonsParBloc;
+
+    // Segment de chaque liaison placée (x1, y1, x2, y2 à l'indice 4 * id)
+    private int[]                          segmentsLiaisons;
+
+    // Bloc sélectionné (au plus un), ou null
+    private BlocClasse                     selection;
+
+    // Images pré-rendues des blocs (null : dessin direct, par défaut)
+    private CacheRenduBlocs cacheRendu;
+
+    // Niveaux de détail : sous ZOOM_NOMS_SEULS les blocs n'affichent que leur nom,
+    // sous ZOOM_SILHOUETTES blocs et liaisons sont réduits à leur forme, sans texte
+    public static final double ZOOM_NOMS_SEULS  = 0.5;
+    public static final double ZOOM_SILHOUETTES = 0.3;
+
+    // Recalcul de la taille préférée regroupé : au plus une fois par image
+    private static final int DELAI_IMAGE = 16;
+    private Timer            minuterieTaille;
     private double zoom;
     // Flags d'affichage (gérés par la vue)
     private boolean afficherClassesExternes = true;
@@ -55,7 +89,15 @@ public class PanneauDiagramme extends JPanel
     {
         this.blocsClasses = new ArrayList<>();
         this.liaisonsVue = new ArrayList<>();
+        this.blocsParNom = new HashMap<>();
+        this.grilleBlocs     = new GrilleSpatiale(PanneauDiagramme.TAILLE_CELLULE);
+        this.grilleLiaisons  = new GrilleSpatiale(PanneauDiagramme.TAILLE_CELLULE);
+        this.idBlocs         = new HashMap<>();
+        this.liaisonsParBloc = new HashMap<>();
+        this.segmentsLiaisons = new int[0];
         this.zoom = 1.0;
+        this.minuterieTaille = new Timer(PanneauDiagramme.DELAI_IMAGE, e -> calculerTailleDynamique());
+        this.minuterieTaille.setRepeats(false);
         // Taille minimale pour que le JScrollPane soit utilisable
         this.setPreferredSize(new java.awt.Dimension(1000, 800));
 
@@ -80,11 +122,19 @@ public class PanneauDiagramme extends JPanel
 
     public BlocClasse getBlocsClasseSelectionnee() 
     {
-        for (BlocClasse bloc : blocsClasses) 
-        {
-            if (bloc.estSelectionne())  return bloc;
-        }
-        return null;
+        return this.selection;
+    }
+
+    /**
+     * Sélectionne un bloc (null : aucun) ; seul l'ancien bloc sélectionné est
+     * désélectionné.
+     */
+    private void selectionner(BlocClasse bloc)
+    {
+        if (this.selection != null && this.selection != bloc) this.selection.setSelectionne(false);
+
+        this.selection = bloc;
+        if (bloc != null) bloc.setSelectionne(true);
     }
 
 
@@ -92,18 +142,286 @@ public class PanneauDiagramme extends JPanel
     public void setAfficherAttributs      (boolean v) { this.afficherAttributs       = v; }
     public void setAfficherMethodes       (boolean v) { this.afficherMethodes        = v; }
 
+    /**
+     * Active le dessin des blocs depuis des images pré-rendues : le texte
+     * n'est plus remis en page à chaque affichage, au prix d'un peu de
+     * mémoire et d'un rendu recalculé à chaque palier de zoom.
+     */
+    public void setCacheRendu(boolean actif)
+    {
+        this.cacheRendu = actif ? new CacheRenduBlocs() : null;
+        repaint();
+    }
+
+    public boolean isCacheRendu() { return this.cacheRendu != null; }
+
     public void setLiaisonsVue(List<LiaisonVue> liaisonsVue) 
     {
         this.liaisonsVue = liaisonsVue;
+        this.indexerScene();
         this.repaint();
     }
 
     public void setBlocsClasses(List<BlocClasse> blocsVue) 
     {
         this.blocsClasses = blocsVue;
+        this.indexerScene();
         calculerTailleDynamique();
     }
 
+    /** Bloc affiché pour une classe, ou null. */
+    public BlocClasse getBloc(String nomClasse) { return this.blocsParNom.get(nomClasse); }
+
+    /**
+     * À appeler après avoir déplacé ou redimensionné des blocs depuis
+     * l'extérieur du panneau (disposition automatique, ...).
+     */
+    public void actualiserPositions()
+    {
+        this.indexerScene();
+        calculerTailleDynamique();
+        repaint();
+    }
+
+    /**
+     * Applique l'affichage courant des attributs et des méthodes aux blocs
+     * affichés : seules leurs tailles changent, les positions sont conservées.
+     */
+    public void appliquerVisibiliteMembres()
+    {
+        for (BlocClasse bloc : this.blocsClasses) bloc.setMembresVisibles(this.afficherAttributs, this.afficherMethodes);
+        this.actualiserPositions();
+    }
+
+    /**
+     * Reconstruit l'index nom -> bloc et rattache à chaque liaison ses blocs
+     * d'extrémité : le dessin et la recherche de liaison n'ont plus à
+     * chercher les blocs par leur nom. Les index spatiaux sont reconstruits
+     * dans la foulée.
+     */
+    private void indexerScene()
+    {
+        this.blocsParNom     = new HashMap<>(this.blocsClasses.size() * 2);
+        this.idBlocs         = new HashMap<>(this.blocsClasses.size() * 2);
+        this.liaisonsParBloc = new HashMap<>(this.blocsClasses.size() * 2);
+        this.segmentsLiaisons = new int[this.liaisonsVue.size() * 4];
+        this.selection        = null;
+        this.grilleBlocs   .vider();
+        this.grilleLiaisons.vider();
+
+        // En cas de doublon, le premier bloc de la liste l'emporte
+        for (int i = 0; i < this.blocsClasses.size(); i++)
+        {
+            BlocClasse b = this.blocsClasses.get(i);
+
+            this.blocsParNom.putIfAbsent(b.getNom(), b);
+            this.idBlocs.put(b, i);
+            this.grilleBlocs.placer(i, b.getX(), b.getY(), b.getLargeur(), b.getHauteur());
+
+            // Sélection reprise des blocs fournis (un seul bloc retenu)
+            if (b.estSelectionne())
+            {
+                if (this.selection == null) this.selection = b;
+                else                        b.setSelectionne(false);
+            }
+        }
+
+        for (int i = 0; i < this.liaisonsVue.size(); i++)
+        {
+            LiaisonVue l = this.liaisonsVue.get(i);
+            l.setBlocs(this.blocsParNom.get(l.getNomClasseOrig()), this.blocsParNom.get(l.getNomClasseDest()));
+
+            if (l.getBlocOrig() == null || l.getBlocDest() == null) continue;
+
+            this.liaisonsParBloc.computeIfAbsent(l.getBlocOrig(), k -> new ArrayList<>()).add(i);
+            if (l.getBlocDest() != l.getBlocOrig())
+                this.liaisonsParBloc.computeIfAbsent(l.getBlocDest(), k -> new ArrayList<>()).add(i);
+
+            this.placerLiaison(i, l);
+        }
+
+        if (this.cacheRendu != null) this.cacheRendu.conserver(this.idBlocs.keySet());
+    }
+
+    /**
+     * Met à jour les index spatiaux d'un bloc déplacé ou redimensionné et de
+     * ses liaisons.
+     */
+    private void blocModifie(BlocClasse bloc)
+    {
+        Integer id = this.idBlocs.get(bloc);
+        if (id == null) return;
+
+        this.grilleBlocs.placer(id, bloc.getX(), bloc.getY(), bloc.getLargeur(), bloc.getHauteur());
+
+        for (int idLiaison : this.liaisonsParBloc.getOrDefault(bloc, List.of()))
+        {
+            this.placerLiaison(idLiaison, this.liaisonsVue.get(idLiaison));
+        }
+    }
+
+    /**
+     * Range une liaison dans la grille : son segment, élargi de la place
+     * occupée par ses libellés (multiplicités, rôles, propriétés, contrainte).
+     */
+    private void placerLiaison(int id, LiaisonVue l)
+    {
+        Point p1 = calculerPointConnexion(l.getBlocOrig(), l.getBlocDest());
+        Point p2 = calculerPointConnexion(l.getBlocDest(), l.getBlocOrig());
+
+        this.segmentsLiaisons[id * 4    ] = p1.x;
+        this.segmentsLiaisons[id * 4 + 1] = p1.y;
+        this.segmentsLiaisons[id * 4 + 2] = p2.x;
+        this.segmentsLiaisons[id * 4 + 3] = p2.y;
+
+        this.grilleLiaisons.placerSegment(id, p1.x, p1.y, p2.x, p2.y, PanneauDiagramme.margeLiaison(l));
+    }
+
+    // Place autour du trait prise par la flèche et les libellés de la liaison
+    private static int margeLiaison(LiaisonVue l)
+    {
+        int libelle = Math.max(Math.max(l.getRoleOrig().length(), l.getRoleDest().length()),
+                               Math.max(l.getProprietes().length(), l.getContrainte().length()));
+        libelle = Math.max(libelle, Math.max(l.getMultipliciteOrig().length(), l.getMultipliciteDest().length()));
+
+        return 40 + libelle * 8;
+    }
+
+    /**
+     * Zone du diagramme occupée par un bloc et par ses liaisons (traits,
+     * flèches et libellés), en coordonnées du diagramme.
+     */
+    private Rectangle zoneBloc(BlocClasse bloc)
+    {
+        Rectangle zone = new Rectangle(bloc.getX() - 2, bloc.getY() - 2, bloc.getLargeur() + 5, bloc.getHauteur() + 5);
+
+        for (int idLiaison : this.liaisonsParBloc.getOrDefault(bloc, List.of()))
+        {
+            int[] seg   = this.segmentsLiaisons;
+            int   i     = idLiaison * 4;
+            int   marge = PanneauDiagramme.margeLiaison(this.liaisonsVue.get(idLiaison));
+
+            Rectangle r = new Rectangle(seg[i], seg[i + 1], 0, 0);
+            r.add(seg[i + 2], seg[i + 3]);
+            r.grow(marge, marge);
+            zone.add(r);
+        }
+        return zone;
+    }
+
+    /**
+     * Redessine une zone donnée en coordonnées du diagramme.
+     */
+    private void repaintZone(Rectangle zone)
+    {
+        int x1 = (int) Math.floor(zone.x                * this.zoom) - 1;
+        int y1 = (int) Math.floor(zone.y                * this.zoom) - 1;
+        int x2 = (int) Math.ceil ((zone.x + zone.width ) * this.zoom) + 1;
+        int y2 = (int) Math.ceil ((zone.y + zone.height) * this.zoom) + 1;
+
+        repaint(x1, y1, x2 - x1, y2 - y1);
+    }
+
+    /**
+     * Demande le recalcul de la taille préférée ; les demandes rapprochées
+     * (glisser de bloc) sont regroupées en un seul calcul par image.
+     */
+    private void planifierCalculTaille()
+    {
+        if (!this.minuterieTaille.isRunning()) this.minuterieTaille.start();
+    }
+
+    /**
+     * Remplace les blocs des classes impactées par une modification du projet
+     * sans toucher aux autres : un bloc remplacé garde sa position et sa
+     * sélection, un bloc sans remplaçant disparaît, un nouveau bloc est placé
+     * sous le diagramme existant.
+     *
+     * @param nouveaux blocs reconstruits pour les classes impactées
+     * @param impactes noms des classes impactées
+     */
+    public void mettreAJourBlocs(List<BlocClasse> nouveaux, Set<String> impactes)
+    {
+        Map<String, BlocClasse> parNom = new LinkedHashMap<>();
+        for (BlocClasse b : nouveaux) parNom.putIfAbsent(b.getNom(), b);
+
+        List<BlocClasse> resultat = new ArrayList<>();
+        int maxY = 0;
+
+        for (BlocClasse ancien : this.blocsClasses)
+        {
+            maxY = Math.max(maxY, ancien.getY() + ancien.getHauteur());
+
+            if (!impactes.contains(ancien.getNom()))
+            {
+                resultat.add(ancien);
+                continue;
+            }
+
+            BlocClasse remplacant = parNom.remove(ancien.getNom());
+            if (remplacant == null) continue;
+
+            remplacant.setX(ancien.getX());
+            remplacant.setY(ancien.getY());
+            remplacant.setSelectionne(ancien.estSelectionne());
+            remplacant.setPlace(ancien.estPlace());
+            resultat.add(remplacant);
+        }
+
+        // Classes apparues : une rangée sous le diagramme
+        int x = 50;
+        int y = maxY + 60;
+        for (BlocClasse b : parNom.values())
+        {
+            b.setX(x);
+            b.setY(y);
+            resultat.add(b);
+
+            x += 350;
+            if (x > 1400) { x = 50; y += 400; }
+        }
+
+        this.setBlocsClasses(resultat);
+    }
+
+    /**
+     * Remplace les liaisons en conservant les objets existants (et donc les
+     * modifications faites par l'utilisateur) pour celles qui ne touchent
+     * aucune classe impactée.
+     *
+     * @param recalculees liaisons issues du modèle mis à jour
+     * @param impactes    noms des classes impactées
+     */
+    public void mettreAJourLiaisons(List<LiaisonVue> recalculees, Set<String> impactes)
+    {
+        Map<String, Deque<LiaisonVue>> existantes = new HashMap<>();
+        for (LiaisonVue l : this.liaisonsVue)
+        {
+            existantes.computeIfAbsent(PanneauDiagramme.cleLiaison(l), k -> new ArrayDeque<>()).add(l);
+        }
+
+        List<LiaisonVue> resultat = new ArrayList<>(recalculees.size());
+        for (LiaisonVue l : recalculees)
+        {
+            LiaisonVue conservee = null;
+
+            if (!impactes.contains(l.getNomClasseOrig()) && !impactes.contains(l.getNomClasseDest()))
+            {
+                Deque<LiaisonVue> candidates = existantes.get(PanneauDiagramme.cleLiaison(l));
+                if (candidates != null) conservee = candidates.poll();
+            }
+
+            resultat.add(conservee != null ? conservee : l);
+        }
+
+        this.setLiaisonsVue(resultat);
+    }
+
+    private static String cleLiaison(LiaisonVue l)
+    {
+        return l.getNomClasseOrig() + '\u0000' + l.getNomClasseDest() + '\u0000' + l.getType();
+    }
+
     public void setZoom(double zoom) 
     {
         // Limiter le zoom entre 0.2x et 5x
@@ -127,6 +445,7 @@ public class PanneauDiagramme extends JPanel
     {
         this.blocsClasses.clear(); // permet de nettoyer les blocs de classe
         this.liaisonsVue.clear(); // permet de nettoyer les liaisons des classes
+        this.indexerScene();
         this.repaint();
     }
 
@@ -138,6 +457,7 @@ public class PanneauDiagramme extends JPanel
     private class GereSourisInteraction extends MouseAdapter
     {
         private BlocClasse blocSelectionne = null;
+        private BlocClasse blocDeplie = null; // affiché en mode complet tant que le clic droit est enfoncé
         private int offsetX = 0;
         private int offsetY = 0;
 
@@ -189,36 +509,33 @@ public class PanneauDiagramme extends JPanel
             blocSelectionne = null;
             int mouseX = (int) (e.getX() / zoom);
             int mouseY = (int) (e.getY() / zoom);
-            for (int i = blocsClasses.size() - 1; i >= 0; i--)
-            
-                {
-                BlocClasse bloc = blocsClasses.get(i);
-                if (bloc.contient(mouseX, mouseY))
-                {
-                    if (e.getButton() == MouseEvent.BUTTON3)
-                    {
-                        bloc.setModeComplet(true);
-                        bloc.setSelectionne(true);
 
-                        repaint();
-                        return;
-                    }
-
-                    blocSelectionne = bloc;
-                    offsetX = mouseX - bloc.getX();
-                    offsetY = mouseY - bloc.getY();
-
-                    for (BlocClasse b : blocsClasses)
-                    {
-                        b.setSelectionne(false);
+            BlocClasse bloc = trouverBloc(mouseX, mouseY);
+            if (bloc != null)
+            {
+                if (e.getButton() == MouseEvent.BUTTON3)
+                {
+                    replier();
+                    blocDeplie = bloc;
+                    bloc.setModeComplet(true);
+                    selectionner(bloc);
+                    blocModifie(bloc);
 
-                    bloc.setSelectionne(true);
                     repaint();
-                    break;
+                    return;
                 }
+
+                blocSelectionne = bloc;
+                offsetX = mouseX - bloc.getX();
+                offsetY = mouseY - bloc.getY();
+
+                selectionner(bloc);
+                repaint();
+                return;
             }
+
             // Si clic droit mais pas sur un bloc -> tenter d'éditer une liaison
-            if (blocSelectionne == null && e.getButton() == MouseEvent.BUTTON3)
+            if (e.getButton() == MouseEvent.BUTTON3)
             {
                 LiaisonVue liaison = trouverLiaisonProche(mouseX, mouseY);
                 if (liaison != null)
@@ -229,12 +546,28 @@ public class PanneauDiagramme extends JPanel
 
                     EditeurLiaisonDialog dlg = new EditeurLiaisonDialog(frame, liaison);
                     dlg.setVisible(true);
+                    indexerScene(); // les libellés ont pu changer d'emprise
                     repaint();
-                    return;
                 }
             }
         }
-    }
+
+        /**
+         * Bloc sous le point (le dernier de la liste, dessiné au-dessus, en cas
+         * de chevauchement), cherché dans la seule cellule de la grille qui
+         * contient le point.
+         */
+        private BlocClasse trouverBloc(int x, int y)
+        {
+            BitSet candidats = grilleBlocs.chercher(x, y);
+
+            for (int i = candidats.length() - 1; i >= 0; i = candidats.previousSetBit(i - 1))
+            {
+                BlocClasse bloc = blocsClasses.get(i);
+                if (bloc.contient(x, y)) return bloc;
+            }
+            return null;
+        }
 
         // Methodes pour gérer le calcul de la distance point-segment en cas de
         // déplacement des classes
@@ -246,27 +579,19 @@ public class PanneauDiagramme extends JPanel
             LiaisonVue candidate = null;
             double bestDist = 12.0; // seuil en pixels
 
-            for (LiaisonVue liaison : liaisonsVue) 
+            // La marge d'une liaison dans la grille dépasse le seuil : la cellule du
+            // point contient toutes les liaisons assez proches
+            BitSet candidates = grilleLiaisons.chercher(x, y);
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) 
             {
-                Optional<BlocClasse> blocOrig = blocsClasses.stream()
-                        .filter(b -> b.getNom().equals(liaison.getNomClasseOrig())).findFirst();
-
-                Optional<BlocClasse> blocDest = blocsClasses.stream()
-                        .filter(b -> b.getNom().equals(liaison.getNomClasseDest())).findFirst();
-
-                if (!(blocOrig.isPresent() && blocDest.isPresent())) 
-                {
-                    continue;
-                }
-
-                Point p1 = calculerPointConnexion(blocOrig.get(), blocDest.get());
-                Point p2 = calculerPointConnexion(blocDest.get(), blocOrig.get());
-                double d = distancePointSegment(x, y, p1.x, p1.y, p2.x, p2.y);
+                int[] seg = segmentsLiaisons;
+                int   i   = id * 4;
+                double d  = distancePointSegment(x, y, seg[i], seg[i + 1], seg[i + 2], seg[i + 3]);
 
                 if (d < bestDist) 
                 {
                     bestDist = d;
-                    candidate = liaison;
+                    candidate = liaisonsVue.get(id);
                 }
             }
             return candidate;
@@ -310,11 +635,17 @@ public class PanneauDiagramme extends JPanel
                 newX = Math.max(0, newX);
                 newY = Math.max(0, newY);
 
+                // Seules l'ancienne et la nouvelle emprise du bloc et de ses liaisons sont redessinées
+                Rectangle zone = zoneBloc(blocSelectionne);
+
                 blocSelectionne.setX(newX);
                 blocSelectionne.setY(newY);
+                blocSelectionne.setPlace(true);
+                blocModifie(blocSelectionne);
 
-                calculerTailleDynamique();
-                repaint();
+                zone.add(zoneBloc(blocSelectionne));
+                repaintZone(zone);
+                planifierCalculTaille();
             }
         }
 
@@ -322,21 +653,27 @@ public class PanneauDiagramme extends JPanel
         public void mouseReleased(MouseEvent e) 
         {
             // Si clic droit relâché, repasser en mode condensé
-            if (e.getButton() == MouseEvent.BUTTON3) 
-            {
-                for (BlocClasse bloc : blocsClasses) 
-                {
-                    if (bloc.isModeComplet()) 
-                    {
-                        bloc.setModeComplet(false);
-                        repaint();
-                    }
-                }
-            }
+            if (e.getButton() == MouseEvent.BUTTON3) replier();
+
             blocSelectionne = null;
             offsetX = 0;
             offsetY = 0;
         }
+
+        /** Repasse le bloc déplié en mode condensé ; seule son emprise est redessinée. */
+        private void replier()
+        {
+            if (blocDeplie == null) return;
+
+            Rectangle zone = zoneBloc(blocDeplie);
+
+            blocDeplie.setModeComplet(false);
+            blocModifie(blocDeplie);
+
+            zone.add(zoneBloc(blocDeplie));
+            repaintZone(zone);
+            blocDeplie = null;
+        }
     }
 
     private void ajouterListenersInteraction() 
@@ -388,22 +725,45 @@ public class PanneauDiagramme extends JPanel
         // Appliquer le zoom
         g2d.scale(zoom, zoom);
 
-        dessinerLiaisons(g2d);
+        // Zone à redessiner, en coordonnées du diagramme (null : tout)
+        Rectangle zone = g2d.getClipBounds();
 
-        for (BlocClasse bloc : blocsClasses) 
+        dessinerLiaisons(g2d, zone);
+
+        if (zone == null)
+        {
+            for (BlocClasse bloc : blocsClasses) dessinerBloc(g2d, bloc);
+            return;
+        }
+
+        // Seuls les blocs qui touchent la zone, dans l'ordre de la liste
+        BitSet visibles = this.grilleBlocs.chercher(zone);
+        for (int i = visibles.nextSetBit(0); i >= 0; i = visibles.nextSetBit(i + 1)) 
         {
-            bloc.dessiner(g2d);
+            BlocClasse bloc = blocsClasses.get(i);
+
+            if (zone.intersects(bloc.getX(), bloc.getY(), bloc.getLargeur() + 1, bloc.getHauteur() + 1))
+                dessinerBloc(g2d, bloc);
         }
     }
 
+    private void dessinerBloc(Graphics2D g2d, BlocClasse bloc)
+    {
+        if      (this.zoom < PanneauDiagramme.ZOOM_SILHOUETTES) bloc.dessinerSilhouette(g2d);
+        else if (this.zoom < PanneauDiagramme.ZOOM_NOMS_SEULS ) bloc.dessinerNomSeul   (g2d);
+        else if (this.cacheRendu != null                      ) this.cacheRendu.dessiner(g2d, bloc);
+        else                                                    bloc.dessiner(g2d);
+    }
+
     /**
-     * Dessine toutes les liaisons entre les classes.
+     * Dessine les liaisons entre les classes qui traversent la zone.
      * * Affiche les flèches, traits et multiplicités selon le type de liaison
      * (héritage, implémentation, association).
      * 
-     * @param g2d Contexte graphique 2D
+     * @param g2d  Contexte graphique 2D
+     * @param zone Zone à redessiner (null : toutes les liaisons)
      */
-    private void dessinerLiaisons(Graphics2D g2d) 
+    private void dessinerLiaisons(Graphics2D g2d, Rectangle zone) 
     {
         if (liaisonsVue == null || blocsClasses == null) 
         {
@@ -412,87 +772,102 @@ public class PanneauDiagramme extends JPanel
 
         g2d.setFont(new Font("Arial", Font.PLAIN, 12)); // Police pour les multiplicités
 
-        for (LiaisonVue liaison : liaisonsVue) 
+        if (zone == null)
+        {
+            for (LiaisonVue liaison : liaisonsVue) dessinerLiaison(g2d, liaison);
+            return;
+        }
+
+        BitSet visibles = this.grilleLiaisons.chercher(zone);
+        for (int i = visibles.nextSetBit(0); i >= 0; i = visibles.nextSetBit(i + 1)) 
+        {
+            dessinerLiaison(g2d, liaisonsVue.get(i));
+        }
+    }
+
+    private void dessinerLiaison(Graphics2D g2d, LiaisonVue liaison) 
+    {
+        BlocClasse blocOrig = liaison.getBlocOrig();
+        BlocClasse blocDest = liaison.getBlocDest();
+
+        if (blocOrig != null && blocDest != null) 
         {
-            Optional<BlocClasse> blocOrig = blocsClasses.stream()
-                    .filter(b -> b.getNom().equals(liaison.getNomClasseOrig()))
-                    .findFirst();
+            Point p1 = calculerPointConnexion(blocOrig, blocDest);
+            Point p2 = calculerPointConnexion(blocDest, blocOrig);
 
-            Optional<BlocClasse> blocDest = blocsClasses.stream()
-                    .filter(b -> b.getNom().equals(liaison.getNomClasseDest()))
-                    .findFirst();
+            g2d.setColor(Color.BLACK);
 
-            if (blocOrig.isPresent() && blocDest.isPresent()) 
+            // Vue d'ensemble : simple trait, ni flèche ni libellé
+            if (this.zoom < PanneauDiagramme.ZOOM_SILHOUETTES)
             {
-                Point p1 = calculerPointConnexion(blocOrig.get(), blocDest.get());
-                Point p2 = calculerPointConnexion(blocDest.get(), blocOrig.get());
+                g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
+                return;
+            }
 
-                g2d.setColor(Color.BLACK);
-                Stroke oldStroke = g2d.getStroke();
+            Stroke oldStroke = g2d.getStroke();
 
-                switch (liaison.getType()) 
-                {
-                    case HERITAGE:
-                        dessinerFlecheHeritage(g2d, p1, p2, false);
-                        break;
-
-                    case IMPLEMENTATION:
-                        dessinerFlecheHeritage(g2d, p1, p2, true);
-                        break;
-
-                    case ASSOCIATION_UNIDI:
-                    case ASSOCIATION_BIDI:
-                        g2d.setStroke(new BasicStroke(1));
-                        g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
-
-                        // Multiplicités (seulement pour les associations)
-                        if (liaison.getMultipliciteOrig() != null && !liaison.getMultipliciteOrig().isEmpty()) 
-                        {
-                            dessinerMultiplicite(g2d, p1, p2, liaison.getMultipliciteOrig(), true);
-                        }
-
-                        if (liaison.getMultipliciteDest() != null && !liaison.getMultipliciteDest().isEmpty()) 
-                        {
-                            dessinerMultiplicite(g2d, p1, p2, liaison.getMultipliciteDest(), false);
-                        }
-
-                        // Rôles (labels) aux extrémités (optionnels)
-                        if (liaison.getRoleOrig() != null && !liaison.getRoleOrig().isEmpty()) 
-                        {
-                            // Rôle côté source (tu peux l'afficher à 1/7 depuis la source)
-                            dessinerRole(g2d, p1, p2, liaison.getRoleOrig(), liaison.getRoleOrigOffsetPerp());
-                        }
-
-                        if (liaison.getRoleDest() != null && !liaison.getRoleDest().isEmpty()) 
-                        {
-                            // Rôle côté destination (toujours côté classe destinataire)
-                            dessinerRole(g2d, p1, p2, liaison.getRoleDest(), liaison.getRoleDestOffsetPerp());
-                        }
-
-                        if (liaison.getType() == TypeLiaison.ASSOCIATION_UNIDI) 
-                        {
-                            dessinerFlecheSimple(g2d, p1, p2);
-                        }
-
-                        // Propriétés au milieu de la liaison
-                        if (liaison.getProprietes() != null && !liaison.getProprietes().isEmpty()) 
-                        {
-                            dessinerProprietes(g2d, p1, p2, liaison.getProprietes());
-                        }
-                        break;
-                    case NESTED:
-                        dessinerLiaisonContenance(g2d, p1, p2); // p1 est l'interne, p2 est l'hôte
-                        break;
-                }
+            switch (liaison.getType()) 
+            {
+                case HERITAGE:
+                    dessinerFlecheHeritage(g2d, p1, p2, false);
+                    break;
 
-                // Contrainte éventuelle (affichée au centre, côté opposé aux propriétés)
-                if (liaison.getContrainte() != null && !liaison.getContrainte().isEmpty()) 
-                {
-                    dessinerContrainte(g2d, p1, p2, liaison.getContrainte());
-                }
+                case IMPLEMENTATION:
+                    dessinerFlecheHeritage(g2d, p1, p2, true);
+                    break;
+
+                case ASSOCIATION_UNIDI:
+                case ASSOCIATION_BIDI:
+                    g2d.setStroke(new BasicStroke(1));
+                    g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
+
+                    // Multiplicités (seulement pour les associations)
+                    if (liaison.getMultipliciteOrig() != null && !liaison.getMultipliciteOrig().isEmpty()) 
+                    {
+                        dessinerMultiplicite(g2d, p1, p2, liaison.getMultipliciteOrig(), true);
+                    }
+
+                    if (liaison.getMultipliciteDest() != null && !liaison.getMultipliciteDest().isEmpty()) 
+                    {
+                        dessinerMultiplicite(g2d, p1, p2, liaison.getMultipliciteDest(), false);
+                    }
+
+                    // Rôles (labels) aux extrémités (optionnels)
+                    if (liaison.getRoleOrig() != null && !liaison.getRoleOrig().isEmpty()) 
+                    {
+                        // Rôle côté source (tu peux l'afficher à 1/7 depuis la source)
+                        dessinerRole(g2d, p1, p2, liaison.getRoleOrig(), liaison.getRoleOrigOffsetPerp());
+                    }
+
+                    if (liaison.getRoleDest() != null && !liaison.getRoleDest().isEmpty()) 
+                    {
+                        // Rôle côté destination (toujours côté classe destinataire)
+                        dessinerRole(g2d, p1, p2, liaison.getRoleDest(), liaison.getRoleDestOffsetPerp());
+                    }
+
+                    if (liaison.getType() == TypeLiaison.ASSOCIATION_UNIDI) 
+                    {
+                        dessinerFlecheSimple(g2d, p1, p2);
+                    }
+
+                    // Propriétés au milieu de la liaison
+                    if (liaison.getProprietes() != null && !liaison.getProprietes().isEmpty()) 
+                    {
+                        dessinerProprietes(g2d, p1, p2, liaison.getProprietes());
+                    }
+                    break;
+                case NESTED:
+                    dessinerLiaisonContenance(g2d, p1, p2); // p1 est l'interne, p2 est l'hôte
+                    break;
+            }
 
-                g2d.setStroke(oldStroke);
+            // Contrainte éventuelle (affichée au centre, côté opposé aux propriétés)
+            if (liaison.getContrainte() != null && !liaison.getContrainte().isEmpty()) 
+            {
+                dessinerContrainte(g2d, p1, p2, liaison.getContrainte());
             }
+
+            g2d.setStroke(oldStroke);
         }
     }
 
@@ -795,29 +1170,7 @@ public class PanneauDiagramme extends JPanel
     public void afficherDiagramme(List<BlocClasse> blocs) 
     {
         this.blocsClasses = blocs;
+        this.indexerScene();
         // Le repaint est maintenant géré par setLiaisonsVue
     }
-
-    /**
-     * Optimise la disposition des blocs en utilisant un algorithme hiérarchique.
-     * * Les blocs sont arrangés en couches pour minimiser les croisements de
-     * liaisons.
-     * Met à jour la taille du panneau et red essine le diagramme.
-     */
-    public void optimiserDisposition() 
-    {
-        if (blocsClasses.isEmpty()) 
-        {
-            return;
-        }
-
-        // Appliquer l'algorithme hiérarchique (Sugiyama-style)
-        // On délègue au contrôleur car lui seul a accès aux données métier (classes)
-        // nécessaires au calcul correct
-        controleur.demanderOptimisationDisposition();
-
-        // Mettre à jour la taille du panneau et redessiner
-        calculerTailleDynamique();
-        repaint();
-    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package vue;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import modele.entites.AssociationObjet;
 import modele.entites.AttributObjet;
 import modele.entites.ClasseObjet;
@@ -84,8 +86,23 @@ public class PresentationMapper
         return liaisonsVue;
     }
 
-    
-    public static List<String> convertirAttributs(List<AttributObjet> attributs, ClasseObjet classe, List<ClasseObjet> classesProjet)
+    /**
+     * Ensemble des noms des classes du projet, à construire une fois par
+     * reconstruction du diagramme et à passer à chaque conversion d'attributs.
+     */
+    public static Set<String> nomsClasses(List<ClasseObjet> classesProjet)
+    {
+        Set<String> noms = new HashSet<>(classesProjet.size() * 2);
+        for (ClasseObjet c : classesProjet) noms.add(c.getNom());
+        return noms;
+    }
+
+    /**
+     * Convertit les attributs d'une classe en lignes affichables. Les attributs
+     * dont le type est une classe du projet sont omis : ils sont représentés
+     * par une association.
+     */
+    public static List<String> convertirAttributs(List<AttributObjet> attributs, ClasseObjet classe, Set<String> nomsClassesProjet)
     {
         List<String> liste = new ArrayList<>();
         
@@ -108,15 +125,7 @@ public class PresentationMapper
                 typeSimple = type.substring(0, type.length() - 2).trim();
             }
 
-            boolean estLiaison = false;
-            for (ClasseObjet c : classesProjet)
-            {
-                if (c.getNom().equals(typeSimple) && !typeSimple.equals(classe.getNom()))
-                {
-                    estLiaison = true;
-                    break;
-                }
-            }
+            boolean estLiaison = nomsClassesProjet.contains(typeSimple) && !typeSimple.equals(classe.getNom());
             if (estLiaison) continue;
 
             char visibilite = classe.changementVisibilite(att.getVisibilite());